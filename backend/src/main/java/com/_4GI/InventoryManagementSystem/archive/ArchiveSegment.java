@@ -0,0 +1,519 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * One month of archived ledger rows in an immutable, memory-mapped file.
+ * <p>
+ * Layout: {@code [magic][version][header length][header][column blocks]}. The header holds the month, the row
+ * count, the min/max id and created_at, the row counts per type and status and, per user, the rows, products and
+ * amount of each type (fixed-size records sorted by user id, since version 2), then the offset and lengths of every
+ * column block. Each column is one deflated stream of varints (ids, times, quantities are deltas) or dictionary-coded
+ * strings, rows in (created_at, id) order.
+ * <p>
+ * Scans first decode the id, time, type and status columns (and the user column for one user's rows) to select
+ * rows, and only decode the other columns when something matched; segments whose metadata rule out a query,
+ * a user without rows in the month included, are not read at all.
+ */
+@Getter
+public final class ArchiveSegment {
+
+    static final int MAGIC = 0x494D5341;            // "IMSA"
+    static final short VERSION = 2;
+    static final String PREFIX = "transactions-";
+    static final String SUFFIX = ".seg";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+    static final int MAX_DICTIONARY = 4_096;
+
+    // stored by ordinal: append new columns at the end
+    enum Column {
+        ID, CREATED_AT, UPDATED_AT, TYPE, STATUS, TOTAL_PRODUCTS, TOTAL_PRICE, DESCRIPTION,
+        PRODUCT_ID, PRODUCT_SKU, PRODUCT_NAME, USER_ID, USER_EMAIL, SUPPLIER_ID, SUPPLIER_NAME
+    }
+
+    private record Block(long offset, int compressedLength, int rawLength) {
+    }
+
+    // rows, products and unscaled amount of one type in a user record
+    private static final int TYPE_TOTALS_BYTES = Integer.BYTES + 2 * Long.BYTES;
+
+    private final Path path;
+    private final short version;
+    private final YearMonth month;
+    private final int rows;
+    private final long bytes;
+    private final long minId;
+    private final long maxId;
+    private final LocalDateTime minCreatedAt;
+    private final LocalDateTime maxCreatedAt;
+    private final Map<TransactionType, Long> typeCounts;
+    private final Map<TransactionStatus, Long> statusCounts;
+
+    // per-user records: their type slots (null for a type that no longer exists), count and position in the file
+    @Getter(AccessLevel.NONE)
+    private final TransactionType[] userTypes;
+    @Getter(AccessLevel.NONE)
+    private final int priceScale;
+    @Getter(AccessLevel.NONE)
+    private final int users;
+    @Getter(AccessLevel.NONE)
+    private final int userOffset;
+    @Getter(AccessLevel.NONE)
+    private final Map<Column, Block> blocks;
+    // mapped once: stays valid, on the same file, when a newer segment of the month replaces it
+    @Getter(AccessLevel.NONE)
+    private final MappedByteBuffer mapped;
+
+    private ArchiveSegment(Path path, MappedByteBuffer mapped) {
+        this.path = path;
+        this.mapped = mapped;
+        this.bytes = mapped.capacity();
+        ByteBuffer buffer = mapped.duplicate();
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        this.version = buffer.getShort();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalStateException("Unsupported archive segment version " + version + ": " + path);
+        }
+        int headerLength = buffer.getInt();
+        int dataStart = buffer.position() + headerLength;
+
+        this.month = YearMonth.of(buffer.getShort(), buffer.get());
+        this.rows = buffer.getInt();
+        this.minId = buffer.getLong();
+        this.maxId = buffer.getLong();
+        this.minCreatedAt = readTime(buffer);
+        this.maxCreatedAt = readTime(buffer);
+        this.typeCounts = Collections.unmodifiableMap(readCounts(buffer, TransactionType.class));
+        this.statusCounts = Collections.unmodifiableMap(readCounts(buffer, TransactionStatus.class));
+        if (version >= 2) {
+            this.priceScale = buffer.get();
+            this.userTypes = new TransactionType[buffer.get()];
+            for (int i = 0; i < userTypes.length; i++) {
+                userTypes[i] = toEnum(TransactionType.class, readName(buffer));
+            }
+            this.users = buffer.getInt();
+            this.userOffset = buffer.position();
+            buffer.position(userOffset + users * userRecordLength());
+        } else {
+            this.priceScale = 0;
+            this.userTypes = null;
+            this.users = 0;
+            this.userOffset = 0;
+        }
+
+        Map<Column, Block> columns = new EnumMap<>(Column.class);
+        int count = buffer.get();
+        for (int i = 0; i < count; i++) {
+            Column column = Column.values()[buffer.get()];
+            columns.put(column, new Block(dataStart + buffer.getLong(), buffer.getInt(), buffer.getInt()));
+        }
+        this.blocks = columns;
+    }
+
+    /**
+     * Maps a segment file and reads its header.
+     */
+    public static ArchiveSegment open(Path path) throws IOException {
+        return new ArchiveSegment(path, map(path));
+    }
+
+    static Path fileName(Path directory, YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+
+    /**
+     * Whether rows created in [from, to) with the type and status (all optional) can be in this segment.
+     */
+    public boolean mayContain(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status) {
+        return (from == null || maxCreatedAt.isAfter(from) || maxCreatedAt.isEqual(from))
+                && (to == null || minCreatedAt.isBefore(to))
+                && (type == null || typeCounts.getOrDefault(type, 0L) > 0)
+                && (status == null || statusCounts.getOrDefault(status, 0L) > 0);
+    }
+
+    /**
+     * Whether the user can have rows in this segment, from the header alone (always true before version 2).
+     */
+    public boolean mayContainUser(long userId) {
+        return userTypes == null || userRecord(userId) >= 0;
+    }
+
+    /**
+     * The user's rows, products and amount per type in the whole month, from the header alone; empty when the user
+     * has no row here.
+     */
+    public List<TransactionTypeTotalsDTO> userTotals(long userId) {
+        if (userTypes == null) {
+            throw new IllegalStateException("No per-user totals in segment version " + version + ": " + path);
+        }
+        int record = userRecord(userId);
+        if (record < 0) {
+            return List.of();
+        }
+        List<TransactionTypeTotalsDTO> totals = new ArrayList<>(userTypes.length);
+        int position = record + Long.BYTES;
+        for (TransactionType type : userTypes) {
+            int count = mapped.getInt(position);
+            if (type != null && count > 0) {
+                totals.add(new TransactionTypeTotalsDTO(type, count, mapped.getLong(position + Integer.BYTES),
+                        BigDecimal.valueOf(mapped.getLong(position + Integer.BYTES + Long.BYTES), priceScale)));
+            }
+            position += TYPE_TOTALS_BYTES;
+        }
+        return totals;
+    }
+
+    // Position of the user's record, -1 when there is none: binary search over the records, sorted by user id
+    private int userRecord(long userId) {
+        int recordLength = userRecordLength();
+        int low = 0;
+        int high = users - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = userOffset + middle * recordLength;
+            long id = mapped.getLong(position);
+            if (id < userId) {
+                low = middle + 1;
+            } else if (id > userId) {
+                high = middle - 1;
+            } else {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private int userRecordLength() {
+        return Long.BYTES + userTypes.length * TYPE_TOTALS_BYTES;
+    }
+
+    public List<ArchivedTransaction> scan(LocalDateTime from, LocalDateTime to, TransactionType type,
+                                          TransactionStatus status) throws IOException {
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        scan(from, to, type, status, rows::add);
+        return rows;
+    }
+
+    /**
+     * Passes the rows created in [from, to) with the type and status (all optional) to the sink, in (created_at, id)
+     * order, until it returns false: rows past that point are neither decoded nor built.
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status,
+                     Predicate<ArchivedTransaction> sink) throws IOException {
+        scan(from, to, type, status, null, sink);
+    }
+
+    /**
+     * Same as above, restricted to the rows of one user (null: every user).
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status,
+                     Long userId, Predicate<ArchivedTransaction> sink) throws IOException {
+        if (mayContain(from, to, type, status) && (userId == null || mayContainUser(userId))) {
+            read(from, to, type, status, null, userId, sink);
+        }
+    }
+
+    public Optional<ArchivedTransaction> find(long id) throws IOException {
+        if (id < minId || id > maxId) {
+            return Optional.empty();
+        }
+        List<ArchivedTransaction> found = new ArrayList<>(1);
+        read(null, null, null, null, id, null, row -> !found.add(row));
+        return found.stream().findFirst();
+    }
+
+    private void read(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status, Long id,
+                      Long userId, Predicate<ArchivedTransaction> sink) throws IOException {
+        ByteBuffer buffer = mapped;
+
+        // selection columns
+        long[] ids = new long[rows];
+        long[] seconds = new long[rows];
+        int[] nanos = new int[rows];
+        TransactionType[] types = new TransactionType[rows];
+        TransactionStatus[] statuses = new TransactionStatus[rows];
+
+        ColumnInput idColumn = column(buffer, Column.ID);
+        ColumnInput createdColumn = column(buffer, Column.CREATED_AT);
+        ColumnInput typeColumn = column(buffer, Column.TYPE);
+        ColumnInput statusColumn = column(buffer, Column.STATUS);
+        long previousId = 0;
+        long previousSecond = 0;
+        for (int i = 0; i < rows; i++) {
+            previousId = ids[i] = previousId + idColumn.readSigned();
+            previousSecond = seconds[i] = previousSecond + createdColumn.readSigned();
+            nanos[i] = (int) createdColumn.readUnsigned();
+            types[i] = toEnum(TransactionType.class, typeColumn.readString());
+            statuses[i] = toEnum(TransactionStatus.class, statusColumn.readString());
+        }
+        Long[] users = null;
+        if (userId != null) {
+            users = new Long[rows];
+            ColumnInput userColumn = column(buffer, Column.USER_ID);
+            for (int i = 0; i < rows; i++) {
+                users[i] = userColumn.readNullableDelta();
+            }
+        }
+
+        BitSet selected = new BitSet(rows);
+        for (int i = 0; i < rows; i++) {
+            if ((id == null || ids[i] == id)
+                    && (userId == null || userId.equals(users[i]))
+                    && (type == null || types[i] == type)
+                    && (status == null || statuses[i] == status)
+                    && (from == null || compare(seconds[i], nanos[i], from) >= 0)
+                    && (to == null || compare(seconds[i], nanos[i], to) < 0)) {
+                selected.set(i);
+            }
+        }
+        if (selected.isEmpty()) {
+            return;
+        }
+
+        // remaining columns: decoded in full (varints are sequential), rows only built when selected
+        ColumnInput updated = column(buffer, Column.UPDATED_AT);
+        ColumnInput totalProducts = column(buffer, Column.TOTAL_PRODUCTS);
+        ColumnInput totalPrice = column(buffer, Column.TOTAL_PRICE);
+        ColumnInput description = column(buffer, Column.DESCRIPTION);
+        ColumnInput productId = column(buffer, Column.PRODUCT_ID);
+        ColumnInput productSku = column(buffer, Column.PRODUCT_SKU);
+        ColumnInput productName = column(buffer, Column.PRODUCT_NAME);
+        // already decoded when selecting on the user
+        ColumnInput userIdColumn = users == null ? column(buffer, Column.USER_ID) : null;
+        ColumnInput userEmail = column(buffer, Column.USER_EMAIL);
+        ColumnInput supplierId = column(buffer, Column.SUPPLIER_ID);
+        ColumnInput supplierName = column(buffer, Column.SUPPLIER_NAME);
+
+        int last = selected.length();
+        for (int i = 0; i < last; i++) {
+            LocalDateTime updatedAt = readUpdatedAt(updated, seconds[i]);
+            Integer quantity = readTotalProducts(totalProducts);
+            BigDecimal price = readPrice(totalPrice);
+            String text = description.readString();
+            Long product = productId.readNullableDelta();
+            String sku = productSku.readString();
+            String name = productName.readString();
+            Long user = users == null ? userIdColumn.readNullableDelta() : users[i];
+            String email = userEmail.readString();
+            Long supplier = supplierId.readNullableDelta();
+            String supplierText = supplierName.readString();
+
+            if (selected.get(i) && !sink.test(ArchivedTransaction.builder()
+                    .id(ids[i])
+                    .createdAt(LocalDateTime.ofEpochSecond(seconds[i], nanos[i], ZoneOffset.UTC))
+                    .updatedAt(updatedAt)
+                    .transactionType(types[i])
+                    .status(statuses[i])
+                    .totalProducts(quantity)
+                    .totalPrice(price)
+                    .description(text)
+                    .productId(product)
+                    .productSku(sku)
+                    .productName(name)
+                    .userId(user)
+                    .userEmail(email)
+                    .supplierId(supplier)
+                    .supplierName(supplierText)
+                    .build())) {
+                return;
+            }
+        }
+    }
+
+    private ColumnInput column(ByteBuffer buffer, Column column) throws IOException {
+        Block block = blocks.get(column);
+        if (block == null) {
+            throw new IOException("Column " + column + " missing from " + path);
+        }
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice((int) block.offset(), block.compressedLength()));
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IOException("Column " + column + " of " + path + " is truncated");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Column " + column + " of " + path + " is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        return new ColumnInput(raw);
+    }
+
+    // read-only mapping, stays valid after the channel is closed
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static LocalDateTime readUpdatedAt(ColumnInput column, long createdSecond) {
+        long code = column.readUnsigned();
+        if (code == 0) {
+            return null;
+        }
+        long second = createdSecond + unZigZag(code - 1);
+        return LocalDateTime.ofEpochSecond(second, (int) column.readUnsigned(), ZoneOffset.UTC);
+    }
+
+    private static Integer readTotalProducts(ColumnInput column) {
+        long code = column.readUnsigned();
+        return code == 0 ? null : (int) unZigZag(code - 1);
+    }
+
+    private static BigDecimal readPrice(ColumnInput column) {
+        long code = column.readUnsigned();
+        if (code == 0) {
+            return null;
+        }
+        int scale = (int) unZigZag(code - 1);
+        return new BigDecimal(new BigInteger(column.readBytes()), scale);
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> readCounts(ByteBuffer buffer, Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        int size = buffer.get();
+        for (int i = 0; i < size; i++) {
+            String name = readName(buffer);
+            int count = buffer.getInt();
+            E value = toEnum(type, name);
+            if (value != null) {
+                counts.merge(value, (long) count, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    // as written by DataOutput.writeUTF
+    private static String readName(ByteBuffer buffer) {
+        byte[] name = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    // enums are stored by name, a constant that no longer exists reads as null
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int compare(long second, int nano, LocalDateTime time) {
+        int bySecond = Long.compare(second, time.toEpochSecond(ZoneOffset.UTC));
+        return bySecond != 0 ? bySecond : Integer.compare(nano, time.getNano());
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Decoder of one inflated column, mirror of the writer's column output.
+     */
+    private static final class ColumnInput {
+
+        private final byte[] data;
+        private final List<String> dictionary = new ArrayList<>();
+        private int position;
+        private long previous;
+
+        private ColumnInput(byte[] data) {
+            this.data = data;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long readSigned() {
+            return unZigZag(readUnsigned());
+        }
+
+        Long readNullableDelta() {
+            long code = readUnsigned();
+            if (code == 0) {
+                return null;
+            }
+            previous += unZigZag(code - 1);
+            return previous;
+        }
+
+        byte[] readBytes() {
+            int length = (int) readUnsigned();
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            long code = readUnsigned();
+            if (code == 0) {
+                return null;
+            }
+            if (code >= 3) {
+                return dictionary.get((int) (code - 3));
+            }
+            String value = new String(readBytes(), StandardCharsets.UTF_8);
+            if (code == 2) {
+                dictionary.add(value);
+            }
+            return value;
+        }
+    }
+}
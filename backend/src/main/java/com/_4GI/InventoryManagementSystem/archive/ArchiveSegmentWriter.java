@@ -0,0 +1,306 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.archive.ArchiveSegment.Column;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+
+/**
+ * Builds one {@link ArchiveSegment}: rows are appended in (created_at, id) order and split into one deflated
+ * stream per column as they come, so only the compressed columns are held in memory.
+ * See {@link ArchiveSegment} for the file layout.
+ */
+final class ArchiveSegmentWriter {
+
+    private final YearMonth month;
+    private final Map<Column, ColumnOutput> columns = new EnumMap<>(Column.class);
+    private final Map<String, Integer> typeCounts = new LinkedHashMap<>();
+    private final Map<String, Integer> statusCounts = new LinkedHashMap<>();
+    // per user id, per type name
+    private final Map<Long, Map<String, UserTypeTotals>> userTotals = new TreeMap<>();
+    private int priceScale;
+
+    private ArchivedTransaction first;
+    private ArchivedTransaction last;
+    private int rows;
+    private long minId = Long.MAX_VALUE;
+    private long maxId = Long.MIN_VALUE;
+
+    ArchiveSegmentWriter(YearMonth month) {
+        this.month = month;
+        for (Column column : Column.values()) {
+            columns.put(column, new ColumnOutput());
+        }
+    }
+
+    void add(ArchivedTransaction row) throws IOException {
+        if (row.getId() == null || row.getCreatedAt() == null || !YearMonth.from(row.getCreatedAt()).equals(month)) {
+            throw new IllegalArgumentException("Row " + row.getId() + " does not belong to the segment of " + month);
+        }
+        if (last != null && ArchivedTransaction.CREATED_ORDER.compare(last, row) >= 0) {
+            throw new IllegalArgumentException("Rows must be added in (created_at, id) order, got " + row.getId()
+                    + " after " + last.getId());
+        }
+
+        long createdSecond = row.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+        long previousSecond = last == null ? 0 : last.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+
+        columns.get(Column.ID).writeSigned(row.getId() - (last == null ? 0 : last.getId()));
+        columns.get(Column.CREATED_AT).writeSigned(createdSecond - previousSecond);
+        columns.get(Column.CREATED_AT).writeUnsigned(row.getCreatedAt().getNano());
+        writeUpdatedAt(row.getUpdatedAt(), createdSecond);
+        columns.get(Column.TYPE).writeString(row.getTransactionType() == null ? null : row.getTransactionType().name());
+        columns.get(Column.STATUS).writeString(row.getStatus() == null ? null : row.getStatus().name());
+        writeTotalProducts(row.getTotalProducts());
+        writePrice(row.getTotalPrice());
+        columns.get(Column.DESCRIPTION).writeString(row.getDescription());
+        columns.get(Column.PRODUCT_ID).writeNullableDelta(row.getProductId());
+        columns.get(Column.PRODUCT_SKU).writeString(row.getProductSku());
+        columns.get(Column.PRODUCT_NAME).writeString(row.getProductName());
+        columns.get(Column.USER_ID).writeNullableDelta(row.getUserId());
+        columns.get(Column.USER_EMAIL).writeString(row.getUserEmail());
+        columns.get(Column.SUPPLIER_ID).writeNullableDelta(row.getSupplierId());
+        columns.get(Column.SUPPLIER_NAME).writeString(row.getSupplierName());
+
+        String typeName = row.getTransactionType() == null ? "" : row.getTransactionType().name();
+        typeCounts.merge(typeName, 1, Integer::sum);
+        statusCounts.merge(row.getStatus() == null ? "" : row.getStatus().name(), 1, Integer::sum);
+        if (row.getUserId() != null) {
+            UserTypeTotals totals = userTotals.computeIfAbsent(row.getUserId(), id -> new HashMap<>())
+                    .computeIfAbsent(typeName, name -> new UserTypeTotals());
+            totals.rows++;
+            totals.products += row.getTotalProducts() == null ? 0 : row.getTotalProducts();
+            if (row.getTotalPrice() != null) {
+                totals.price = totals.price.add(row.getTotalPrice());
+                priceScale = Math.max(priceScale, row.getTotalPrice().scale());
+            }
+        }
+        minId = Math.min(minId, row.getId());
+        maxId = Math.max(maxId, row.getId());
+        if (first == null) {
+            first = row;
+        }
+        last = row;
+        rows++;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * Writes the segment next to the target and moves it in place, readers never see a partial file.
+     */
+    void writeTo(Path target) throws IOException {
+        if (rows == 0) {
+            throw new IllegalStateException("Empty segment of " + month);
+        }
+
+        Map<Column, byte[]> blocks = new EnumMap<>(Column.class);
+        Map<Column, Integer> rawLengths = new EnumMap<>(Column.class);
+        for (Map.Entry<Column, ColumnOutput> entry : columns.entrySet()) {
+            blocks.put(entry.getKey(), entry.getValue().finish());
+            rawLengths.put(entry.getKey(), entry.getValue().rawLength);
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(512);
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeShort(month.getYear());
+        header.writeByte(month.getMonthValue());
+        header.writeInt(rows);
+        header.writeLong(minId);
+        header.writeLong(maxId);
+        writeTime(header, first.getCreatedAt());
+        writeTime(header, last.getCreatedAt());
+        writeCounts(header, typeCounts);
+        writeCounts(header, statusCounts);
+        writeUserTotals(header);
+        header.writeByte(blocks.size());
+        long offset = 0;
+        for (Map.Entry<Column, byte[]> block : blocks.entrySet()) {
+            header.writeByte(block.getKey().ordinal());
+            header.writeLong(offset);
+            header.writeInt(block.getValue().length);
+            header.writeInt(rawLengths.get(block.getKey()));
+            offset += block.getValue().length;
+        }
+        header.flush();
+
+        Path temporary = target.resolveSibling(target.getFileName() + ArchiveSegment.TEMPORARY_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(ArchiveSegment.MAGIC);
+            out.writeShort(ArchiveSegment.VERSION);
+            out.writeInt(headerBytes.size());
+            headerBytes.writeTo(out);
+            for (byte[] block : blocks.values()) {
+                out.write(block);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeUpdatedAt(LocalDateTime updatedAt, long createdSecond) throws IOException {
+        ColumnOutput column = columns.get(Column.UPDATED_AT);
+        if (updatedAt == null) {
+            column.writeUnsigned(0);
+            return;
+        }
+        column.writeUnsigned(zigZag(updatedAt.toEpochSecond(ZoneOffset.UTC) - createdSecond) + 1);
+        column.writeUnsigned(updatedAt.getNano());
+    }
+
+    private void writeTotalProducts(Integer totalProducts) throws IOException {
+        columns.get(Column.TOTAL_PRODUCTS).writeUnsigned(totalProducts == null ? 0 : zigZag(totalProducts) + 1);
+    }
+
+    private void writePrice(BigDecimal price) throws IOException {
+        ColumnOutput column = columns.get(Column.TOTAL_PRICE);
+        if (price == null) {
+            column.writeUnsigned(0);
+            return;
+        }
+        column.writeUnsigned(zigZag(price.scale()) + 1);
+        column.writeBytes(price.unscaledValue().toByteArray());
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static void writeCounts(DataOutputStream out, Map<String, Integer> counts) throws IOException {
+        out.writeByte(counts.size());
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            out.writeUTF(count.getKey());
+            out.writeInt(count.getValue());
+        }
+    }
+
+    // One fixed-size record per user, in id order: rows, products and amount (unscaled at the segment's price scale)
+    // of each type, types in the order written first. Looked up by binary search, see ArchiveSegment#userTotals
+    private void writeUserTotals(DataOutputStream out) throws IOException {
+        out.writeByte(priceScale);
+        out.writeByte(typeCounts.size());
+        for (String type : typeCounts.keySet()) {
+            out.writeUTF(type);
+        }
+        out.writeInt(userTotals.size());
+        for (Map.Entry<Long, Map<String, UserTypeTotals>> user : userTotals.entrySet()) {
+            out.writeLong(user.getKey());
+            for (String type : typeCounts.keySet()) {
+                UserTypeTotals totals = user.getValue().get(type);
+                out.writeInt(totals == null ? 0 : totals.rows);
+                out.writeLong(totals == null ? 0 : totals.products);
+                out.writeLong(totals == null ? 0 : unscaled(totals.price, user.getKey()));
+            }
+        }
+    }
+
+    private long unscaled(BigDecimal price, Long userId) throws IOException {
+        try {
+            return price.setScale(priceScale).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IOException("Total price of user " + userId + " in " + month + " does not fit the header", e);
+        }
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static final class UserTypeTotals {
+        private int rows;
+        private long products;
+        private BigDecimal price = BigDecimal.ZERO;
+    }
+
+    /**
+     * One column: LEB128 varints and dictionary-coded strings, deflated on the fly.
+     */
+    private static final class ColumnOutput {
+
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(4096);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final OutputStream out = new BufferedOutputStream(new DeflaterOutputStream(compressed, deflater, 8192), 8192);
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private int rawLength;
+        private long previous;
+
+        void writeUnsigned(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeSigned(long value) throws IOException {
+            writeUnsigned(zigZag(value));
+        }
+
+        // 0 for null, else the zig-zag delta to the previous non-null value plus one
+        void writeNullableDelta(Long value) throws IOException {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            writeUnsigned(zigZag(value - previous) + 1);
+            previous = value;
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            writeUnsigned(bytes.length);
+            out.write(bytes);
+            rawLength += bytes.length;
+        }
+
+        // 0 null, 1 inline, 2 inline and added to the dictionary, n >= 3 dictionary entry n - 3
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            Integer code = dictionary.get(value);
+            if (code != null) {
+                writeUnsigned(code + 3L);
+                return;
+            }
+            boolean added = dictionary.size() < ArchiveSegment.MAX_DICTIONARY;
+            if (added) {
+                dictionary.put(value, dictionary.size());
+            }
+            writeUnsigned(added ? 2 : 1);
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void write(int b) throws IOException {
+            out.write(b);
+            rawLength++;
+        }
+
+        byte[] finish() throws IOException {
+            out.close();
+            deflater.end();
+            return compressed.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+
+/**
+ * A detached ledger row, read from an archive segment or from the table while it is archived.
+ * Product, user and supplier columns are the values at archival time.
+ */
+@Value
+@Builder
+public class ArchivedTransaction implements TransactionArchiveRow {
+
+    // segment order, and the order of the month report and the export
+    static final Comparator<ArchivedTransaction> CREATED_ORDER =
+            Comparator.comparing(ArchivedTransaction::getCreatedAt).thenComparing(ArchivedTransaction::getId);
+
+    Long id;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    TransactionType transactionType;
+    TransactionStatus status;
+    Integer totalProducts;
+    BigDecimal totalPrice;
+    String description;
+    Long productId;
+    String productSku;
+    String productName;
+    Long userId;
+    String userEmail;
+    Long supplierId;
+    String supplierName;
+
+    public static ArchivedTransaction of(TransactionArchiveRow row) {
+        return ArchivedTransaction.builder()
+                .id(row.getId())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .transactionType(row.getTransactionType())
+                .status(row.getStatus())
+                .totalProducts(row.getTotalProducts())
+                .totalPrice(row.getTotalPrice())
+                .description(row.getDescription())
+                .productId(row.getProductId())
+                .productSku(row.getProductSku())
+                .productName(row.getProductName())
+                .userId(row.getUserId())
+                .userEmail(row.getUserEmail())
+                .supplierId(row.getSupplierId())
+                .supplierName(row.getSupplierName())
+                .build();
+    }
+
+    // Same columns as the read projection of the hot table
+    public TransactionDTO toDto() {
+        return new TransactionDTO(id, totalProducts, totalPrice, transactionType, status, description, updatedAt,
+                createdAt, productId, productName, productSku, supplierId, supplierName);
+    }
+}
@@ -0,0 +1,512 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.dto.ArchiveStatsDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.event.TransactionsArchivedEvent;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+
+/**
+ * Cold storage of the ledger: one {@link ArchiveSegment} file per month under {@code ims.archive.dir}.
+ * <p>
+ * With {@code ims.archive.enabled=true} a nightly run ({@code ims.archive.cron}) moves every month older than
+ * {@code horizon-months} out of the table: the month is streamed into a new segment (merged with the existing one,
+ * if any), the segment is moved in place, then the copied rows are deleted in chunks. A crash in between leaves
+ * rows in both places; readers prefer the table and the next run archives them again.
+ * <p>
+ * Everything created before {@link #archivedBefore()} (the end of the newest segment) is read through
+ * {@link #forEach}, month by month: segment rows merged with the rows of that month still in the table. Segments
+ * are read whether or not archival is enabled; those of an older format are rewritten when loaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionArchive {
+
+    private static final int DELETE_CHUNK = 1_000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ims.archive.enabled:false}")
+    private boolean enabled;
+    @Value("${ims.archive.horizon-months:24}")
+    private int horizonMonths;
+    @Value("${ims.archive.dir:${user.dir}/transaction-archive}")
+    private String archiveDir;
+
+    private Path directory;
+    private final ConcurrentNavigableMap<YearMonth, ArchiveSegment> segments = new ConcurrentSkipListMap<>();
+
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunRows;
+    private volatile long lastRunMillis;
+
+    @PostConstruct
+    void load() throws IOException {
+        directory = Path.of(archiveDir);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(ArchiveSegment.TEMPORARY_SUFFIX)) {
+                    // left by a run that died before the move, its rows are still in the table
+                    Files.delete(file);
+                } else if (name.startsWith(ArchiveSegment.PREFIX) && name.endsWith(ArchiveSegment.SUFFIX)) {
+                    ArchiveSegment segment = ArchiveSegment.open(file);
+                    if (segment.getVersion() < ArchiveSegment.VERSION) {
+                        segment = upgrade(segment);
+                    }
+                    segments.put(segment.getMonth(), segment);
+                }
+            }
+        }
+        if (!segments.isEmpty()) {
+            log.info("Transaction archive: {} monthly segments from {} to {}",
+                    segments.size(), segments.firstKey(), segments.lastKey());
+        }
+    }
+
+    // Rewrites a segment in the current format, reads rely on the per-user totals of its header
+    private ArchiveSegment upgrade(ArchiveSegment segment) throws IOException {
+        ArchiveSegmentWriter writer = new ArchiveSegmentWriter(segment.getMonth());
+        for (ArchivedTransaction row : segment.scan(null, null, null, null)) {
+            writer.add(row);
+        }
+        writer.writeTo(segment.getPath());
+        log.info("Archive segment of {} rewritten from format version {} to {}",
+                segment.getMonth(), segment.getVersion(), ArchiveSegment.VERSION);
+        return ArchiveSegment.open(segment.getPath());
+    }
+
+    @Scheduled(cron = "${ims.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Moves every month before the horizon out of the table, returns the number of rows archived.
+     */
+    public synchronized long archive() {
+        long begin = System.nanoTime();
+        LocalDateTime horizon = YearMonth.now().minusMonths(horizonMonths).atDay(1).atStartOfDay();
+        LocalDateTime oldest = transactionRepository.findOldestCreatedAt();
+
+        long archived = 0;
+        if (oldest != null && oldest.isBefore(horizon)) {
+            for (YearMonth month = YearMonth.from(oldest); month.atDay(1).atStartOfDay().isBefore(horizon);
+                 month = month.plusMonths(1)) {
+                archived += archiveMonth(month);
+            }
+        }
+
+        lastRunAt = LocalDateTime.now();
+        lastRunRows = archived;
+        lastRunMillis = (System.nanoTime() - begin) / 1_000_000;
+        log.info("Archived {} transactions created before {} in {} ms", archived, horizon, lastRunMillis);
+        return archived;
+    }
+
+    private long archiveMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        // rows updated after this instant were copied with stale values: they are not deleted
+        LocalDateTime copiedAt = LocalDateTime.now();
+
+        ArchiveSegment existing = segments.get(month);
+        ArchiveSegmentWriter writer = new ArchiveSegmentWriter(month);
+        List<Long> copied = new ArrayList<>();
+
+        try {
+            Iterator<ArchivedTransaction> archivedRows = (existing == null
+                    ? List.<ArchivedTransaction>of()
+                    : existing.scan(null, null, null, null)).iterator();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TransactionArchiveRow> rows = transactionRepository.streamForArchive(from, to, null, null, null)) {
+                    // both sides in (created_at, id) order: merge, the table's copy of a row wins
+                    ArchivedTransaction pending = next(archivedRows);
+                    for (Iterator<TransactionArchiveRow> hot = rows.iterator(); hot.hasNext(); ) {
+                        ArchivedTransaction row = ArchivedTransaction.of(hot.next());
+                        while (pending != null && ArchivedTransaction.CREATED_ORDER.compare(pending, row) < 0) {
+                            writer.add(pending);
+                            pending = next(archivedRows);
+                        }
+                        if (pending != null && pending.getId().equals(row.getId())) {
+                            pending = next(archivedRows);
+                        }
+                        writer.add(row);
+                        copied.add(row.getId());
+                    }
+                    while (pending != null) {
+                        writer.add(pending);
+                        pending = next(archivedRows);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (copied.isEmpty()) {
+                return 0;
+            }
+            Files.createDirectories(directory);
+            Path file = ArchiveSegment.fileName(directory, month);
+            writer.writeTo(file);
+            segments.put(month, ArchiveSegment.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive " + month, e);
+        }
+
+        long deleted = 0;
+        for (int start = 0; start < copied.size(); start += DELETE_CHUNK) {
+            List<Long> chunk = copied.subList(start, Math.min(start + DELETE_CHUNK, copied.size()));
+            Integer count = transactionTemplate.execute(status -> deleteChunk(chunk, copiedAt));
+            deleted += count == null ? 0 : count;
+        }
+        log.info("Archived {}: {} rows copied, {} deleted from the table", month, copied.size(), deleted);
+        return deleted;
+    }
+
+    private int deleteChunk(List<Long> chunk, LocalDateTime copiedAt) {
+        int deleted = transactionRepository.deleteArchived(chunk, copiedAt);
+        List<Long> removed = chunk;
+        if (deleted < chunk.size()) {
+            Set<Long> kept = new HashSet<>(transactionRepository.findIdsByIdIn(chunk));
+            removed = chunk.stream().filter(id -> !kept.contains(id)).toList();
+        }
+        eventPublisher.publishEvent(new TransactionsArchivedEvent(List.copyOf(removed)));
+        return deleted;
+    }
+
+    private static ArchivedTransaction next(Iterator<ArchivedTransaction> rows) {
+        return rows.hasNext() ? rows.next() : null;
+    }
+
+    /**
+     * End of the newest archived month: rows created before it are read through {@link #forEach}, null when
+     * nothing is archived.
+     */
+    public LocalDateTime archivedBefore() {
+        Map.Entry<YearMonth, ArchiveSegment> newest = segments.lastEntry();
+        return newest == null ? null : newest.getKey().plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    // Whether a read starting at from (null: the beginning) needs the archive
+    public boolean covers(LocalDateTime from) {
+        LocalDateTime archivedBefore = archivedBefore();
+        return archivedBefore != null && (from == null || from.isBefore(archivedBefore));
+    }
+
+    /**
+     * Passes the rows created in [from, to) with the type and status (all optional) and before
+     * {@link #archivedBefore()} to the consumer, in (created_at, id) order.
+     */
+    public void forEach(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status,
+                        Consumer<ArchivedTransaction> consumer) {
+        forEachWhile(from, to, type, status, row -> {
+            consumer.accept(row);
+            return true;
+        });
+    }
+
+    /**
+     * Same as {@link #forEach} until the sink returns false. Segment rows are streamed: besides what the sink keeps,
+     * only the rows of the current month still in the table are held in memory.
+     */
+    public void forEachWhile(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status,
+                             Predicate<ArchivedTransaction> sink) {
+        LocalDateTime archivedBefore = archivedBefore();
+        if (archivedBefore == null) {
+            return;
+        }
+        LocalDateTime end = to == null || to.isAfter(archivedBefore) ? archivedBefore : to;
+        YearMonth first = segments.firstKey();
+        YearMonth month = from == null || YearMonth.from(from).isBefore(first) ? first : YearMonth.from(from);
+
+        for (; month.atDay(1).atStartOfDay().isBefore(end); month = month.plusMonths(1)) {
+            LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+            LocalDateTime rangeStart = from == null || from.isBefore(monthStart) ? monthStart : from;
+            LocalDateTime rangeEnd = end.isBefore(monthEnd) ? end : monthEnd;
+            if (rangeStart.isBefore(rangeEnd) && !readMonth(month, rangeStart, rangeEnd, type, status, null, sink)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The newest {@code limit} archived rows of the user created in [from, to) with the type (all optional) that come
+     * before the (beforeAt, beforeId) keyset position (null: the start), newest first. Months are read newest to
+     * oldest until the page is full; at most limit rows are kept per month, segments without rows of the user are
+     * not read.
+     */
+    public List<ArchivedTransaction> findNewestBefore(Long userId, LocalDateTime from, LocalDateTime to,
+                                                      TransactionType type, LocalDateTime beforeAt, Long beforeId,
+                                                      int limit) {
+        LocalDateTime archivedBefore = archivedBefore();
+        if (archivedBefore == null || limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime end = to == null || to.isAfter(archivedBefore) ? archivedBefore : to;
+        if (beforeAt != null && beforeAt.isBefore(end)) {
+            // rows at beforeAt itself with a lower id still come after the position
+            end = beforeAt.plusNanos(1);
+        }
+        YearMonth first = segments.firstKey();
+
+        List<ArchivedTransaction> newestFirst = new ArrayList<>(limit);
+        for (YearMonth month = YearMonth.from(end.minusNanos(1));
+             !month.isBefore(first) && newestFirst.size() < limit; month = month.minusMonths(1)) {
+            LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+            if (from != null && !monthEnd.isAfter(from)) {
+                break;
+            }
+            LocalDateTime rangeStart = from == null || from.isBefore(monthStart) ? monthStart : from;
+            LocalDateTime rangeEnd = end.isBefore(monthEnd) ? end : monthEnd;
+            if (!rangeStart.isBefore(rangeEnd)) {
+                continue;
+            }
+            // the month is read oldest first: keep its newest matches only
+            int wanted = limit - newestFirst.size();
+            ArrayDeque<ArchivedTransaction> newest = new ArrayDeque<>(wanted);
+            readMonth(month, rangeStart, rangeEnd, type, null, userId, row -> {
+                if (isBefore(row, beforeAt, beforeId)) {
+                    if (newest.size() == wanted) {
+                        newest.removeFirst();
+                    }
+                    newest.addLast(row);
+                }
+                return true;
+            });
+            newest.descendingIterator().forEachRemaining(newestFirst::add);
+        }
+        return newestFirst;
+    }
+
+    /**
+     * Counts and totals per type of the user's archived rows created in [from, to) with the type (all optional).
+     * Whole months are summed from the segment headers; a month cut by the range, or with rows of the user still in
+     * the table, is read for the user's rows only.
+     */
+    public Map<TransactionType, TransactionTypeTotalsDTO> summarizeUser(Long userId, LocalDateTime from,
+                                                                       LocalDateTime to, TransactionType type) {
+        Map<TransactionType, TransactionTypeTotalsDTO> totals = new EnumMap<>(TransactionType.class);
+        LocalDateTime archivedBefore = archivedBefore();
+        if (archivedBefore == null) {
+            return totals;
+        }
+        LocalDateTime end = to == null || to.isAfter(archivedBefore) ? archivedBefore : to;
+        YearMonth first = segments.firstKey();
+        LocalDateTime start = from == null || from.isBefore(first.atDay(1).atStartOfDay())
+                ? first.atDay(1).atStartOfDay() : from;
+        if (!start.isBefore(end)) {
+            return totals;
+        }
+        // months with rows of the user still in the table, normally none once archived
+        Set<YearMonth> hotMonths = new HashSet<>();
+        for (LocalDateTime createdAt : transactionRepository.findUserCreatedAtBetween(userId, start, end)) {
+            hotMonths.add(YearMonth.from(createdAt));
+        }
+
+        for (YearMonth month = YearMonth.from(start); month.atDay(1).atStartOfDay().isBefore(end);
+             month = month.plusMonths(1)) {
+            LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+            LocalDateTime rangeStart = start.isBefore(monthStart) ? monthStart : start;
+            LocalDateTime rangeEnd = end.isBefore(monthEnd) ? end : monthEnd;
+            ArchiveSegment segment = segments.get(month);
+            if (rangeStart.equals(monthStart) && rangeEnd.equals(monthEnd) && !hotMonths.contains(month)) {
+                if (segment != null) {
+                    segment.userTotals(userId).stream()
+                            .filter(monthTotals -> type == null || monthTotals.getTransactionType() == type)
+                            .forEach(monthTotals -> add(totals, monthTotals.getTransactionType(), monthTotals.getCount(),
+                                    monthTotals.getTotalProducts(), monthTotals.getTotalPrice()));
+                }
+            } else if (segment != null || hotMonths.contains(month)) {
+                readMonth(month, rangeStart, rangeEnd, type, null, userId, row -> {
+                    if (row.getTransactionType() != null) {
+                        add(totals, row.getTransactionType(), 1,
+                                row.getTotalProducts() == null ? 0 : row.getTotalProducts(), row.getTotalPrice());
+                    }
+                    return true;
+                });
+            }
+        }
+        return totals;
+    }
+
+    private static void add(Map<TransactionType, TransactionTypeTotalsDTO> totals, TransactionType type, long count,
+                            long totalProducts, BigDecimal totalPrice) {
+        TransactionTypeTotalsDTO typeTotals = totals.computeIfAbsent(type,
+                key -> new TransactionTypeTotalsDTO(key, 0, 0, BigDecimal.ZERO));
+        typeTotals.setCount(typeTotals.getCount() + count);
+        typeTotals.setTotalProducts(typeTotals.getTotalProducts() + totalProducts);
+        if (totalPrice != null) {
+            typeTotals.setTotalPrice(typeTotals.getTotalPrice().add(totalPrice));
+        }
+    }
+
+    private static boolean isBefore(ArchivedTransaction row, LocalDateTime beforeAt, Long beforeId) {
+        if (beforeAt == null) {
+            return true;
+        }
+        int created = row.getCreatedAt().compareTo(beforeAt);
+        return created < 0 || created == 0 && row.getId() < beforeId;
+    }
+
+    // One month in (created_at, id) order, of one user or all (null), false once the sink stopped
+    private boolean readMonth(YearMonth month, LocalDateTime from, LocalDateTime to, TransactionType type,
+                              TransactionStatus status, Long userId, Predicate<ArchivedTransaction> sink) {
+        // rows of the month still in the table: not archived yet, or changed while being archived
+        Map<Long, ArchivedTransaction> hot = new HashMap<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<TransactionArchiveRow> rows = transactionRepository.streamForArchive(from, to, type, status, userId)) {
+                rows.forEach(row -> hot.put(row.getId(), ArchivedTransaction.of(row)));
+            }
+        });
+        List<ArchivedTransaction> hotRows = new ArrayList<>(hot.values());
+        hotRows.sort(ArchivedTransaction.CREATED_ORDER);
+        MonthMerge merge = new MonthMerge(hotRows.iterator(), hot.keySet(), sink);
+
+        ArchiveSegment segment = segments.get(month);
+        if (segment != null) {
+            try {
+                segment.scan(from, to, type, status, userId, merge::segmentRow);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the archive of " + month, e);
+            }
+        }
+        return merge.finish();
+    }
+
+    // Interleaves the table rows of a month with its segment rows, both in (created_at, id) order; the table's copy
+    // of a row wins
+    private static final class MonthMerge {
+
+        private final Iterator<ArchivedTransaction> hot;
+        private final Set<Long> hotIds;
+        private final Predicate<ArchivedTransaction> sink;
+        private ArchivedTransaction nextHot;
+        private boolean stopped;
+
+        MonthMerge(Iterator<ArchivedTransaction> hot, Set<Long> hotIds, Predicate<ArchivedTransaction> sink) {
+            this.hot = hot;
+            this.hotIds = hotIds;
+            this.sink = sink;
+            this.nextHot = next(hot);
+        }
+
+        boolean segmentRow(ArchivedTransaction row) {
+            if (hotIds.contains(row.getId())) {
+                return true;
+            }
+            while (nextHot != null && ArchivedTransaction.CREATED_ORDER.compare(nextHot, row) < 0) {
+                if (!emit(nextHot)) {
+                    return false;
+                }
+                nextHot = next(hot);
+            }
+            return emit(row);
+        }
+
+        boolean finish() {
+            while (!stopped && nextHot != null) {
+                emit(nextHot);
+                nextHot = next(hot);
+            }
+            return !stopped;
+        }
+
+        private boolean emit(ArchivedTransaction row) {
+            stopped = !sink.test(row);
+            return !stopped;
+        }
+    }
+
+    // Looks the id up in the segments whose id range holds it, newest first
+    public Optional<ArchivedTransaction> findById(long id) {
+        for (ArchiveSegment segment : segments.descendingMap().values()) {
+            try {
+                Optional<ArchivedTransaction> row = segment.find(id);
+                if (row.isPresent()) {
+                    return row;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the archive of " + segment.getMonth(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Per-type row counts of all segments, from their headers
+    public Map<TransactionType, Long> countByType() {
+        Map<TransactionType, Long> counts = new EnumMap<>(TransactionType.class);
+        for (ArchiveSegment segment : segments.values()) {
+            segment.getTypeCounts().forEach((type, count) -> counts.merge(type, count, Long::sum));
+        }
+        return counts;
+    }
+
+    public ArchiveStatsDTO stats() {
+        List<ArchiveStatsDTO.Segment> list = new ArrayList<>(segments.size());
+        long rows = 0;
+        long bytes = 0;
+        for (ArchiveSegment segment : segments.values()) {
+            list.add(new ArchiveStatsDTO.Segment(segment.getMonth(), segment.getRows(), segment.getBytes(),
+                    segment.getMinId(), segment.getMaxId(), segment.getMinCreatedAt(), segment.getMaxCreatedAt()));
+            rows += segment.getRows();
+            bytes += segment.getBytes();
+        }
+
+        return ArchiveStatsDTO.builder()
+                .enabled(enabled)
+                .horizonMonths(horizonMonths)
+                .archivedBefore(archivedBefore())
+                .archivedRows(rows)
+                .segmentBytes(bytes)
+                .segments(list)
+                .lastRunAt(lastRunAt)
+                .lastRunRows(lastRunRows)
+                .lastRunMillis(lastRunMillis)
+                .build();
+    }
+}
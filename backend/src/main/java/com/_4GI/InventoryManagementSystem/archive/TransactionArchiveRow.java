@@ -0,0 +1,11 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.export.TransactionExportRow;
+
+import java.time.LocalDateTime;
+
+
+// A ledger row as copied into an archive segment: the export columns plus the last update time
+public interface TransactionArchiveRow extends TransactionExportRow {
+    LocalDateTime getUpdatedAt();
+}
@@ -3,14 +3,17 @@ package com._4GI.InventoryManagementSystem.controller;
 import com._4GI.InventoryManagementSystem.dto.LoginRequest;
 import com._4GI.InventoryManagementSystem.dto.RegisterRequest;
 import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
 import com._4GI.InventoryManagementSystem.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,6 +34,14 @@ public class AuthController {
         return ResponseEntity.ok(userService.loginUser(loginRequest));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Response> logoutUser(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (!authorization.startsWith("Bearer ")) {
+            throw new NameValueRequiredException("Bearer token is required");
+        }
+        return ResponseEntity.ok(userService.logoutUser(authorization.substring(7)));
+    }
+
     @GetMapping("/debug-auth")
     public ResponseEntity<String> debugAuthentication(Authentication authentication) {
         if (authentication == null) {
@@ -0,0 +1,45 @@
+package com._4GI.InventoryManagementSystem.controller;
+
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final StatsService statsService;
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<Response> getDashboardStats() {
+        return ResponseEntity.ok(statsService.getDashboardStats());
+    }
+
+    // queue depth and flush latency of the write-behind ledger
+    @GetMapping("/ledger")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response> getLedgerStats() {
+        return ResponseEntity.ok(statsService.getLedgerStats());
+    }
+
+    // monthly segments of the transaction archive and the last archival run
+    @GetMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response> getArchiveStats() {
+        return ResponseEntity.ok(statsService.getArchiveStats());
+    }
+
+    // hit ratio of the users cached for authentication
+    @GetMapping("/principal-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response> getPrincipalCacheStats() {
+        return ResponseEntity.ok(statsService.getPrincipalCacheStats());
+    }
+}
@@ -2,12 +2,26 @@ package com._4GI.InventoryManagementSystem.controller;
 
 import com._4GI.InventoryManagementSystem.dto.Response;
 import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.dto.TransactionStatusBulkRequest;
 import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.export.TransactionExportCriteria;
+import com._4GI.InventoryManagementSystem.export.TransactionExportFormat;
+import com._4GI.InventoryManagementSystem.service.TransactionExportService;
 import com._4GI.InventoryManagementSystem.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -15,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping("/purchase")
     public ResponseEntity<Response> restockInventory(@RequestBody @Valid TransactionRequest transactionRequest) {
@@ -29,12 +44,23 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.returnToSupplier(transactionRequest));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Response> processBatch(@RequestBody List<TransactionRequest> transactionRequests) {
+        return ResponseEntity.ok(transactionService.processBatch(transactionRequests));
+    }
+
     @GetMapping("/all")
     public ResponseEntity<Response> getAllTransactions(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "1000") int size,
-            @RequestParam(required = false) String searchText
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
     ) {
+        // cursor mode (?after=&limit=) seeks on the primary key and skips the count query
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsAfter(after, limit == null ? 50 : limit, searchText));
+        }
         return ResponseEntity.ok(transactionService.getAllTransactions(page, size, searchText));
     }
 
@@ -46,9 +72,38 @@ public class TransactionController {
     @GetMapping("/by-month-year")
     public ResponseEntity<Response> getAllTransactionByMonthAndYear(
             @RequestParam int month,
-            @RequestParam int year
+            @RequestParam int year,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
     ) {
-        return ResponseEntity.ok(transactionService.getAllTransactionByMonthAndYear(month, year));
+        return ResponseEntity.ok(transactionService.getAllTransactionByMonthAndYear(month, year, type, status, page, size));
+    }
+
+    // Streams the export as it is read: ?format=csv|ndjson&from=2025-01-01&to=2025-02-01&type=&status=&gzip=true
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        // validated here, before the body starts streaming
+        TransactionExportFormat exportFormat = TransactionExportFormat.from(format);
+        TransactionExportCriteria criteria = new TransactionExportCriteria(from, to, type, status);
+        String fileName = criteria.fileName() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> transactionExportService.exportTransactions(criteria, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(gzip
+                        ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
     }
 
     @PutMapping("/update/{transactionId}")
@@ -60,4 +115,17 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.updateTransactionStatus(transactionId, status));
     }
 
+    // e.g. settle supplier returns: {"status":"COMPLETED","type":"RETURN_TO_SUPPLIER","currentStatus":"PROCESSING"}
+    @PutMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Response> updateTransactionStatuses(@RequestBody @Valid TransactionStatusBulkRequest request) {
+        return ResponseEntity.ok(transactionService.updateTransactionStatuses(request));
+    }
+
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Response> archiveTransactions() {
+        return ResponseEntity.ok(transactionService.archiveTransactions());
+    }
+
 }
@@ -2,13 +2,16 @@ package com._4GI.InventoryManagementSystem.controller;
 
 import com._4GI.InventoryManagementSystem.dto.Response;
 import com._4GI.InventoryManagementSystem.dto.UserDTO;
-import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
 import com._4GI.InventoryManagementSystem.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -33,13 +36,21 @@ public class UserController {
         return ResponseEntity.ok(userService.deleteUser(id));
     }
 
+    // newest first: ?limit=50&after=<nextCursor>, optional from/to (ISO dates, to excluded) and type
     @GetMapping("/transactions/{userId}")
-    public ResponseEntity<Response> getUserAndTransactions(@PathVariable Long userId){
-        return ResponseEntity.ok(userService.getUserTransactions(userId));
+    public ResponseEntity<Response> getUserAndTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit
+    ){
+        return ResponseEntity.ok(userService.getUserTransactions(userId, from, to, type, after, limit));
     }
 
     @GetMapping("/current")
-    public ResponseEntity<User> getCurrentUser(){
-        return ResponseEntity.ok(userService.getCurrentLoggedInUser());
+    public ResponseEntity<UserDTO> getCurrentUser(){
+        return ResponseEntity.ok(UserDTO.fromEntity(userService.getCurrentLoggedInUser()));
     }
 }
@@ -0,0 +1,48 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArchiveStatsDTO {
+
+    // false: no archival runs, segments archived earlier are still read
+    private boolean enabled;
+    private int horizonMonths;
+
+    // rows created before this instant are read from the segments (null: nothing archived)
+    private LocalDateTime archivedBefore;
+
+    private long archivedRows;
+    private long segmentBytes;
+    private List<Segment> segments;
+
+    private LocalDateTime lastRunAt;
+    private long lastRunRows;
+    private long lastRunMillis;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Segment {
+        private YearMonth month;
+        private int rows;
+        private long bytes;
+        private long minId;
+        private long maxId;
+        private LocalDateTime minCreatedAt;
+        private LocalDateTime maxCreatedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com._4GI.InventoryManagementSystem.dto;
 
+import com._4GI.InventoryManagementSystem.entity.Category;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
@@ -20,4 +21,18 @@ public class CategoryDTO {
     @NotBlank(message = "Name is required")
     private String name;
 
+    // Custom Mapper Methods between Entity and DTO
+    public static CategoryDTO fromEntity(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return new CategoryDTO(category.getId(), category.getName());
+    }
+
+    public Category toEntity() {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
 }
@@ -0,0 +1,44 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardStatsDTO {
+
+    private long totalUsers;
+    private long totalProducts;
+    private long totalSuppliers;
+
+    private long totalTransactions;
+    private Map<TransactionType, Long> transactionsByType;
+
+    // distinct users with a transaction in the last activeUsersWindowMinutes (approximate)
+    private long activeUsers;
+    private int activeUsersWindowMinutes;
+
+    // transactions per second over the last minute, per minute over the last hour, oldest first
+    private List<ActivityPoint> perSecond;
+    private List<ActivityPoint> perMinute;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ActivityPoint {
+        // start of the bucket, epoch millis
+        private long time;
+        private long count;
+    }
+}
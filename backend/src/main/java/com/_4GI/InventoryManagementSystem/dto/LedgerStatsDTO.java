@@ -0,0 +1,34 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerStatsDTO {
+
+    // false: ledger rows are inserted by the request transaction and the counters below stay at 0
+    private boolean writeBehind;
+
+    private int capacity;
+    // entries accepted but not in the database yet (reserved, queued or being written)
+    private int queueDepth;
+
+    private long recorded;
+    private long written;
+    // refused by the database and set aside in the journal directory
+    private long rejected;
+    // requests turned away because the buffer stayed full for the whole offer timeout
+    private long backpressureRejections;
+
+    private long flushes;
+    private int lastFlushSize;
+    private double lastFlushMillis;
+    private double averageFlushMillis;
+    private double maxFlushMillis;
+}
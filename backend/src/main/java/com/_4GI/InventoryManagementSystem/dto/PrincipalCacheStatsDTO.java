@@ -0,0 +1,27 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PrincipalCacheStatsDTO {
+
+    // false: every authenticated request loads its user from the database
+    private boolean enabled;
+    private int maxSize;
+    private long ttlSeconds;
+    private int size;
+
+    private long hits;
+    private long misses;
+    // hits / (hits + misses), 0 before the first lookup
+    private double hitRatio;
+    // entries dropped by user updates and deletions
+    private long invalidations;
+}
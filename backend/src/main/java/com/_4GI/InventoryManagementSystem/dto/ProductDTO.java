@@ -33,6 +33,25 @@ public class ProductDTO {
     private LocalDateTime updatedAt;
     private LocalDateTime createdAt;
 
+    // Read-side projection (JPQL constructor expression, see ProductRepository)
+    public ProductDTO(Long id, Long categoryId, Integer position, String name, String sku, BigDecimal price,
+                      Integer stockQuantity, String description, String imageUrl, LocalDateTime expiryDate,
+                      LocalDateTime updatedAt, LocalDateTime createdAt) {
+        this.id = id;
+        this.productId = id;
+        this.categoryId = categoryId;
+        this.position = position;
+        this.name = name;
+        this.sku = sku;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.expiryDate = expiryDate;
+        this.updatedAt = updatedAt;
+        this.createdAt = createdAt;
+    }
+
     // Custom Mapper Method from Entity to DTO
     public static ProductDTO fromEntity(Product product) {
         if (product == null) {
@@ -48,6 +67,7 @@ public class ProductDTO {
             dto.setCategoryId(product.getCategory().getId());
         }
 
+        dto.setPosition(product.getPosition());
         dto.setName(product.getName());
         dto.setSku(product.getSku());
         dto.setPrice(product.getPrice());
@@ -23,6 +23,10 @@ public class Response {
     //for pagination
     private Integer totalPages;
     private Long totalElements;
+    //for slice pagination (no count query), true when another page follows
+    private Boolean hasNext;
+    //for keyset (cursor) pagination, null on the last page
+    private String nextCursor;
 
     //data output optional
     private UserDTO user;
@@ -39,6 +43,18 @@ public class Response {
 
     private TransactionDTO transaction;
     private List<TransactionDTO> transactions;
+    //counts and totals of a user's transactions, on the first page of their history
+    private UserTransactionSummaryDTO userTransactionSummary;
+
+    //per-line outcome of a batch
+    private List<TransactionBatchResult> batchResults;
+
+    private TransactionStatusBulkResult bulkStatusResult;
+
+    private DashboardStatsDTO stats;
+    private LedgerStatsDTO ledger;
+    private ArchiveStatsDTO archive;
+    private PrincipalCacheStatsDTO principalCache;
 
     private final LocalDateTime timestamp = LocalDateTime.now();
 
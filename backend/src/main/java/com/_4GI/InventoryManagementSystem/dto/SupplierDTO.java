@@ -1,6 +1,7 @@
 package com._4GI.InventoryManagementSystem.dto;
 
 
+import com._4GI.InventoryManagementSystem.entity.Supplier;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
@@ -21,4 +22,20 @@ public class SupplierDTO {
     private String name;
 
     private String address;
+
+    // Custom Mapper Methods between Entity and DTO
+    public static SupplierDTO fromEntity(Supplier supplier) {
+        if (supplier == null) {
+            return null;
+        }
+        return new SupplierDTO(supplier.getId(), supplier.getName(), supplier.getAddress());
+    }
+
+    public Supplier toEntity() {
+        Supplier supplier = new Supplier();
+        supplier.setId(id);
+        supplier.setName(name);
+        supplier.setAddress(address);
+        return supplier;
+    }
 }
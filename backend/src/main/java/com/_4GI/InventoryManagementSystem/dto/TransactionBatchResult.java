@@ -0,0 +1,23 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionBatchResult {
+
+    // position of the line in the submitted batch
+    private int index;
+
+    private int status;
+
+    private String message;
+
+    private Long transactionId;
+}
@@ -2,6 +2,9 @@ package com._4GI.InventoryManagementSystem.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
 import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
 import com._4GI.InventoryManagementSystem.enums.TransactionType;
 import lombok.AllArgsConstructor;
@@ -26,8 +29,59 @@ public class TransactionDTO {
     private String description;
     private LocalDateTime updatedAt;
     private LocalDateTime createdAt;
+
+    // flattened from the product/supplier by the read queries, no nested DTO needed for lists
+    private Long productId;
+    private String productName;
+    private String productSku;
+    private Long supplierId;
+    private String supplierName;
+
     private UserDTO user;
     private ProductDTO product;
     private SupplierDTO supplier;
 
+    // Read-side projection (JPQL constructor expression, see TransactionRepository.DTO_SELECT)
+    public TransactionDTO(Long id, Integer totalProducts, BigDecimal totalPrice, TransactionType transactionType,
+                          TransactionStatus status, String description, LocalDateTime updatedAt, LocalDateTime createdAt,
+                          Long productId, String productName, String productSku, Long supplierId, String supplierName) {
+        this.id = id;
+        this.totalProducts = totalProducts;
+        this.totalPrice = totalPrice;
+        this.transactionType = transactionType;
+        this.status = status;
+        this.description = description;
+        this.updatedAt = updatedAt;
+        this.createdAt = createdAt;
+        this.productId = productId;
+        this.productName = productName;
+        this.productSku = productSku;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+    }
+
+    // Custom Mapper Method from Entity to DTO: same columns as the read projection, the nested user/product/supplier
+    // DTOs are left out (reads the product/supplier, call it inside the transaction that loaded the entity)
+    public static TransactionDTO fromEntity(Transaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+
+        Product product = transaction.getProduct();
+        Supplier supplier = transaction.getSupplier();
+        return new TransactionDTO(
+                transaction.getId(),
+                transaction.getTotalProducts(),
+                transaction.getTotalPrice(),
+                transaction.getTransactionType(),
+                transaction.getStatus(),
+                transaction.getDescription(),
+                transaction.getUpdatedAt(),
+                transaction.getCreatedAt(),
+                product != null ? product.getId() : null,
+                product != null ? product.getName() : null,
+                product != null ? product.getSku() : null,
+                supplier != null ? supplier.getId() : null,
+                supplier != null ? supplier.getName() : null);
+    }
 }
@@ -1,6 +1,7 @@
 package com._4GI.InventoryManagementSystem.dto;
 
 
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -22,4 +23,11 @@ public class TransactionRequest {
     private Long supplierId;
 
     private String  description;
+
+    // only used by the batch endpoint, single-call endpoints imply the type from the route
+    private TransactionType transactionType;
+
+    public TransactionRequest(Long productId, Integer quantity, Long supplierId, String description) {
+        this(productId, quantity, supplierId, description, null);
+    }
 }
@@ -0,0 +1,37 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+/**
+ * Target status plus the rows to move: either explicit ids, or a filter (all optional, at least one required)
+ * on type, current status, supplier and creation date in [from, to).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TransactionStatusBulkRequest {
+
+    @NotNull(message = "Target status is required")
+    private TransactionStatus status;
+
+    private List<Long> ids;
+
+    private TransactionType type;
+    private TransactionStatus currentStatus;
+    private Long supplierId;
+    private LocalDate from;
+    private LocalDate to;
+}
@@ -0,0 +1,28 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionStatusBulkResult {
+
+    // rows moved to the target status
+    private long updated;
+
+    // rows selected but left as they are: their status cannot move to the target
+    private long skipped;
+
+    // ids of the request that do not exist (id mode only)
+    private Long notFound;
+
+    private int chunks;
+    private long elapsedMillis;
+}
@@ -0,0 +1,21 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+
+// Count and totals of one transaction type, one row of a GROUP BY (see TransactionRepository.summarizeUserTransactions)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionTypeTotalsDTO {
+
+    private TransactionType transactionType;
+    private long count;
+    private long totalProducts;
+    private BigDecimal totalPrice;
+}
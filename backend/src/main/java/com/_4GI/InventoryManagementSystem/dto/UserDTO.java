@@ -3,6 +3,7 @@ package com._4GI.InventoryManagementSystem.dto;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com._4GI.InventoryManagementSystem.entity.User;
 import com._4GI.InventoryManagementSystem.enums.UserRole;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -36,5 +37,30 @@ public class UserDTO {
 
     private LocalDateTime createdAt;
 
+    // Read-side projection (JPQL constructor expression, see UserRepository), never selects the password
+    public UserDTO(Long id, String name, String email, String phoneNumber, UserRole role, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.role = role;
+        this.createdAt = createdAt;
+    }
 
+    // Custom Mapper Method from Entity to DTO, the transactions are left out (mapped separately when needed)
+    public static UserDTO fromEntity(User user) {
+        if (user == null) {
+            return null;
+        }
+
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setEmail(user.getEmail());
+        dto.setPassword(user.getPassword());
+        dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setRole(user.getRole());
+        dto.setCreatedAt(user.getCreatedAt());
+        return dto;
+    }
 }
@@ -0,0 +1,25 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserTransactionSummaryDTO {
+
+    // over every transaction matching the filters, not just the returned page
+    private long count;
+    private long totalProducts;
+    private BigDecimal totalPrice;
+
+    // types without transactions are left out
+    private List<TransactionTypeTotalsDTO> byType;
+}
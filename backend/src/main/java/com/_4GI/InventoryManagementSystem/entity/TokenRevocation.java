@@ -0,0 +1,45 @@
+package com._4GI.InventoryManagementSystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+
+/**
+ * A revoked bearer token ("jti:" + token id) or every token of a user issued before notBefore ("sub:" + email).
+ * The row is useless once no token it covers can still be valid, that is after expiresAt.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_token_revocations_created_at", columnList = "created_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "revocation_key", nullable = false, length = 320)
+    private String key;
+
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // what the other instances poll on
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+}
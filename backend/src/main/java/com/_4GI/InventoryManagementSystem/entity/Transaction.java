@@ -1,5 +1,6 @@
 package com._4GI.InventoryManagementSystem.entity;
 
+import com._4GI.InventoryManagementSystem.entity.id.TimeSortedId;
 import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
 import com._4GI.InventoryManagementSystem.enums.TransactionType;
 import jakarta.persistence.*;
@@ -21,11 +22,21 @@ import org.hibernate.annotations.UpdateTimestamp;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // backs the month/year report and every other created_at range query
+        @Index(name = "idx_transactions_created_at", columnList = "created_at"),
+        // bulk status changes walk one status in primary key order (InnoDB appends the key to the index)
+        @Index(name = "idx_transactions_status", columnList = "status"),
+        // a user's history, newest first (keyset on created_at, then the appended primary key)
+        @Index(name = "idx_transactions_user_created_at", columnList = "user_id, created_at"),
+        // the search index catch-up, every few seconds: rows written since its last pass
+        @Index(name = "idx_transactions_updated_at", columnList = "updated_at")
+})
 public class Transaction {
 
+    // generated in-process (time-sorted) so ledger inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortedId
     private Long id;
 
     private Integer totalProducts;
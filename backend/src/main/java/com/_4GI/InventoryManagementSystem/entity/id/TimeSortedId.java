@@ -0,0 +1,21 @@
+package com._4GI.InventoryManagementSystem.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+
+/**
+ * Marks an {@code @Id} as generated in-process by {@link TimeSortedIdGenerator}.
+ * Unlike {@code GenerationType.IDENTITY} the key is known before the INSERT, so Hibernate can batch inserts.
+ */
+@IdGeneratorType(TimeSortedIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeSortedId {
+}
@@ -0,0 +1,35 @@
+package com._4GI.InventoryManagementSystem.entity.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+
+/**
+ * Hibernate adapter for {@link TimeSortedIdSource}.
+ * The node number comes from the {@value #NODE_SETTING} setting
+ * ({@code spring.jpa.properties.ims.id.node} in application.properties), default 0.
+ */
+public class TimeSortedIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_SETTING = "ims.id.node";
+
+    private final TimeSortedIdSource source;
+
+    public TimeSortedIdGenerator(TimeSortedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object node = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_SETTING);
+
+        this.source = TimeSortedIdSource.forNode(node == null ? 0 : Integer.parseInt(node.toString().trim()));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return source.nextId();
+    }
+}
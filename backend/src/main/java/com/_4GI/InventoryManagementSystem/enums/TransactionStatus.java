@@ -1,5 +1,28 @@
 package com._4GI.InventoryManagementSystem.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum TransactionStatus {
-    PENDING, PROCESSING, COMPLETED, CANCELED
+    PENDING, PROCESSING, COMPLETED, CANCELED;
+
+    // Allowed moves of the bulk status endpoint: forward only, COMPLETED and CANCELED are final
+    public boolean canMoveTo(TransactionStatus target) {
+        return switch (this) {
+            case PENDING -> target == PROCESSING || target == COMPLETED || target == CANCELED;
+            case PROCESSING -> target == COMPLETED || target == CANCELED;
+            case COMPLETED, CANCELED -> false;
+        };
+    }
+
+    // Statuses a row can be in to be moved to the target
+    public static Set<TransactionStatus> sourcesOf(TransactionStatus target) {
+        Set<TransactionStatus> sources = EnumSet.noneOf(TransactionStatus.class);
+        for (TransactionStatus status : values()) {
+            if (status.canMoveTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -0,0 +1,14 @@
+package com._4GI.InventoryManagementSystem.event;
+
+
+// Published when a product is created, updated or deleted (name and sku are null on delete)
+public record ProductChangedEvent(Long id, String name, String sku, boolean deleted) {
+
+    public static ProductChangedEvent saved(Long id, String name, String sku) {
+        return new ProductChangedEvent(id, name, sku, false);
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(id, null, null, true);
+    }
+}
@@ -0,0 +1,41 @@
+package com._4GI.InventoryManagementSystem.event;
+
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+
+/**
+ * Published for every ledger row written by the transaction service.
+ * Carries a detached snapshot so after-commit listeners never touch the persistence context.
+ */
+public record TransactionRecordedEvent(
+        Long id,
+        TransactionType transactionType,
+        TransactionStatus status,
+        Long productId,
+        Long userId,
+        Long supplierId,
+        Integer totalProducts,
+        BigDecimal totalPrice,
+        String description,
+        LocalDateTime createdAt
+) {
+
+    public static TransactionRecordedEvent of(Transaction transaction) {
+        return new TransactionRecordedEvent(
+                transaction.getId(),
+                transaction.getTransactionType(),
+                transaction.getStatus(),
+                transaction.getProduct() != null ? transaction.getProduct().getId() : null,
+                transaction.getUser() != null ? transaction.getUser().getId() : null,
+                transaction.getSupplier() != null ? transaction.getSupplier().getId() : null,
+                transaction.getTotalProducts(),
+                transaction.getTotalPrice(),
+                transaction.getDescription(),
+                transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now());
+    }
+}
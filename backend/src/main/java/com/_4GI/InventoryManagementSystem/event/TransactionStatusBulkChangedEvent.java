@@ -0,0 +1,10 @@
+package com._4GI.InventoryManagementSystem.event;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+
+import java.util.List;
+
+
+// Published once per chunk of the bulk status endpoint, instead of one TransactionStatusChangedEvent per row
+public record TransactionStatusBulkChangedEvent(List<Long> ids, TransactionStatus status) {
+}
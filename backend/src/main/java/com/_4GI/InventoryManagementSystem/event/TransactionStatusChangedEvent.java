@@ -0,0 +1,8 @@
+package com._4GI.InventoryManagementSystem.event;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+
+
+// Published when a ledger row moves from one status to another
+public record TransactionStatusChangedEvent(Long id, TransactionStatus previousStatus, TransactionStatus status) {
+}
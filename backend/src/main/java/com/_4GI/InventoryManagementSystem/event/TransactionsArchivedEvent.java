@@ -0,0 +1,8 @@
+package com._4GI.InventoryManagementSystem.event;
+
+import java.util.List;
+
+
+// Published once per deleted chunk when rows have been moved from the table into an archive segment
+public record TransactionsArchivedEvent(List<Long> ids) {
+}
@@ -0,0 +1,8 @@
+package com._4GI.InventoryManagementSystem.exceptions;
+
+
+public class InsufficientStockException extends RuntimeException{
+    public InsufficientStockException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com._4GI.InventoryManagementSystem.exceptions;
+
+
+// A bounded resource is saturated, the request can be retried later (503)
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,91 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+// RFC 4180 CSV: comma separated, CRLF line ends, fields quoted only when needed
+public class CsvTransactionExportWriter implements TransactionExportWriter {
+
+    private static final String HEADER = "id,created_at,transaction_type,status,total_products,total_price," +
+            "product_id,product_sku,product_name,user_id,user_email,supplier_id,supplier_name,description";
+
+    private final Writer out;
+
+    public CsvTransactionExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+        out.write("\r\n");
+    }
+
+    @Override
+    public void write(TransactionExportRow row) throws IOException {
+        value(row.getId());
+        out.write(',');
+        value(row.getCreatedAt());
+        out.write(',');
+        value(row.getTransactionType());
+        out.write(',');
+        value(row.getStatus());
+        out.write(',');
+        value(row.getTotalProducts());
+        out.write(',');
+        value(row.getTotalPrice() == null ? null : row.getTotalPrice().toPlainString());
+        out.write(',');
+        value(row.getProductId());
+        out.write(',');
+        text(row.getProductSku());
+        out.write(',');
+        text(row.getProductName());
+        out.write(',');
+        value(row.getUserId());
+        out.write(',');
+        text(row.getUserEmail());
+        out.write(',');
+        value(row.getSupplierId());
+        out.write(',');
+        text(row.getSupplierName());
+        out.write(',');
+        text(row.getDescription());
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void value(Object value) throws IOException {
+        if (value != null) {
+            out.write(value.toString());
+        }
+    }
+
+    private void text(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
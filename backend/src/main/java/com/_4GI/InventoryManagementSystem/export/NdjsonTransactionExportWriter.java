@@ -0,0 +1,68 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+// Newline-delimited JSON: one object per row, written field by field (no intermediate DTO or map)
+public class NdjsonTransactionExportWriter implements TransactionExportWriter {
+
+    private final Writer out;
+    private final JsonGenerator json;
+
+    public NdjsonTransactionExportWriter(Writer out, JsonFactory jsonFactory) throws IOException {
+        this.out = out;
+        this.json = jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // lines are separated explicitly below, no space between root values
+        this.json.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader() {
+        // self-describing, no header line
+    }
+
+    @Override
+    public void write(TransactionExportRow row) throws IOException {
+        json.writeStartObject();
+        number("id", row.getId());
+        string("createdAt", row.getCreatedAt());
+        string("transactionType", row.getTransactionType());
+        string("status", row.getStatus());
+        number("totalProducts", row.getTotalProducts() == null ? null : row.getTotalProducts().longValue());
+        if (row.getTotalPrice() != null) {
+            json.writeNumberField("totalPrice", row.getTotalPrice());
+        }
+        number("productId", row.getProductId());
+        string("productSku", row.getProductSku());
+        string("productName", row.getProductName());
+        number("userId", row.getUserId());
+        string("userEmail", row.getUserEmail());
+        number("supplierId", row.getSupplierId());
+        string("supplierName", row.getSupplierName());
+        string("description", row.getDescription());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        json.close();
+        out.flush();
+    }
+
+    private void number(String name, Long value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(name, value);
+        }
+    }
+
+    private void string(String name, Object value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value.toString());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+
+/**
+ * Rows to export: created in [from, to) (both optional, whole days) with the optional type/status.
+ * Validated on construction, before the response starts streaming.
+ */
+public record TransactionExportCriteria(LocalDate from, LocalDate to, TransactionType type, TransactionStatus status) {
+
+    public TransactionExportCriteria {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new NameValueRequiredException("Export range is empty: 'from' must be before 'to'");
+        }
+    }
+
+    public LocalDateTime fromTime() {
+        return from == null ? null : from.atStartOfDay();
+    }
+
+    public LocalDateTime toTime() {
+        return to == null ? null : to.atStartOfDay();
+    }
+
+    // file name without extension, e.g. transactions_2025-01-01_2025-02-01
+    public String fileName() {
+        return "transactions" + (from == null ? "" : "_" + from) + (to == null ? "" : "_" + to);
+    }
+}
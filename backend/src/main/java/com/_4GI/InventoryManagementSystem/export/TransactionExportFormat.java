@@ -0,0 +1,35 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+
+import java.util.Locale;
+
+
+public enum TransactionExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    TransactionExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static TransactionExportFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new NameValueRequiredException("Unsupported export format: " + value + " (csv or ndjson)");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+
+// One exported ledger row, flattened with its product/user/supplier (a projection, never a managed entity)
+public interface TransactionExportRow {
+    Long getId();
+    LocalDateTime getCreatedAt();
+    TransactionType getTransactionType();
+    TransactionStatus getStatus();
+    Integer getTotalProducts();
+    BigDecimal getTotalPrice();
+    String getDescription();
+    Long getProductId();
+    String getProductSku();
+    String getProductName();
+    Long getUserId();
+    String getUserEmail();
+    Long getSupplierId();
+    String getSupplierName();
+}
@@ -0,0 +1,17 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import java.io.IOException;
+
+
+/**
+ * Serializes export rows one at a time to an underlying buffered stream; nothing is kept between rows.
+ */
+public interface TransactionExportWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(TransactionExportRow row) throws IOException;
+
+    // flushes buffered output, does not close the target
+    void finish() throws IOException;
+}
@@ -0,0 +1,110 @@
+package com._4GI.InventoryManagementSystem.ledger;
+
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+
+/**
+ * One ledger row waiting to be written: a detached copy of the {@link Transaction} columns,
+ * with the binary encoding used by the journal.
+ */
+public record LedgerEntry(
+        long id,
+        TransactionType transactionType,
+        TransactionStatus status,
+        Long productId,
+        Long userId,
+        Long supplierId,
+        Integer totalProducts,
+        BigDecimal totalPrice,
+        String description,
+        LocalDateTime createdAt
+) {
+
+    public static LedgerEntry of(Transaction transaction) {
+        return new LedgerEntry(
+                transaction.getId(),
+                transaction.getTransactionType(),
+                transaction.getStatus(),
+                transaction.getProduct() != null ? transaction.getProduct().getId() : null,
+                transaction.getUser() != null ? transaction.getUser().getId() : null,
+                transaction.getSupplier() != null ? transaction.getSupplier().getId() : null,
+                transaction.getTotalProducts(),
+                transaction.getTotalPrice(),
+                transaction.getDescription(),
+                transaction.getCreatedAt());
+    }
+
+    // enums are written by name so reordering their constants never corrupts a journal
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(id);
+        writeString(out, transactionType != null ? transactionType.name() : null);
+        writeString(out, status != null ? status.name() : null);
+        writeLong(out, productId);
+        writeLong(out, userId);
+        writeLong(out, supplierId);
+        out.writeBoolean(totalProducts != null);
+        if (totalProducts != null) {
+            out.writeInt(totalProducts);
+        }
+        writeString(out, totalPrice != null ? totalPrice.toPlainString() : null);
+        writeString(out, description);
+        out.writeLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(createdAt.getNano());
+    }
+
+    static LedgerEntry readFrom(DataInput in) throws IOException {
+        long id = in.readLong();
+        String type = readString(in);
+        String status = readString(in);
+        Long productId = readLong(in);
+        Long userId = readLong(in);
+        Long supplierId = readLong(in);
+        Integer totalProducts = in.readBoolean() ? in.readInt() : null;
+        String totalPrice = readString(in);
+        String description = readString(in);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+
+        return new LedgerEntry(
+                id,
+                type != null ? TransactionType.valueOf(type) : null,
+                status != null ? TransactionStatus.valueOf(status) : null,
+                productId,
+                userId,
+                supplierId,
+                totalProducts,
+                totalPrice != null ? new BigDecimal(totalPrice) : null,
+                description,
+                createdAt);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
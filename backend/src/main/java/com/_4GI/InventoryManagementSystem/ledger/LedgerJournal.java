@@ -0,0 +1,216 @@
+package com._4GI.InventoryManagementSystem.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+
+/**
+ * Append-only, segmented journal of the ledger entries accepted by the write-behind ledger.
+ * <p>
+ * Every entry is appended before it is queued, so entries not yet in the database survive a shutdown or a crash
+ * and are replayed at the next start. Records are framed as {@code [length][crc32][payload]}: a record torn by a
+ * crash fails its checksum and ends the replay of its segment. A full segment is retired and deleted once every
+ * entry it holds has been written to the database.
+ */
+@Slf4j
+class LedgerJournal implements Closeable {
+
+    static final String PREFIX = "ledger-";
+    static final String SUFFIX = ".journal";
+    private static final String REJECTED_PREFIX = "rejected-";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<Path> recovered;
+    private final List<Segment> retired = new ArrayList<>();
+
+    private Segment current;
+    private long nextSequence;
+
+    /**
+     * A journal file, with the number of its entries not written to the database yet.
+     */
+    static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger pending = new AtomicInteger();
+        private long size;
+
+        private Segment(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        void written() {
+            pending.decrementAndGet();
+        }
+    }
+
+    LedgerJournal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        this.recovered = segments(directory);
+        this.nextSequence = recovered.isEmpty() ? 1 : sequenceOf(recovered.get(recovered.size() - 1)) + 1;
+        this.current = openSegment();
+    }
+
+    // Segments left by a previous run, oldest first
+    List<Path> recoveredSegments() {
+        return recovered;
+    }
+
+    /**
+     * Appends the entry to the current segment and returns that segment.
+     */
+    Segment append(LedgerEntry entry) throws IOException {
+        ByteBuffer record = encode(entry);
+        synchronized (this) {
+            while (record.hasRemaining()) {
+                current.channel.write(record);
+            }
+            current.size += record.limit();
+            current.pending.incrementAndGet();
+            return current;
+        }
+    }
+
+    // Pushes appended records to the storage device, bounds what a power loss can take
+    synchronized void force() throws IOException {
+        current.channel.force(false);
+    }
+
+    /**
+     * Starts a new segment when the current one is full, then deletes the retired segments fully written.
+     */
+    synchronized void maintain() throws IOException {
+        if (current.size >= segmentBytes) {
+            retired.add(current);
+            current = openSegment();
+        }
+
+        Iterator<Segment> it = retired.iterator();
+        while (it.hasNext()) {
+            Segment segment = it.next();
+            if (segment.pending.get() == 0) {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Closes the journal. Segments still holding unwritten entries are kept for the next start.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        retired.add(current);
+        for (Segment segment : retired) {
+            segment.channel.force(false);
+            segment.channel.close();
+            if (segment.pending.get() == 0) {
+                Files.deleteIfExists(segment.path);
+            } else {
+                log.warn("Ledger journal {} keeps {} entries not written to the database, they are replayed at the next start",
+                        segment.path.getFileName(), segment.pending.get());
+            }
+        }
+        retired.clear();
+    }
+
+    // Sets aside entries the database refused, for manual inspection: they are never replayed
+    void reject(List<LedgerEntry> entries) throws IOException {
+        Path file = directory.resolve(REJECTED_PREFIX + System.currentTimeMillis() + "-" + System.nanoTime() + SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (LedgerEntry entry : entries) {
+                ByteBuffer record = encode(entry);
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Reads the records of a segment up to the end of the file or the first torn record.
+     */
+    static List<LedgerEntry> read(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        List<LedgerEntry> entries = new ArrayList<>();
+        CRC32 crc = new CRC32();
+
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                log.warn("Ledger journal {} ends with a torn record, {} entries recovered", segment.getFileName(), entries.size());
+                break;
+            }
+            crc.reset();
+            crc.update(bytes, buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Ledger journal {} has a corrupt record, {} entries recovered", segment.getFileName(), entries.size());
+                break;
+            }
+            entries.add(LedgerEntry.readFrom(new DataInputStream(
+                    new ByteArrayInputStream(bytes, buffer.position(), length))));
+            buffer.position(buffer.position() + length);
+        }
+        return entries;
+    }
+
+    private static ByteBuffer encode(LedgerEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(0);   // header placeholder
+        entry.writeTo(out);
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.limit() - HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    private Segment openSegment() throws IOException {
+        return new Segment(directory.resolve(String.format("%s%019d%s", PREFIX, nextSequence++, SUFFIX)));
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(f -> f.getFileName().toString().startsWith(PREFIX) && f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
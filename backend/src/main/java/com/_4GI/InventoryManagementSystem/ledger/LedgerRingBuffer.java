@@ -0,0 +1,94 @@
+package com._4GI.InventoryManagementSystem.ledger;
+
+import java.util.Collection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer.
+ * <p>
+ * Producers first {@link #reserve} a slot (blocking up to a timeout when the buffer is full, which is the
+ * backpressure), then either {@link #publish} a value or {@link #cancel} the reservation. The consumer
+ * {@link #drainTo drains} values in publication order and gives the slots back with {@link #release} once it
+ * is done with them, so reservations also cover the values being written by the consumer.
+ * <p>
+ * Since at most {@code capacity} reservations exist, the slot a producer claims has always been drained:
+ * publishing is a wait-free counter increment plus an ordered store.
+ */
+class LedgerRingBuffer<T> {
+
+    private final Object[] slots;
+    // sequence + 1 of the value stored in each slot, 0 while the slot was never written
+    private final AtomicLongArray published;
+    private final int mask;
+    private final Semaphore permits;
+
+    private final AtomicLong tail = new AtomicLong();
+    // written by the consumer only
+    private volatile long head;
+
+    LedgerRingBuffer(int requestedCapacity) {
+        int capacity = requestedCapacity <= 2 ? 2 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.permits = new Semaphore(capacity);
+    }
+
+    boolean reserve(long timeout, TimeUnit unit) throws InterruptedException {
+        return permits.tryAcquire(timeout, unit);
+    }
+
+    void cancel() {
+        permits.release();
+    }
+
+    // Requires a reservation
+    void publish(T value) {
+        long sequence = tail.getAndIncrement();
+        int index = (int) (sequence & mask);
+        slots[index] = value;
+        published.lazySet(index, sequence + 1);
+    }
+
+    // Consumer only: moves up to max published values to the sink, stops at the first slot not yet written
+    @SuppressWarnings("unchecked")
+    int drainTo(Collection<? super T> sink, int max) {
+        long sequence = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence + 1) {
+                break;
+            }
+            sink.add((T) slots[index]);
+            slots[index] = null;
+            sequence++;
+            drained++;
+        }
+        head = sequence;
+        return drained;
+    }
+
+    // Consumer only: gives back the slots of drained values
+    void release(int count) {
+        permits.release(count);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    // published and not drained yet
+    int queued() {
+        return (int) (tail.get() - head);
+    }
+
+    // reserved, queued or still held by the consumer
+    int pending() {
+        return slots.length - permits.availablePermits();
+    }
+}
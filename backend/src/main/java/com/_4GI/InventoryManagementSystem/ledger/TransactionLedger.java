@@ -0,0 +1,403 @@
+package com._4GI.InventoryManagementSystem.ledger;
+
+import com._4GI.InventoryManagementSystem.dto.LedgerStatsDTO;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.id.TimeSortedIdSource;
+import com._4GI.InventoryManagementSystem.exceptions.ServiceBusyException;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Writes the ledger rows of the single-call transaction endpoints.
+ * <p>
+ * By default the row is inserted by the request transaction. With {@code ims.ledger.write-behind.enabled=true}
+ * only the stock change commits on the request thread; the row is then:
+ * <ol>
+ *   <li>given its id and timestamps right away, so the response and the after-commit events stay complete;</li>
+ *   <li>on commit, appended to the local {@link LedgerJournal} and queued in a bounded {@link LedgerRingBuffer};</li>
+ *   <li>inserted by a single writer thread in JDBC batches of up to {@code flush-size} rows (multi-row inserts
+ *       with MySQL's {@code rewriteBatchedStatements}), at the latest {@code flush-interval-ms} after it was queued.</li>
+ * </ol>
+ * The buffer slot is reserved inside the request transaction: when the buffer stays full for
+ * {@code offer-timeout-ms} the request fails with a 503 and its stock change rolls back. Entries not yet written
+ * at shutdown, or lost in a crash, stay in the journal and are replayed before the application serves requests.
+ * <p>
+ * Reads of the ledger (lists, reports, exports) see a row up to one flush interval after the stock changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionLedger {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions (id, transaction_type, status, product_id, user_id, "
+            + "supplier_id, total_products, total_price, description, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ims.ledger.write-behind.enabled:false}")
+    private boolean writeBehind;
+    @Value("${ims.ledger.write-behind.capacity:65536}")
+    private int capacity;
+    @Value("${ims.ledger.write-behind.flush-size:1000}")
+    private int flushSize;
+    @Value("${ims.ledger.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+    @Value("${ims.ledger.write-behind.offer-timeout-ms:250}")
+    private long offerTimeoutMs;
+    @Value("${ims.ledger.write-behind.journal-dir:${user.dir}/ledger-journal}")
+    private String journalDir;
+    @Value("${ims.ledger.write-behind.segment-bytes:16777216}")
+    private long segmentBytes;
+    @Value("${spring.jpa.properties.ims.id.node:0}")
+    private int idNode;
+
+    private LedgerRingBuffer<Pending> ring;
+    private LedgerJournal journal;
+    private TimeSortedIdSource ids;
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backpressureRejections = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong lastFlush = new AtomicLong();   // (nanos << 20) | rows
+
+    // a queued entry and the journal segment holding it (null when the journal append failed)
+    private record Pending(LedgerEntry entry, LedgerJournal.Segment segment) {
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!writeBehind) {
+            return;
+        }
+        ring = new LedgerRingBuffer<>(capacity);
+        journal = new LedgerJournal(Path.of(journalDir), segmentBytes);
+        ids = TimeSortedIdSource.forNode(idNode);
+
+        // the schema is up (the repository needs the entity manager factory), replay before serving requests
+        replay(journal.recoveredSegments());
+
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "ledger-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        log.info("Write-behind ledger started: capacity {}, flush size {}, flush interval {} ms, journal {}",
+                ring.capacity(), flushSize, flushIntervalMs, journalDir);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (!writeBehind) {
+            return;
+        }
+        running = false;
+        Thread thread = writer;
+        LockSupport.unpark(thread);
+        thread.join(SHUTDOWN_TIMEOUT_MS);
+        if (thread.isAlive()) {
+            thread.interrupt();
+            thread.join(1_000);
+        }
+        journal.close();
+    }
+
+    /**
+     * Records the ledger row of a stock change, in the caller's transaction or behind it.
+     */
+    public void record(Transaction transaction) {
+        if (!writeBehind) {
+            transactionRepository.save(transaction);
+            return;
+        }
+
+        if (!running || !reserve()) {
+            backpressureRejections.increment();
+            throw new ServiceBusyException("Too many transactions in progress, please retry");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transaction.setId(ids.nextId());
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+        LedgerEntry entry = LedgerEntry.of(transaction);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enqueue(entry);
+                } else {
+                    ring.cancel();
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits until every accepted entry is in the database, returns false on timeout. No-op without write-behind.
+     */
+    public boolean awaitWritten(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!writeBehind) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (ring.pending() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    public LedgerStatsDTO stats() {
+        if (!writeBehind) {
+            return LedgerStatsDTO.builder().writeBehind(false).build();
+        }
+        long count = flushes.sum();
+        long last = lastFlush.get();
+        return LedgerStatsDTO.builder()
+                .writeBehind(true)
+                .capacity(ring.capacity())
+                .queueDepth(ring.pending())
+                .recorded(recorded.sum())
+                .written(written.sum())
+                .rejected(rejected.sum())
+                .backpressureRejections(backpressureRejections.sum())
+                .flushes(count)
+                .lastFlushSize((int) (last & 0xFFFFF))
+                .lastFlushMillis((last >>> 20) / 1e6)
+                .averageFlushMillis(count == 0 ? 0 : flushNanos.sum() / 1e6 / count)
+                .maxFlushMillis(maxFlushNanos.get() / 1e6)
+                .build();
+    }
+
+    private boolean reserve() {
+        try {
+            return ring.reserve(offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void enqueue(LedgerEntry entry) {
+        LedgerJournal.Segment segment = null;
+        try {
+            segment = journal.append(entry);
+        } catch (IOException e) {
+            // the stock change is committed: still write the row, it is only not crash-safe
+            log.error("Could not journal ledger entry {}: {}", entry.id(), e.getMessage());
+        }
+        ring.publish(new Pending(entry, segment));
+        recorded.increment();
+        if (ring.queued() >= flushSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Single consumer: flushes when a batch is full or its oldest entry waited flushIntervalMs
+    private void writeLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        List<Pending> batch = new ArrayList<>(flushSize);
+        long batchStart = 0;
+        long retryDelayMs = flushIntervalMs;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean stopping = !running;
+            boolean wasEmpty = batch.isEmpty();
+            ring.drainTo(batch, flushSize - batch.size());
+
+            if (batch.isEmpty()) {
+                if (stopping && ring.pending() == 0) {
+                    return;
+                }
+                LockSupport.parkNanos(this, intervalNanos);
+                continue;
+            }
+            if (wasEmpty) {
+                batchStart = System.nanoTime();
+            }
+            long waited = System.nanoTime() - batchStart;
+            if (batch.size() < flushSize && waited < intervalNanos && !stopping) {
+                LockSupport.parkNanos(this, intervalNanos - waited);
+                continue;
+            }
+
+            if (flush(batch)) {
+                batch.clear();
+                retryDelayMs = flushIntervalMs;
+            } else {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(retryDelayMs));
+                retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+            }
+
+            try {
+                journal.force();
+                journal.maintain();
+            } catch (IOException e) {
+                log.error("Ledger journal maintenance failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Returns false when the batch must be retried later
+    private boolean flush(List<Pending> batch) {
+        long begin = System.nanoTime();
+        List<LedgerEntry> entries = new ArrayList<>(batch.size());
+        batch.forEach(p -> entries.add(p.entry()));
+
+        try {
+            try {
+                insert(entries);
+            } catch (DataIntegrityViolationException e) {
+                // one bad row fails the whole batch: write row by row and set the offending rows aside
+                insertEachOrReject(missing(entries));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ledger flush of {} rows failed, retrying: {}", batch.size(), e.getMessage());
+            return false;
+        }
+
+        long elapsed = System.nanoTime() - begin;
+        flushes.increment();
+        flushNanos.add(elapsed);
+        maxFlushNanos.accumulate(elapsed);
+        lastFlush.set((elapsed << 20) | Math.min(batch.size(), 0xFFFFF));
+        written.add(batch.size());
+
+        for (Pending pending : batch) {
+            if (pending.segment() != null) {
+                pending.segment().written();
+            }
+        }
+        ring.release(batch.size());
+        return true;
+    }
+
+    private void insert(List<LedgerEntry> entries) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+                    Timestamp createdAt = Timestamp.valueOf(entry.createdAt());
+                    ps.setLong(1, entry.id());
+                    ps.setString(2, entry.transactionType() != null ? entry.transactionType().name() : null);
+                    ps.setString(3, entry.status() != null ? entry.status().name() : null);
+                    ps.setObject(4, entry.productId(), Types.BIGINT);
+                    ps.setObject(5, entry.userId(), Types.BIGINT);
+                    ps.setObject(6, entry.supplierId(), Types.BIGINT);
+                    ps.setObject(7, entry.totalProducts(), Types.INTEGER);
+                    ps.setBigDecimal(8, entry.totalPrice());
+                    ps.setString(9, entry.description());
+                    ps.setTimestamp(10, createdAt);
+                    ps.setTimestamp(11, createdAt);
+                }));
+    }
+
+    private void insertEachOrReject(List<LedgerEntry> entries) {
+        List<LedgerEntry> refused = new ArrayList<>();
+        for (LedgerEntry entry : entries) {
+            try {
+                insert(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Ledger entry {} refused by the database: {}", entry.id(), e.getMessage());
+                refused.add(entry);
+            }
+        }
+        if (!refused.isEmpty()) {
+            rejected.add(refused.size());
+            try {
+                journal.reject(refused);
+            } catch (IOException e) {
+                log.error("Could not set aside {} refused ledger entries: {}", refused.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Inserts the entries of journal segments left by a previous run that are not in the database yet,
+     * then deletes the segments. A segment that cannot be replayed is kept for the next start.
+     */
+    void replay(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                List<LedgerEntry> entries = LedgerJournal.read(segment);
+                int restored = 0;
+                for (int from = 0; from < entries.size(); from += flushSize) {
+                    List<LedgerEntry> missing = missing(entries.subList(from, Math.min(from + flushSize, entries.size())));
+                    if (!missing.isEmpty()) {
+                        try {
+                            insert(missing);
+                        } catch (DataIntegrityViolationException e) {
+                            insertEachOrReject(missing);
+                        }
+                        restored += missing.size();
+                    }
+                }
+                Files.delete(segment);
+                log.info("Replayed ledger journal {}: {} entries, {} were missing from the database",
+                        segment.getFileName(), entries.size(), restored);
+            } catch (IOException | DataAccessException | TransactionException e) {
+                log.error("Could not replay ledger journal {}, kept for the next start: {}", segment.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    // Entries whose id is not in the transactions table (a crash can happen between a flush and the segment deletion)
+    private List<LedgerEntry> missing(List<LedgerEntry> entries) {
+        String placeholders = String.join(",", Collections.nCopies(entries.size(), "?"));
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM transactions WHERE id IN (" + placeholders + ")",
+                Long.class,
+                entries.stream().map(LedgerEntry::id).toArray()));
+
+        return entries.stream()
+                .filter(e -> !existing.contains(e.id()))
+                .toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com._4GI.InventoryManagementSystem.metrics;
+
+import com._4GI.InventoryManagementSystem.archive.TransactionArchive;
+import com._4GI.InventoryManagementSystem.ledger.TransactionLedger;
+import com._4GI.InventoryManagementSystem.security.PasswordHasher;
+import com._4GI.InventoryManagementSystem.security.PrincipalCache;
+import com._4GI.InventoryManagementSystem.security.RateLimitFilter;
+import com._4GI.InventoryManagementSystem.security.TokenRevocations;
+import com._4GI.InventoryManagementSystem.stock.StockCommandDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+
+/**
+ * Publishes the counters the components already keep (the /api/stats endpoints) as gauges and function counters,
+ * read at scrape time only: nothing is added to the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class ComponentMetricsBinder implements MeterBinder {
+
+    private final TransactionLedger transactionLedger;
+    private final StockCommandDispatcher stockCommandDispatcher;
+    private final TransactionArchive transactionArchive;
+    private final PrincipalCache principalCache;
+    private final PasswordHasher passwordHasher;
+    private final TokenRevocations tokenRevocations;
+    private final RateLimitFilter rateLimitFilter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "ims.ledger.queue.depth", transactionLedger, ledger -> ledger.stats().getQueueDepth());
+        counter(registry, "ims.ledger.written", transactionLedger, ledger -> ledger.stats().getWritten());
+        counter(registry, "ims.ledger.rejected", transactionLedger, ledger -> ledger.stats().getRejected());
+        counter(registry, "ims.ledger.backpressure.rejections", transactionLedger,
+                ledger -> ledger.stats().getBackpressureRejections());
+
+        gauge(registry, "ims.stock.dispatcher.queue.depth", stockCommandDispatcher, StockCommandDispatcher::queueDepth);
+        counter(registry, "ims.stock.dispatcher.commands", stockCommandDispatcher, StockCommandDispatcher::appliedCommands);
+
+        gauge(registry, "ims.archive.rows", transactionArchive, archive -> archive.stats().getArchivedRows());
+        gauge(registry, "ims.archive.bytes", transactionArchive, archive -> archive.stats().getSegmentBytes());
+
+        gauge(registry, "ims.security.principal.cache.size", principalCache, cache -> cache.stats().getSize());
+        counter(registry, "ims.security.principal.cache.hits", principalCache, cache -> cache.stats().getHits());
+        counter(registry, "ims.security.principal.cache.misses", principalCache, cache -> cache.stats().getMisses());
+
+        gauge(registry, "ims.security.hashing.queued", passwordHasher, PasswordHasher::queued);
+        gauge(registry, "ims.security.hashing.active", passwordHasher, PasswordHasher::active);
+        counter(registry, "ims.security.hashing.rejected", passwordHasher, PasswordHasher::rejected);
+
+        gauge(registry, "ims.security.revocations", tokenRevocations, TokenRevocations::size);
+
+        gauge(registry, "ims.ratelimit.clients", rateLimitFilter, RateLimitFilter::clients);
+        counter(registry, "ims.ratelimit.rejected", rateLimitFilter, RateLimitFilter::rejected);
+
+        counter(registry, "ims.hibernate.repeated.selects", StatementCounter.class,
+                inspector -> StatementCounter.repeatedSelects());
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(registry);
+    }
+}
@@ -0,0 +1,144 @@
+package com._4GI.InventoryManagementSystem.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counts the statements Hibernate prepares on the current thread, by kind, read per request by
+ * {@link StatementMetricsFilter} and by the tests' statement budgets. Registered through
+ * hibernate.session_factory.statement_inspector.
+ * <p>
+ * Inside a request ({@link #beginRequest()} to {@link #endRequest()}) it also flags N+1 patterns: the same select
+ * prepared {@code repeatThreshold} times logs one warning with the application frame that issued it.
+ */
+@Slf4j
+public class StatementCounter implements StatementInspector {
+
+    private static final String APPLICATION_PACKAGE = "com._4GI.InventoryManagementSystem.";
+    // distinct selects remembered per request, a request issuing more is not worth the memory
+    private static final int MAX_TRACKED_SELECTS = 256;
+    private static final StackWalker STACK = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+    private static final LongAdder REPEATED_SELECTS = new LongAdder();
+
+    // 0 turns the N+1 check off, set from ims.sql.n-plus-one-threshold
+    private static volatile int repeatThreshold;
+
+    private static final class Counts {
+        int total;
+        int selects;
+        int inserts;
+        int updates;
+        int deletes;
+        boolean inRequest;
+        final Map<String, int[]> selectRepeats = new HashMap<>();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = COUNTS.get();
+        counts.total++;
+        if (startsWith(sql, "select") || startsWith(sql, "with")) {
+            counts.selects++;
+            if (counts.inRequest && repeatThreshold > 0) {
+                checkRepeat(counts, sql);
+            }
+        } else if (startsWith(sql, "insert")) {
+            counts.inserts++;
+        } else if (startsWith(sql, "update")) {
+            counts.updates++;
+        } else if (startsWith(sql, "delete")) {
+            counts.deletes++;
+        }
+        return sql;
+    }
+
+    // Statements prepared on this thread since the last reset
+    public static int count() {
+        return COUNTS.get().total;
+    }
+
+    public static int selects() {
+        return COUNTS.get().selects;
+    }
+
+    public static int inserts() {
+        return COUNTS.get().inserts;
+    }
+
+    public static int updates() {
+        return COUNTS.get().updates;
+    }
+
+    public static int deletes() {
+        return COUNTS.get().deletes;
+    }
+
+    public static void reset() {
+        Counts counts = COUNTS.get();
+        counts.total = 0;
+        counts.selects = 0;
+        counts.inserts = 0;
+        counts.updates = 0;
+        counts.deletes = 0;
+        counts.selectRepeats.clear();
+    }
+
+    // Starts counting a request on this thread, repeated selects are only looked for inside one
+    public static void beginRequest() {
+        reset();
+        COUNTS.get().inRequest = true;
+    }
+
+    public static void endRequest() {
+        Counts counts = COUNTS.get();
+        counts.inRequest = false;
+        counts.selectRepeats.clear();
+    }
+
+    public static void setRepeatThreshold(int threshold) {
+        repeatThreshold = threshold;
+    }
+
+    // N+1 warnings logged since startup
+    public static long repeatedSelects() {
+        return REPEATED_SELECTS.sum();
+    }
+
+    private static void checkRepeat(Counts counts, String sql) {
+        int[] seen = counts.selectRepeats.get(sql);
+        if (seen == null) {
+            if (counts.selectRepeats.size() < MAX_TRACKED_SELECTS) {
+                counts.selectRepeats.put(sql, new int[]{1});
+            }
+        } else if (++seen[0] == repeatThreshold) {
+            REPEATED_SELECTS.increment();
+            log.warn("Possible N+1: the same select prepared {} times in one request, at {}: {}",
+                    repeatThreshold, callSite(), sql);
+        }
+    }
+
+    // First application frame below the inspectors, the repository proxies and Hibernate
+    private static String callSite() {
+        return STACK.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !StatementInspector.class.isAssignableFrom(frame.getDeclaringClass())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.toStackTraceElement().toString())
+                .orElse("unknown"));
+    }
+
+    private static boolean startsWith(String sql, String keyword) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        return sql.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+}
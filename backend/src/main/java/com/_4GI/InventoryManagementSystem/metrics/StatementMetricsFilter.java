@@ -0,0 +1,77 @@
+package com._4GI.InventoryManagementSystem.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Hibernate statements per request, by URI template ({@code ims.hibernate.statements}). Runs first so the
+ * security chain's lookups are counted too; statements of other threads (dispatcher lanes, streamed exports)
+ * are not. The buckets at 1, 5, 10, 50 and 100 make N+1 patterns visible without a percentile histogram, and a
+ * select repeated ims.sql.n-plus-one-threshold times within a request is logged with its call site.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    // one summary per URI template, the tag set is bounded by the controllers
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Value("${ims.sql.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold;
+
+    @PostConstruct
+    void init() {
+        StatementCounter.setRepeatThreshold(nPlusOneThreshold);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        StatementCounter.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementCounter.endRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(pattern instanceof String uri ? uri : UNKNOWN).record(StatementCounter.count());
+        }
+    }
+
+    private DistributionSummary summary(String uri) {
+        DistributionSummary summary = summaries.get(uri);
+        if (summary == null) {
+            summary = summaries.computeIfAbsent(uri, key -> DistributionSummary.builder("ims.hibernate.statements")
+                    .description("Hibernate statements prepared per request")
+                    .baseUnit("statements")
+                    .tag("uri", key)
+                    .serviceLevelObjectives(1, 5, 10, 50, 100)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,140 @@
+package com._4GI.InventoryManagementSystem.metrics;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.event.TransactionRecordedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionStatusBulkChangedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionStatusChangedEvent;
+import com._4GI.InventoryManagementSystem.exceptions.InsufficientStockException;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Ledger and stock meters. Every meter is registered up front with its enum tags, so recording is a lookup in an
+ * array or EnumMap and an increment, never a registry lookup.
+ * <ul>
+ *   <li>{@code ims.transactions.recorded} by type and status, {@code ims.transactions.status.changes} by target
+ *   status, counted after commit from the events the dashboard listens to;</li>
+ *   <li>{@code ims.stock.mutations}: time of a single-call stock change as the request sees it (queueing
+ *   included), by outcome;</li>
+ *   <li>{@code ims.stock.insufficient}: stock decreases rejected for lack of stock, single calls and batch lines;</li>
+ *   <li>{@code ims.stock.lane.batches}: time and size of each dispatcher lane transaction.</li>
+ * </ul>
+ */
+@Component
+public class TransactionMetrics {
+
+    public static final String SINGLE = "single";
+    public static final String BATCH = "batch";
+
+    private static final String[] OUTCOMES = {"applied", "insufficient_stock", "not_found", "busy", "error"};
+
+    private final Map<TransactionType, Map<TransactionStatus, Counter>> recorded = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionStatus, Counter> statusChanges = new EnumMap<>(TransactionStatus.class);
+    private final Timer[] stockMutations = new Timer[OUTCOMES.length];
+    private final Counter insufficientSingle;
+    private final Counter insufficientBatch;
+    private final Timer laneBatchTime;
+    private final DistributionSummary laneBatchSize;
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        for (TransactionType type : TransactionType.values()) {
+            Map<TransactionStatus, Counter> byStatus = new EnumMap<>(TransactionStatus.class);
+            for (TransactionStatus status : TransactionStatus.values()) {
+                byStatus.put(status, Counter.builder("ims.transactions.recorded")
+                        .description("Ledger rows recorded")
+                        .tag("type", type.name())
+                        .tag("status", status.name())
+                        .register(meterRegistry));
+            }
+            recorded.put(type, byStatus);
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            statusChanges.put(status, Counter.builder("ims.transactions.status.changes")
+                    .description("Ledger rows moved to a status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            stockMutations[i] = Timer.builder("ims.stock.mutations")
+                    .description("Single-call stock changes, from the request thread")
+                    .tag("outcome", OUTCOMES[i])
+                    .register(meterRegistry);
+        }
+        insufficientSingle = insufficientCounter(meterRegistry, SINGLE);
+        insufficientBatch = insufficientCounter(meterRegistry, BATCH);
+        laneBatchTime = Timer.builder("ims.stock.lane.batches")
+                .description("Dispatcher lane transactions")
+                .register(meterRegistry);
+        laneBatchSize = DistributionSummary.builder("ims.stock.lane.batch.size")
+                .description("Commands applied per dispatcher lane transaction")
+                .baseUnit("commands")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        if (event.transactionType() != null && event.status() != null) {
+            recorded.get(event.transactionType()).get(event.status()).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(TransactionStatusChangedEvent event) {
+        if (event.status() != null) {
+            statusChanges.get(event.status()).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusBulkChanged(TransactionStatusBulkChangedEvent event) {
+        if (event.status() != null) {
+            statusChanges.get(event.status()).increment(event.ids().size());
+        }
+    }
+
+    // One single-call stock change, failure null when applied
+    public void recordStockMutation(long nanos, RuntimeException failure) {
+        int outcome;
+        if (failure == null) {
+            outcome = 0;
+        } else if (failure instanceof InsufficientStockException) {
+            outcome = 1;
+            insufficientSingle.increment();
+        } else if (failure instanceof NotFoundException) {
+            outcome = 2;
+        } else if (failure instanceof ServiceBusyException) {
+            outcome = 3;
+        } else {
+            outcome = 4;
+        }
+        stockMutations[outcome].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordInsufficientBatchLine() {
+        insufficientBatch.increment();
+    }
+
+    public void recordLaneBatch(int commands, long nanos) {
+        laneBatchTime.record(nanos, TimeUnit.NANOSECONDS);
+        laneBatchSize.record(commands);
+    }
+
+    private static Counter insufficientCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("ims.stock.insufficient")
+                .description("Stock decreases rejected for lack of stock")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -1,11 +1,55 @@
 package com._4GI.InventoryManagementSystem.repository;
 
+import com._4GI.InventoryManagementSystem.dto.ProductDTO;
 import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.search.ProductSearchRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findAllByOrderByPositionAsc();
+
+    // Read-side projection of findAllByOrderByPositionAsc: the DTO columns only, no managed entities
+    // (p.category.id reads the foreign key, no join)
+    @Query("SELECT new com._4GI.InventoryManagementSystem.dto.ProductDTO(p.id, p.category.id, p.position, p.name, p.sku, " +
+            "p.price, p.stockQuantity, p.description, p.imageUrl, p.expiryDate, p.updatedAt, p.createdAt) " +
+            "FROM Product p ORDER BY p.position ASC")
+    List<ProductDTO> findAllDtosOrderByPosition();
+
+    // Products of a reorder with their (eager) category in the same query, instead of one category select each
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Search index bootstrap: the name and SKU of every product, without their categories
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku FROM Product p")
+    List<ProductSearchRow> findSearchRows();
+
+    // Search index catch-up: products created or updated since the given time (including other instances' writes)
+    @Query("SELECT p.id AS id, p.name AS name, p.sku AS sku FROM Product p WHERE p.updatedAt >= :since")
+    List<ProductSearchRow> findSearchRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Locks all rows of a batch in one query, ordered by id so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Conditional delta update: only succeeds when enough stock is left, so stock can never go negative
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :now " +
+            "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
 }
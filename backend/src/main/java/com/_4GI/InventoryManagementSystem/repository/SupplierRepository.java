@@ -1,8 +1,16 @@
 package com._4GI.InventoryManagementSystem.repository;
 
+import com._4GI.InventoryManagementSystem.dto.SupplierDTO;
 import com._4GI.InventoryManagementSystem.entity.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 
 
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
+
+    // Read-side projection: the DTO columns only, no managed entities
+    @Query("SELECT new com._4GI.InventoryManagementSystem.dto.SupplierDTO(s.id, s.name, s.address) " +
+            "FROM Supplier s ORDER BY s.id DESC")
+    List<SupplierDTO> findAllDtos();
 }
@@ -0,0 +1,27 @@
+package com._4GI.InventoryManagementSystem.repository;
+
+import com._4GI.InventoryManagementSystem.entity.TokenRevocation;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    @Query("SELECT r FROM TokenRevocation r WHERE r.expiresAt > :now")
+    List<TokenRevocation> findActive(@Param("now") Instant now);
+
+    // Revocations still in force, written since the given instant (by this or another instance)
+    @Query("SELECT r FROM TokenRevocation r WHERE r.createdAt >= :since AND r.expiresAt > :now")
+    List<TokenRevocation> findActiveCreatedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
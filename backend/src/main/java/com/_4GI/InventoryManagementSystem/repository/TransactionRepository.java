@@ -1,28 +1,219 @@
 package com._4GI.InventoryManagementSystem.repository;
 
+import com._4GI.InventoryManagementSystem.archive.TransactionArchiveRow;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
 import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.export.TransactionExportRow;
+import com._4GI.InventoryManagementSystem.search.TransactionSearchRow;
+import com._4GI.InventoryManagementSystem.stats.TransactionActivityRow;
+import com._4GI.InventoryManagementSystem.stats.TransactionTypeCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    @Query("SELECT t FROM Transaction t WHERE YEAR(t.createdAt) = :year AND MONTH(t.createdAt) = :month")
-    List<Transaction> findAllByMonthAndYear(@Param("month") int month, @Param("year") int year);
-
-
     // Searching these field : Transaction's description, note, status, Product's name, sku
-    @Query("SELECT t FROM Transaction t " +
-            "LEFT JOIN t.product p " +
-            "WHERE (:searchText IS NULL OR " +
+    String SEARCH_CONDITION = "(:searchText IS NULL OR " +
             "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
             "LOWER(t.status) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
             "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    Page<Transaction> searchTransactions(@Param("searchText") String searchText, Pageable pageable);
+            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :searchText, '%')))";
+
+    // Read-side projection: the TransactionDTO columns plus product name/sku and supplier name, no managed entities
+    String DTO_SELECT = "SELECT new com._4GI.InventoryManagementSystem.dto.TransactionDTO(" +
+            "t.id, t.totalProducts, t.totalPrice, t.transactionType, t.status, t.description, t.updatedAt, t.createdAt, " +
+            "p.id, p.name, p.sku, s.id, s.name) " +
+            "FROM Transaction t LEFT JOIN t.product p LEFT JOIN t.supplier s ";
+
+    // Optional filters of the bulk status endpoint, creation time in [from, to)
+    String STATUS_CHANGE_FILTER = "(:type IS NULL OR t.transactionType = :type) " +
+            "AND (:supplierId IS NULL OR t.supplier.id = :supplierId) " +
+            "AND (:from IS NULL OR t.createdAt >= :from) AND (:to IS NULL OR t.createdAt < :to)";
+
+    // Half-open range on the bare column so idx_transactions_created_at can be used (no YEAR()/MONTH() wrapping)
+    @Query(DTO_SELECT +
+            "WHERE t.createdAt >= :from AND t.createdAt < :to " +
+            "AND (:type IS NULL OR t.transactionType = :type) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "ORDER BY t.createdAt, t.id")
+    Slice<TransactionDTO> findAllCreatedBetween(@Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("type") TransactionType type,
+                                                @Param("status") TransactionStatus status,
+                                                Pageable pageable);
+
+    @Query(value = DTO_SELECT + "WHERE " + SEARCH_CONDITION,
+            countQuery = "SELECT COUNT(t) FROM Transaction t LEFT JOIN t.product p WHERE " + SEARCH_CONDITION)
+    Page<TransactionDTO> searchTransactions(@Param("searchText") String searchText, Pageable pageable);
+
+    // Keyset page: seeks on the primary key below the cursor, no OFFSET and no COUNT query
+    @Query(DTO_SELECT +
+            "WHERE t.id < :beforeId AND " + SEARCH_CONDITION + " " +
+            "ORDER BY t.id DESC")
+    List<TransactionDTO> searchTransactionsBefore(@Param("beforeId") Long beforeId,
+                                                  @Param("searchText") String searchText,
+                                                  Limit limit);
+
+    // Optional filters of a user's history, creation time in [from, to)
+    String USER_HISTORY_FILTER = "t.user.id = :userId " +
+            "AND (:from IS NULL OR t.createdAt >= :from) AND (:to IS NULL OR t.createdAt < :to) " +
+            "AND (:type IS NULL OR t.transactionType = :type)";
+
+    // A user's history, newest first: keyset page below the (createdAt, id) cursor on idx_transactions_user_created_at
+    @Query(DTO_SELECT + "WHERE " + USER_HISTORY_FILTER + " " +
+            "AND (:beforeAt IS NULL OR t.createdAt < :beforeAt OR (t.createdAt = :beforeAt AND t.id < :beforeId)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TransactionDTO> findUserTransactionsBefore(@Param("userId") Long userId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to,
+                                                    @Param("type") TransactionType type,
+                                                    @Param("beforeAt") LocalDateTime beforeAt,
+                                                    @Param("beforeId") Long beforeId,
+                                                    Limit limit);
+
+    // Counts and totals per type over the same filters, aggregated by the database
+    @Query("SELECT new com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO(" +
+            "t.transactionType, COUNT(t), COALESCE(SUM(t.totalProducts), 0L), COALESCE(SUM(t.totalPrice), 0)) " +
+            "FROM Transaction t WHERE " + USER_HISTORY_FILTER + " GROUP BY t.transactionType ORDER BY t.transactionType")
+    List<TransactionTypeTotalsDTO> summarizeUserTransactions(@Param("userId") Long userId,
+                                                             @Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to,
+                                                             @Param("type") TransactionType type);
+
+    @Query(DTO_SELECT + "WHERE t.id IN :ids")
+    List<TransactionDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE t.id = :id")
+    Optional<TransactionDTO> findDtoById(@Param("id") Long id);
+
+    // Bulk status, id mode: the ids of a chunk that can move
+    @Query("SELECT t.id FROM Transaction t WHERE t.id IN :ids AND t.status IN :sources")
+    List<Long> findIdsInStatus(@Param("ids") Collection<Long> ids,
+                               @Param("sources") Collection<TransactionStatus> sources);
+
+    long countByIdIn(Collection<Long> ids);
+
+    // Bulk status, filter mode: next chunk of movable rows after the keyset cursor
+    @Query("SELECT t.id FROM Transaction t WHERE t.id > :afterId AND t.status IN :sources AND " + STATUS_CHANGE_FILTER +
+            " ORDER BY t.id")
+    List<Long> findIdsForStatusChange(@Param("afterId") Long afterId,
+                                      @Param("sources") Collection<TransactionStatus> sources,
+                                      @Param("type") TransactionType type,
+                                      @Param("supplierId") Long supplierId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      Limit limit);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.status NOT IN :sources AND " + STATUS_CHANGE_FILTER)
+    long countNotInStatus(@Param("sources") Collection<TransactionStatus> sources,
+                          @Param("type") TransactionType type,
+                          @Param("supplierId") Long supplierId,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to);
+
+    // Set-based status change of one chunk; the status guard is re-checked so a concurrent change is never overwritten
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.status = :status, t.updatedAt = :now WHERE t.id IN :ids AND t.status IN :sources")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("sources") Collection<TransactionStatus> sources,
+                           @Param("status") TransactionStatus status,
+                           @Param("now") LocalDateTime now);
+
+    // Search index bootstrap: chunks of rows in primary key order
+    @Query("SELECT t.id AS id, t.description AS description, t.status AS status, t.product.id AS productId " +
+            "FROM Transaction t WHERE t.id > :afterId ORDER BY t.id")
+    List<TransactionSearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Search index catch-up: rows created or updated since the given time (including other instances' writes).
+    // updated_at is set on insert too, so one range on idx_transactions_updated_at covers both
+    @Query("SELECT t.id AS id, t.description AS description, t.status AS status, t.product.id AS productId " +
+            "FROM Transaction t WHERE t.updatedAt >= :since")
+    List<TransactionSearchRow> findSearchRowsChangedSince(@Param("since") LocalDateTime since);
+
+    // Dashboard statistics seed: all-time counters per type
+    @Query("SELECT t.transactionType AS transactionType, COUNT(t) AS total FROM Transaction t GROUP BY t.transactionType")
+    List<TransactionTypeCount> countByTransactionType();
+
+    // Dashboard statistics seed: recent activity, a range on idx_transactions_created_at
+    @Query("SELECT t.createdAt AS createdAt, t.user.id AS userId FROM Transaction t WHERE t.createdAt >= :since")
+    List<TransactionActivityRow> findActivitySince(@Param("since") LocalDateTime since);
+
+    // Export: forward-only cursor over flattened rows (no entities in the persistence context), in created_at order.
+    // The fetch size makes MySQL stream through a server-side cursor (useCursorFetch=true) instead of buffering the result.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id AS id, t.createdAt AS createdAt, t.transactionType AS transactionType, t.status AS status, " +
+            "t.totalProducts AS totalProducts, t.totalPrice AS totalPrice, t.description AS description, " +
+            "p.id AS productId, p.sku AS productSku, p.name AS productName, " +
+            "u.id AS userId, u.email AS userEmail, s.id AS supplierId, s.name AS supplierName " +
+            "FROM Transaction t LEFT JOIN t.product p LEFT JOIN t.user u LEFT JOIN t.supplier s " +
+            "WHERE (:from IS NULL OR t.createdAt >= :from) AND (:to IS NULL OR t.createdAt < :to) " +
+            "AND (:type IS NULL OR t.transactionType = :type) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "ORDER BY t.createdAt, t.id")
+    Stream<TransactionExportRow> streamForExport(@Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("type") TransactionType type,
+                                                 @Param("status") TransactionStatus status);
+
+    // Archival: oldest row still in the table
+    // Creation times of a user's rows in [from, to), on idx_transactions_user_created_at
+    @Query("SELECT t.createdAt FROM Transaction t WHERE t.user.id = :userId AND t.createdAt >= :from AND t.createdAt < :to")
+    List<LocalDateTime> findUserCreatedAtBetween(@Param("userId") Long userId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t")
+    LocalDateTime findOldestCreatedAt();
+
+    // Archival and reads of archived months: same cursor as the export, with the update time
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id AS id, t.createdAt AS createdAt, t.updatedAt AS updatedAt, " +
+            "t.transactionType AS transactionType, t.status AS status, " +
+            "t.totalProducts AS totalProducts, t.totalPrice AS totalPrice, t.description AS description, " +
+            "p.id AS productId, p.sku AS productSku, p.name AS productName, " +
+            "u.id AS userId, u.email AS userEmail, s.id AS supplierId, s.name AS supplierName " +
+            "FROM Transaction t LEFT JOIN t.product p LEFT JOIN t.user u LEFT JOIN t.supplier s " +
+            "WHERE t.createdAt >= :from AND t.createdAt < :to " +
+            "AND (:type IS NULL OR t.transactionType = :type) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND (:userId IS NULL OR u.id = :userId) " +
+            "ORDER BY t.createdAt, t.id")
+    Stream<TransactionArchiveRow> streamForArchive(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("type") TransactionType type,
+                                                   @Param("status") TransactionStatus status,
+                                                   @Param("userId") Long userId);
+
+    // Archival: rows changed after they were copied stay in the table and are archived again by the next run
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids AND (t.updatedAt IS NULL OR t.updatedAt <= :copiedAt)")
+    int deleteArchived(@Param("ids") Collection<Long> ids, @Param("copiedAt") LocalDateTime copiedAt);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
 
 }
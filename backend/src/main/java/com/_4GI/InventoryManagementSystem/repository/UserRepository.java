@@ -1,11 +1,19 @@
 package com._4GI.InventoryManagementSystem.repository;
 
 
+import com._4GI.InventoryManagementSystem.dto.UserDTO;
 import com._4GI.InventoryManagementSystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Read-side projection: the DTO columns only (no password, no transactions), no managed entities
+    @Query("SELECT new com._4GI.InventoryManagementSystem.dto.UserDTO(u.id, u.name, u.email, u.phoneNumber, u.role, u.createdAt) " +
+            "FROM User u ORDER BY u.id DESC")
+    List<UserDTO> findAllDtos();
 }
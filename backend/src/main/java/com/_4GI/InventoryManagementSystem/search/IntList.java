@@ -0,0 +1,30 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import java.util.Arrays;
+
+
+// Growable int array used for posting lists, appended in ascending ordinal order
+final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int last() {
+        return size == 0 ? -1 : values[size - 1];
+    }
+}
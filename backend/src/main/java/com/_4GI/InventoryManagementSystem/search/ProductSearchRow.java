@@ -0,0 +1,9 @@
+package com._4GI.InventoryManagementSystem.search;
+
+
+// Columns the search index needs from a product
+public interface ProductSearchRow {
+    Long getId();
+    String getName();
+    String getSku();
+}
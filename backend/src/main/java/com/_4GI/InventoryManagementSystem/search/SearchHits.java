@@ -0,0 +1,8 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import java.util.List;
+
+
+// One page of ranked transaction ids plus the total number of matches
+public record SearchHits(long total, List<Long> ids) {
+}
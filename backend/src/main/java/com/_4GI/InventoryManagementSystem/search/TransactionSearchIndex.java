@@ -0,0 +1,347 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+
+/**
+ * In-memory trigram index over the transaction ledger.
+ * <p>
+ * Matches the semantics of the former {@code LOWER(col) LIKE '%text%'} search (case and accent
+ * insensitive substring) on the transaction description and status and on the product name and sku.
+ * Descriptions are looked up through trigram posting lists, then verified; statuses and products
+ * are few and are matched directly. Hits are ranked by field (sku &gt; name &gt; description &gt; status),
+ * then by recency.
+ * <p>
+ * Thread-safe: writers take a write lock, searches share a read lock.
+ */
+public class TransactionSearchIndex {
+
+    private static final int SCORE_STATUS = 1;
+    private static final int SCORE_DESCRIPTION = 2;
+    private static final int SCORE_NAME = 4;
+    private static final int SCORE_SKU = 8;
+    private static final int SCORE_EXACT_SKU = 16;
+
+    // rank keys are (score << 53 | id), ids fit in 53 bits (see TimeSortedIdSource)
+    private static final int ID_BITS = 53;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // per-document columns, indexed by ordinal (insertion order)
+    private long[] ids = new long[1024];
+    private String[] descriptions = new String[1024];
+    private byte[] statuses = new byte[1024];
+    private int size;
+
+    // documents moved to the archive: kept in the columns, never matched again
+    private final BitSet removed = new BitSet();
+
+    private final LongIntHashMap ordinals = new LongIntHashMap();
+    private final Map<Long, IntList> trigrams = new HashMap<>();
+    private final Map<Long, IntList> byProduct = new HashMap<>();
+    private final Map<Long, ProductText> products = new HashMap<>();
+
+    private record ProductText(String name, String sku) {
+    }
+
+    /**
+     * Adds a transaction, or refreshes its status when it is already indexed.
+     */
+    public void add(long id, String description, TransactionStatus status, Long productId) {
+        lock.writeLock().lock();
+        try {
+            int existing = ordinals.get(id);
+            if (existing >= 0) {
+                statuses[existing] = encode(status);
+                return;
+            }
+
+            int ordinal = size++;
+            ensureCapacity(size);
+            String text = normalize(description);
+            ids[ordinal] = id;
+            descriptions[ordinal] = text;
+            statuses[ordinal] = encode(status);
+            ordinals.put(id, ordinal);
+
+            if (text != null) {
+                for (int i = 0; i + 3 <= text.length(); i++) {
+                    IntList postings = trigrams.computeIfAbsent(trigram(text, i), k -> new IntList());
+                    // the same trigram can repeat inside one description
+                    if (postings.last() != ordinal) {
+                        postings.add(ordinal);
+                    }
+                }
+            }
+            if (productId != null) {
+                byProduct.computeIfAbsent(productId, k -> new IntList()).add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStatus(long id, TransactionStatus status) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.get(id);
+            if (ordinal >= 0) {
+                statuses[ordinal] = encode(status);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // One write lock for a whole chunk of the bulk status endpoint
+    public void updateStatuses(List<Long> ids, TransactionStatus status) {
+        lock.writeLock().lock();
+        try {
+            byte encoded = encode(status);
+            for (Long id : ids) {
+                int ordinal = ordinals.get(id);
+                if (ordinal >= 0) {
+                    statuses[ordinal] = encoded;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(List<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                int ordinal = ordinals.get(id);
+                if (ordinal >= 0) {
+                    removed.set(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putProduct(long productId, String name, String sku) {
+        lock.writeLock().lock();
+        try {
+            products.put(productId, new ProductText(normalize(name), normalize(sku)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProduct(long productId) {
+        lock.writeLock().lock();
+        try {
+            products.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search: best matches first, newest first among equal scores.
+     */
+    public SearchHits search(String text, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] keys = match(normalize(text), Long.MAX_VALUE, true);
+            Arrays.sort(keys);
+
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, keys.length - offset)));
+            for (int i = keys.length - 1 - offset; i >= 0 && page.size() < limit; i--) {
+                page.add(keys[i] & ID_MASK);
+            }
+            return new SearchHits(keys.length, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recency-ordered search below an id, for keyset pagination: ids strictly lower than {@code beforeId}, newest first.
+     */
+    public List<Long> searchBefore(String text, long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] keys = match(normalize(text), beforeId, false);
+            Arrays.sort(keys);
+
+            List<Long> page = new ArrayList<>(Math.min(limit, keys.length));
+            for (int i = keys.length - 1; i >= 0 && page.size() < limit; i--) {
+                page.add(keys[i]);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns one key per matching document below beforeId: the rank key or the bare id
+    private long[] match(String needle, long beforeId, boolean ranked) {
+        if (needle == null || needle.isEmpty()) {
+            return new long[0];
+        }
+
+        byte[] scores = new byte[size];
+
+        matchDescriptions(needle, scores);
+
+        boolean[] statusMatches = new boolean[STATUSES.length + 1];
+        boolean anyStatus = false;
+        for (TransactionStatus status : STATUSES) {
+            if (status.name().toLowerCase(Locale.ROOT).contains(needle)) {
+                statusMatches[encode(status)] = true;
+                anyStatus = true;
+            }
+        }
+        if (anyStatus) {
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                if (statusMatches[statuses[ordinal]]) {
+                    scores[ordinal] += SCORE_STATUS;
+                }
+            }
+        }
+
+        for (Map.Entry<Long, ProductText> product : products.entrySet()) {
+            int score = productScore(product.getValue(), needle);
+            IntList postings = byProduct.get(product.getKey());
+            if (score > 0 && postings != null) {
+                for (int i = 0; i < postings.size(); i++) {
+                    scores[postings.get(i)] += score;
+                }
+            }
+        }
+
+        int count = 0;
+        long[] keys = new long[64];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (scores[ordinal] != 0 && ids[ordinal] < beforeId && !removed.get(ordinal)) {
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                }
+                keys[count++] = ranked ? ((long) scores[ordinal] << ID_BITS) | ids[ordinal] : ids[ordinal];
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    private void matchDescriptions(String needle, byte[] scores) {
+        if (needle.length() < 3) {
+            // too short for a trigram lookup, fall back to a scan of the in-memory column
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                if (descriptions[ordinal] != null && descriptions[ordinal].contains(needle)) {
+                    scores[ordinal] += SCORE_DESCRIPTION;
+                }
+            }
+            return;
+        }
+
+        Set<Long> keys = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            keys.add(trigram(needle, i));
+        }
+
+        List<IntList> lists = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            IntList postings = trigrams.get(key);
+            if (postings == null) {
+                return;
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+
+        // walk the shortest posting list, probe the others (all sorted by ordinal)
+        IntList shortest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        candidates:
+        for (int i = 0; i < shortest.size(); i++) {
+            int ordinal = shortest.get(i);
+            for (int l = 1; l < lists.size(); l++) {
+                IntList other = lists.get(l);
+                int c = cursors[l];
+                while (c < other.size() && other.get(c) < ordinal) {
+                    c++;
+                }
+                cursors[l] = c;
+                if (c == other.size()) {
+                    return;
+                }
+                if (other.get(c) != ordinal) {
+                    continue candidates;
+                }
+            }
+            // trigrams can match out of order, verify the actual substring
+            if (descriptions[ordinal].contains(needle)) {
+                scores[ordinal] += SCORE_DESCRIPTION;
+            }
+        }
+    }
+
+    private static int productScore(ProductText product, String needle) {
+        int score = 0;
+        if (product.name() != null && product.name().contains(needle)) {
+            score += SCORE_NAME;
+        }
+        if (product.sku() != null && product.sku().contains(needle)) {
+            score += product.sku().equals(needle) ? SCORE_EXACT_SKU : SCORE_SKU;
+        }
+        return score;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newLength = Math.max(capacity, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, newLength);
+            descriptions = Arrays.copyOf(descriptions, newLength);
+            statuses = Arrays.copyOf(statuses, newLength);
+        }
+    }
+
+    private static byte encode(TransactionStatus status) {
+        return (byte) (status == null ? 0 : status.ordinal() + 1);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    // lower-case and strip accents, like MySQL's accent-insensitive collations
+    static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+}
@@ -0,0 +1,152 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import com._4GI.InventoryManagementSystem.event.ProductChangedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionRecordedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionStatusBulkChangedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionStatusChangedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionsArchivedEvent;
+import com._4GI.InventoryManagementSystem.repository.ProductRepository;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+/**
+ * Keeps the {@link TransactionSearchIndex} in sync with the database.
+ * <ul>
+ *   <li>bootstrap: loads the whole ledger in primary-key chunks on a background thread at startup;</li>
+ *   <li>writes of this instance: applied after commit from the transaction/product events;</li>
+ *   <li>writes of other instances: picked up by a periodic catch-up on created_at/updated_at.</li>
+ * </ul>
+ * Until the bootstrap is done {@link #isReady()} is false and callers fall back to the SQL search.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionSearchIndexer {
+
+    private static final int BOOTSTRAP_CHUNK = 5_000;
+    // overlap between catch-ups, covers clock skew and transactions committing late
+    private static final long CATCH_UP_OVERLAP_SECONDS = 60;
+
+    private final TransactionRepository transactionRepository;
+    private final ProductRepository productRepository;
+
+    @Value("${ims.search.index.enabled:true}")
+    private boolean enabled;
+
+    private volatile TransactionSearchIndex index = new TransactionSearchIndex();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRefresh;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            log.info("Transaction search index disabled, searches use SQL LIKE");
+            return;
+        }
+        Thread thread = new Thread(this::rebuild, "search-index-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Builds a fresh index from the database and swaps it in.
+     */
+    public synchronized void rebuild() {
+        LocalDateTime start = LocalDateTime.now();
+        long begin = System.nanoTime();
+        TransactionSearchIndex fresh = new TransactionSearchIndex();
+
+        productRepository.findSearchRows().forEach(p -> fresh.putProduct(p.getId(), p.getName(), p.getSku()));
+
+        long lastId = 0;
+        List<TransactionSearchRow> rows;
+        do {
+            rows = transactionRepository.findSearchRowsAfter(lastId, Limit.of(BOOTSTRAP_CHUNK));
+            for (TransactionSearchRow row : rows) {
+                fresh.add(row.getId(), row.getDescription(), row.getStatus(), row.getProductId());
+                lastId = row.getId();
+            }
+        } while (rows.size() == BOOTSTRAP_CHUNK);
+
+        index = fresh;
+        // events published while the chunks were read went to the previous index
+        catchUp(start);
+        ready = true;
+
+        log.info("Transaction search index built: {} transactions in {} ms",
+                fresh.size(), (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${ims.search.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (ready) {
+            catchUp(lastRefresh);
+        }
+    }
+
+    private synchronized void catchUp(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionSearchIndex current = index;
+
+        LocalDateTime from = since.minusSeconds(CATCH_UP_OVERLAP_SECONDS);
+        productRepository.findSearchRowsChangedSince(from)
+                .forEach(p -> current.putProduct(p.getId(), p.getName(), p.getSku()));
+        for (TransactionSearchRow row : transactionRepository.findSearchRowsChangedSince(from)) {
+            current.add(row.getId(), row.getDescription(), row.getStatus(), row.getProductId());
+        }
+        lastRefresh = now;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        index.add(event.id(), event.description(), event.status(), event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        index.updateStatus(event.id(), event.status());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionStatusBulkChanged(TransactionStatusBulkChangedEvent event) {
+        index.updateStatuses(event.ids(), event.status());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsArchived(TransactionsArchivedEvent event) {
+        index.remove(event.ids());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            index.removeProduct(event.id());
+        } else {
+            index.putProduct(event.id(), event.name(), event.sku());
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public SearchHits search(String text, int offset, int limit) {
+        return index.search(text, offset, limit);
+    }
+
+    public List<Long> searchBefore(String text, long beforeId, int limit) {
+        return index.searchBefore(text, beforeId, limit);
+    }
+}
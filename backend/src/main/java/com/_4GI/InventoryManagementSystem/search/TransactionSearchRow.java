@@ -0,0 +1,12 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+
+
+// Columns the search index needs from a ledger row
+public interface TransactionSearchRow {
+    Long getId();
+    String getDescription();
+    TransactionStatus getStatus();
+    Long getProductId();
+}
@@ -1,5 +1,8 @@
 package com._4GI.InventoryManagementSystem.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +17,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
 @Component
@@ -25,6 +29,21 @@ public class AuthFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void bindMetrics() {
+        verifyTimer = Timer.builder("ims.security.jwt.verify")
+                .description("Bearer token verification in AuthFilter, verified-token cache included")
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -40,24 +59,29 @@ public class AuthFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String email = jwtUtils.extractUsername(token);
-
-        // Get role from claims
-        String role = jwtUtils.extractClaim(token, claims -> claims.get("role", String.class));
+        // signature and expiry checked once per request, repeat tokens come from the cache
+        long begin = System.nanoTime();
+        VerifiedToken verified;
+        try {
+            verified = jwtUtils.verify(token);
+        } finally {
+            verifyTimer.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+        }
+        String email = verified.subject();
 
-        // To delete later (just for debugging)
-        if (!role.startsWith("ROLE_")) {
-            System.out.println(role);
-            //role = "ROLE_" + role;
+        // revoked tokens go on unauthenticated, in memory only
+        if (tokenRevocations.isRevoked(verified)) {
+            filterChain.doFilter(request, response);
+            return;
         }
 
         // Check if user is not yet authenticated
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
-            if (jwtUtils.isTokenValid(token, userDetails)) {
+            if (email.equals(userDetails.getUsername())) {
                 // Spring Security expects roles to be prefixed with "ROLE_"
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + verified.role());
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
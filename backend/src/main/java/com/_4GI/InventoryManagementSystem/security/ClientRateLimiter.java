@@ -0,0 +1,121 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Token buckets by client key, lock-free on the request path.
+ * <p>
+ * A bucket is a single {@link AtomicLong}: the millisecond of its last refill in the upper 40 bits and its
+ * tokens in thousandths in the lower 24. Taking tokens refills the bucket for the time elapsed, then takes the cost
+ * in one compare-and-set; nothing is written when the bucket is short. Buckets are spread over independent maps
+ * by key hash, so the eviction of idle buckets sweeps one stripe at a time next to the requests of the others.
+ * A bucket untouched for the idle timeout is full again and is dropped; the client gets a fresh full one later.
+ */
+public final class ClientRateLimiter {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final int MILLI = 1000;
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final long capacity;
+    // thousandths of a token per millisecond = tokens per second
+    private final long refillPerSecond;
+    private final long idleMillis;
+    private final LongSupplier clock;
+    private int nextStripe;
+
+    public ClientRateLimiter(int capacity, int refillPerSecond, long idleMillis, int stripeCount) {
+        this(capacity, refillPerSecond, idleMillis, stripeCount, ClientRateLimiter::monotonicMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    ClientRateLimiter(int capacity, int refillPerSecond, long idleMillis, int stripeCount, LongSupplier clock) {
+        if (capacity <= 0 || (long) capacity * MILLI > TOKEN_MASK) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + TOKEN_MASK / MILLI);
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive");
+        }
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ConcurrentHashMap[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.capacity = (long) capacity * MILLI;
+        this.refillPerSecond = refillPerSecond;
+        // a bucket is only dropped once it would be full anyway
+        this.idleMillis = Math.max(idleMillis, this.capacity / refillPerSecond + 1);
+        this.clock = clock;
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket. Returns 0 when granted, otherwise the milliseconds until
+     * the bucket holds enough tokens.
+     */
+    public long tryAcquire(String client, int cost) {
+        long now = clock.getAsLong();
+        long needed = Math.min((long) cost * MILLI, capacity);
+        ConcurrentHashMap<String, AtomicLong> stripe = stripeOf(client);
+        AtomicLong bucket = stripe.get(client);
+        if (bucket == null) {
+            bucket = stripe.computeIfAbsent(client, key -> new AtomicLong(pack(now, capacity)));
+        }
+
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long available = Math.min(capacity, (state & TOKEN_MASK) + Math.max(0, now - last) * refillPerSecond);
+            if (available < needed) {
+                return (needed - available + refillPerSecond - 1) / refillPerSecond;
+            }
+            if (bucket.compareAndSet(state, pack(Math.max(now, last), available - needed))) {
+                return 0;
+            }
+        }
+    }
+
+    // Drops the buckets of one stripe idle for longer than the timeout, returns how many
+    public int evictIdle() {
+        int stripe;
+        synchronized (this) {
+            stripe = nextStripe;
+            nextStripe = (nextStripe + 1) & (stripes.length - 1);
+        }
+        long now = clock.getAsLong();
+        int before = stripes[stripe].size();
+        stripes[stripe].values().removeIf(bucket -> now - (bucket.get() >>> TOKEN_BITS) > idleMillis);
+        return before - stripes[stripe].size();
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeOf(String client) {
+        int hash = client.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static long pack(long millis, long tokens) {
+        return (millis << TOKEN_BITS) | tokens;
+    }
+
+    private static final long ORIGIN = System.nanoTime();
+
+    // Milliseconds since the class was loaded, fits the 40 bits for decades
+    private static long monotonicMillis() {
+        return (System.nanoTime() - ORIGIN) / 1_000_000;
+    }
+}
@@ -0,0 +1,49 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+
+/**
+ * Resolves the user of the current request. AuthFilter already loaded it into the {@link AuthUser} principal,
+ * so the usual path issues no query. Any other principal (e.g. a bare user name) is looked up by email once and
+ * kept as a request attribute for the rest of the request.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private static final String ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    public User resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new NotFoundException("User Not Found");
+        }
+        if (authentication.getPrincipal() instanceof AuthUser authUser && authUser.getUser() != null) {
+            return authUser.getUser();
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User user
+                && user.getEmail().equals(authentication.getName())) {
+            return user;
+        }
+
+        User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new NotFoundException("User Not Found"));
+        if (request != null) {
+            request.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
@@ -15,10 +15,12 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
+        // runs for every authenticated request, the database is only hit on a cache miss
+        User user = principalCache.get(username, userRepository::findByEmail)
                 .orElseThrow(()-> new NotFoundException("User Email Not Found"));
 
         return AuthUser.builder()
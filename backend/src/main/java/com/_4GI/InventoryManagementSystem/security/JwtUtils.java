@@ -2,6 +2,7 @@ package com._4GI.InventoryManagementSystem.security;
 
 import com._4GI.InventoryManagementSystem.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -11,7 +12,9 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 
@@ -19,34 +22,77 @@ import java.util.function.Function;
 @Slf4j
 public class JwtUtils {
 
-    private static final long EXPIRATION_TIME_IN_MILLISEC = 100L * 60L * 60L * 24L * 30L * 6L; //expires in 6 months
+    // issue time in milliseconds: iat has whole seconds, too coarse to tell a token from a revocation of the same second
+    private static final String ISSUED_AT_MILLIS = "iat_ms";
+    static final long EXPIRATION_TIME_IN_MILLISEC = 100L * 60L * 60L * 24L * 30L * 6L; //expires in 6 months
     private SecretKey key;
 
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+
     @Value("${secretJwtString}")
     private String secretJwtString;
 
+    // verified tokens kept by digest, 0 = verify every request
+    @Value("${ims.security.token-cache.size:10000}")
+    private int tokenCacheSize;
+
     @PostConstruct
     private void init() {
         byte[] keyByte = secretJwtString.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        // immutable and thread-safe, built once instead of per call
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = new VerifiedTokenCache(tokenCacheSize);
     }
 
     public String generateToken(User user) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .claim("role", user.getRole().name())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME_IN_MILLISEC))
+                .claim(ISSUED_AT_MILLIS, now)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + EXPIRATION_TIME_IN_MILLISEC))
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Checks the signature and expiry of the token once and returns the claims AuthFilter needs. A token seen before
+     * is answered from the cache without parsing until it expires. Throws the parser's JwtException when invalid.
+     */
+    public VerifiedToken verify(String token) {
+        Instant now = Instant.now();
+        String digest = VerifiedTokenCache.digest(token);
+        VerifiedToken verified = verifiedTokens.get(digest, now);
+        if (verified != null) {
+            return verified;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        verified = new VerifiedToken(claims.getSubject(), claims.get("role", String.class), claims.getId(),
+                issuedAt(claims), expiration == null ? null : expiration.toInstant());
+        verifiedTokens.put(digest, verified, now);
+        return verified;
+    }
+
+    private static Instant issuedAt(Claims claims) {
+        Long millis = claims.get(ISSUED_AT_MILLIS, Long.class);
+        if (millis != null) {
+            return Instant.ofEpochMilli(millis);
+        }
+        return claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+    }
+
     public String getUsernameFromToken(String token) {
         return extractClaims(token, Claims::getSubject);
     }
 
     public <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+        return claimsTFunction.apply(parser.parseSignedClaims(token).getPayload());
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
@@ -64,11 +110,7 @@ public class JwtUtils {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        final Claims claims = parser.parseSignedClaims(token).getPayload();
         return claimsResolver.apply(claims);
     }
 }
@@ -0,0 +1,129 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.exceptions.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Runs the BCrypt work of login, registration and password changes on a small dedicated pool instead of the
+ * request threads. At most {@code threads} hashes run at once and {@code queue-capacity} wait; beyond that, or
+ * when a hash is not done within {@code timeout-ms}, the request fails with a 503. A login storm thus
+ * takes a few cores and a bounded number of request threads, the rest of the API keeps its latency.
+ * <p>
+ * {@link #needsRehash(String)} tells whether a stored hash was made with another cost than
+ * {@code ims.security.bcrypt.strength}, so logins move every user to the configured cost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${ims.security.bcrypt.strength:10}")
+    private int strength;
+    // 0 = half the available processors
+    @Value("${ims.security.hashing.threads:0}")
+    private int threads;
+    @Value("${ims.security.hashing.queue-capacity:64}")
+    private int queueCapacity;
+    @Value("${ims.security.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger number = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + number.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool started: {} threads, {} queued at most, bcrypt strength {}",
+                poolSize, queueCapacity, strength);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the hash is a BCrypt hash of another cost than the configured one
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public int active() {
+        return executor.getActiveCount();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many logins in progress, please retry");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Password check timed out, please retry");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.dto.PrincipalCacheStatsDTO;
+import com._4GI.InventoryManagementSystem.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+/**
+ * Users of authenticated requests by email, in front of {@code UserRepository.findByEmail}, so a request carrying
+ * a known token reaches the controller without database work. Entries live for the TTL at most; UserServiceImpl
+ * drops them when a user is updated (role, email...) or deleted. Changes made by another instance are seen once
+ * the TTL is over. Only users found are kept, an unknown email is looked up every time.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ConcurrentHashMap<String, Entry> users = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    // bumped by every invalidation, a load that overlapped one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // 0 = no caching
+    @Value("${ims.security.principal-cache.size:10000}")
+    private int maxSize;
+
+    @Value("${ims.security.principal-cache.ttl:5m}")
+    private Duration ttl;
+
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        long now = System.nanoTime();
+        Entry entry = users.get(email);
+        if (entry != null && now - entry.expiresAt() < 0) {
+            hits.increment();
+            return Optional.of(entry.user());
+        }
+        misses.increment();
+        if (entry != null) {
+            users.remove(email, entry);
+        }
+
+        long loadedAt = generation.get();
+        Optional<User> loaded = loader.apply(email);
+        if (loaded.isEmpty() || !isEnabled()) {
+            return loaded;
+        }
+
+        User user = detached(loaded.get());
+        if (users.size() >= maxSize) {
+            evict(now);
+        }
+        Entry added = new Entry(user, now + ttl.toNanos());
+        users.put(email, added);
+        if (generation.get() != loadedAt) {
+            users.remove(email, added);
+        }
+        return Optional.of(user);
+    }
+
+    public void invalidate(String... emails) {
+        generation.incrementAndGet();
+        for (String email : emails) {
+            if (email != null && users.remove(email) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.add(users.size());
+        users.clear();
+    }
+
+    public PrincipalCacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        return PrincipalCacheStatsDTO.builder()
+                .enabled(isEnabled())
+                .maxSize(maxSize)
+                .ttlSeconds(ttl.toSeconds())
+                .size(users.size())
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount))
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private boolean isEnabled() {
+        return maxSize > 0 && ttl.isPositive();
+    }
+
+    // Expired entries first, then arbitrary ones down to three quarters of the size; one thread at a time
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            users.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+            Iterator<String> emails = users.keySet().iterator();
+            while (users.size() > maxSize * 3 / 4 && emails.hasNext()) {
+                emails.next();
+                emails.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // Shared by concurrent requests: a copy without the lazy transactions of the session that loaded it
+    private static User detached(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .phoneNumber(user.getPhoneNumber())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
@@ -0,0 +1,198 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Rate limit per client, right after AuthFilter. Every request is counted against its IP, in a bucket sized for
+ * the several users a NAT or proxy puts behind one address; authenticated requests are first counted against
+ * their user (the JWT subject) too. Logins and registrations draw on a bucket of their own per IP, so a burst of
+ * logins from an office neither starves nor is starved by its other traffic. Each request takes tokens by
+ * endpoint class, so a login or an export weighs more than a single read. A client short of tokens gets a 429
+ * with the seconds to wait in Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int STRIPES = 64;
+
+    private final ObjectMapper objectMapper;
+    private final LongAdder rejected = new LongAdder();
+
+    @Value("${ims.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ims.ratelimit.capacity:60}")
+    private int capacity;
+
+    @Value("${ims.ratelimit.refill-per-second:20}")
+    private int refillPerSecond;
+
+    @Value("${ims.ratelimit.address.capacity:600}")
+    private int addressCapacity;
+
+    @Value("${ims.ratelimit.address.refill-per-second:200}")
+    private int addressRefillPerSecond;
+
+    @Value("${ims.ratelimit.login.capacity:300}")
+    private int loginCapacity;
+
+    @Value("${ims.ratelimit.login.refill-per-second:100}")
+    private int loginRefillPerSecond;
+
+    @Value("${ims.ratelimit.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${ims.ratelimit.cost.default:1}")
+    private int defaultCost;
+
+    @Value("${ims.ratelimit.cost.list:2}")
+    private int listCost;
+
+    @Value("${ims.ratelimit.cost.search:4}")
+    private int searchCost;
+
+    @Value("${ims.ratelimit.cost.export:20}")
+    private int exportCost;
+
+    @Value("${ims.ratelimit.cost.login:10}")
+    private int loginCost;
+
+    @Value("${ims.ratelimit.cost.upload:10}")
+    private int uploadCost;
+
+    private ClientRateLimiter userLimiter;
+    private ClientRateLimiter addressLimiter;
+    private ClientRateLimiter loginLimiter;
+
+    @PostConstruct
+    void init() {
+        long idleMillis = idleTimeout.toMillis();
+        userLimiter = new ClientRateLimiter(capacity, refillPerSecond, idleMillis, STRIPES);
+        addressLimiter = new ClientRateLimiter(addressCapacity, addressRefillPerSecond, idleMillis, STRIPES);
+        loginLimiter = new ClientRateLimiter(loginCapacity, loginRefillPerSecond, idleMillis, STRIPES);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        long waitMillis = tryAcquire(request);
+        if (waitMillis == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        Response errorResponse = Response.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message("Too many requests, retry later")
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    // Sweeps one stripe per run, the whole map every STRIPES runs
+    @Scheduled(fixedDelayString = "${ims.ratelimit.eviction-interval-ms:10000}")
+    public void evictIdle() {
+        int evicted = userLimiter.evictIdle() + addressLimiter.evictIdle() + loginLimiter.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public int clients() {
+        return userLimiter.size() + addressLimiter.size() + loginLimiter.size();
+    }
+
+    // 0 when granted; the user's bucket is checked first so a user over its limit does not drain the address's
+    private long tryAcquire(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        int cost = costOf(request);
+        if (isLogin(request)) {
+            return loginLimiter.tryAcquire(address, cost);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            long waitMillis = userLimiter.tryAcquire(authentication.getName(), cost);
+            if (waitMillis > 0) {
+                return waitMillis;
+            }
+        }
+        return addressLimiter.tryAcquire(address, cost);
+    }
+
+    private static boolean isLogin(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "POST".equals(request.getMethod())
+                && (path.equals("/api/auth/login") || path.equals("/api/auth/register"));
+    }
+
+    int costOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+
+        if (isLogin(request)) {
+            return loginCost;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return uploadCost;
+        }
+        if (!"GET".equals(method)) {
+            return defaultCost;
+        }
+        if (path.equals("/api/transactions/export")) {
+            return exportCost;
+        }
+        String searchText = request.getParameter("searchText");
+        if (searchText != null && !searchText.isBlank()) {
+            return searchCost;
+        }
+        if (path.endsWith("/all") || path.equals("/api/transactions/by-month-year")
+                || path.startsWith("/api/users/transactions/")) {
+            return listCost;
+        }
+        return defaultCost;
+    }
+}
@@ -1,6 +1,7 @@
 package com._4GI.InventoryManagementSystem.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,6 +29,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final AuthFilter authFilter; // Inject managed instance
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -41,12 +43,18 @@ public class SecurityConfig {
                         "/images/products/**",
                         "/products/**",
                         "/swagger-ui/**",
-                        "/v3/api-docs/**"
+                        "/v3/api-docs/**",
+                        // liveness probes carry no token
+                        "/actuator/health"
                 ).permitAll()
+                // the scrape names endpoints and pool usage: admins only, see management.* in application.properties
+                .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                 .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class)
+                // after AuthFilter so authenticated requests are counted per user
+                .addFilterAfter(rateLimitFilter, AuthFilter.class)
                 .build();
     }
 
@@ -55,9 +63,10 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // hashes made with another cost are upgraded at the next login, see PasswordHasher
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${ims.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -0,0 +1,170 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.entity.TokenRevocation;
+import com._4GI.InventoryManagementSystem.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Deny-list of bearer tokens, checked by AuthFilter on every request without touching the database.
+ * <p>
+ * Two kinds of revocations are persisted in {@code token_revocations}: one token by its id (logout), and every
+ * token of a user issued before an instant (deletion, role, email or password change). Memory holds them all in
+ * an exact map behind a Bloom filter, so the common case, a token nobody revoked, is answered by a few bit tests.
+ * Revocations made here are in force at once; those of other instances are picked up every
+ * {@code refresh-interval-ms} by reading the rows created since the previous refresh, with an overlap for rows
+ * committed late and clock skew between instances. Rows read twice merge into the same map entry.
+ * <p>
+ * Entries expire when no token they cover can still be valid. The refresh drops them from the map and the table;
+ * their keys stay in the Bloom filter, costing a map lookup each, until the filter is rebuilt from the map every
+ * {@code rebuild-interval-ms} or when the map outgrows the filter's capacity.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocations {
+
+    static final String TOKEN_PREFIX = "jti:";
+    static final String USER_PREFIX = "sub:";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // overlap between refreshes, covers clock skew and revocations committing late
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${ims.security.revocation.initial-capacity:10000}")
+    private int initialCapacity;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private Instant lastRefresh;
+
+    @PostConstruct
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        entries.clear();
+        tokenRevocationRepository.findActive(now).forEach(this::add);
+        lastRefresh = now;
+        rebuild();
+        log.info("Token revocations loaded: {} in force", entries.size());
+    }
+
+    /**
+     * True when the token was revoked, on its own or through its user. Lock-free, no database access.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter filter = bloomFilter;
+        Instant now = Instant.now();
+        if (token.tokenId() != null && filter.mightContain(TOKEN_PREFIX + token.tokenId())) {
+            Entry entry = entries.get(TOKEN_PREFIX + token.tokenId());
+            if (entry != null && entry.expiresAt().isAfter(now)) {
+                return true;
+            }
+        }
+        if (token.subject() != null && filter.mightContain(USER_PREFIX + token.subject())) {
+            Entry entry = entries.get(USER_PREFIX + token.subject());
+            // a token without issue time predates the revocation as far as we can tell
+            return entry != null && entry.expiresAt().isAfter(now)
+                    && (token.issuedAt() == null || token.issuedAt().isBefore(entry.notBefore()));
+        }
+        return false;
+    }
+
+    // Logout: the token can no longer be used, the user's other tokens still can
+    public void revokeToken(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            // issued before tokens carried an id, only the user-wide revocation can reach it
+            revokeUser(token.subject());
+            return;
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = token.expiresAt() != null ? token.expiresAt() : now.plusMillis(JwtUtils.EXPIRATION_TIME_IN_MILLISEC);
+        save(TOKEN_PREFIX + token.tokenId(), now, expiresAt);
+    }
+
+    // Every token of the user issued until now; tokens issued afterwards are accepted
+    public void revokeUser(String email) {
+        if (email == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        save(USER_PREFIX + email, now, now.plusMillis(JwtUtils.EXPIRATION_TIME_IN_MILLISEC));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Revocations of the other instances, then the expired entries out
+    @Scheduled(fixedDelayString = "${ims.security.revocation.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        tokenRevocationRepository.findActiveCreatedSince(lastRefresh.minusSeconds(REFRESH_OVERLAP_SECONDS), now)
+                .forEach(this::add);
+        lastRefresh = now;
+        if (entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now))) {
+            int purged = tokenRevocationRepository.deleteExpired(now);
+            log.debug("Token revocations: {} expired rows purged, {} in force", purged, entries.size());
+        }
+        if (entries.size() > bloomFilter.capacity()) {
+            rebuild();
+        }
+    }
+
+    // Drops the keys of expired entries from the Bloom filter
+    @Scheduled(fixedDelayString = "${ims.security.revocation.rebuild-interval-ms:600000}")
+    public synchronized void compact() {
+        rebuild();
+    }
+
+    private synchronized void save(String key, Instant notBefore, Instant expiresAt) {
+        TokenRevocation saved = tokenRevocationRepository.save(TokenRevocation.builder()
+                .key(key)
+                .notBefore(notBefore)
+                .expiresAt(expiresAt)
+                .build());
+        add(saved);
+        if (entries.size() > bloomFilter.capacity()) {
+            rebuild();
+        }
+    }
+
+    // Callers hold the monitor: a rebuild never misses a key added meanwhile
+    private void add(TokenRevocation row) {
+        Entry previous = entries.get(row.getKey());
+        Entry entry = new Entry(row.getNotBefore(), row.getExpiresAt());
+        if (previous == null) {
+            entries.put(row.getKey(), entry);
+            if (bloomFilter != null) {
+                bloomFilter.add(row.getKey());
+            }
+        } else {
+            // read again within the overlap, or a later revocation of the same key; already in the filter
+            entries.put(row.getKey(), previous.latest(entry));
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter filter = new BloomFilter(Math.max(initialCapacity, entries.size() * 2), FALSE_POSITIVE_RATE);
+        entries.keySet().forEach(filter::add);
+        bloomFilter = filter;
+    }
+
+    private record Entry(Instant notBefore, Instant expiresAt) {
+
+        // Two revocations of the same key: the later one covers the earlier
+        Entry latest(Entry other) {
+            return new Entry(notBefore.isAfter(other.notBefore) ? notBefore : other.notBefore,
+                    expiresAt.isAfter(other.expiresAt) ? expiresAt : other.expiresAt);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import java.time.Instant;
+
+
+/**
+ * Claims of a bearer token whose signature and expiry were checked, all AuthFilter needs from it.
+ * tokenId and issuedAt are null for tokens issued before they were added.
+ */
+public record VerifiedToken(String subject, String role, String tokenId, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
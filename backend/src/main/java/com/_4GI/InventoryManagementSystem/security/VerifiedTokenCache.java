@@ -0,0 +1,82 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Verified tokens by SHA-256 digest of the token, so a client sending the same bearer token again skips the
+ * parse and signature check. Only the digest is kept, never the token itself. An entry is dropped once its token
+ * expires; when full, expired entries go first, then arbitrary ones down to three quarters of the size.
+ */
+final class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, VerifiedToken> tokens;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.tokens = new ConcurrentHashMap<>(Math.max(16, maxSize * 4 / 3));
+    }
+
+    VerifiedToken get(String digest, Instant now) {
+        VerifiedToken token = tokens.get(digest);
+        if (token != null && token.isExpired(now)) {
+            tokens.remove(digest, token);
+            return null;
+        }
+        return token;
+    }
+
+    void put(String digest, VerifiedToken token, Instant now) {
+        // a token without expiry is verified on every use
+        if (maxSize <= 0 || token.expiresAt() == null) {
+            return;
+        }
+        if (tokens.size() >= maxSize) {
+            evict(now);
+        }
+        tokens.put(digest, token);
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+    void clear() {
+        tokens.clear();
+    }
+
+    // One thread evicts, the others keep inserting past the limit meanwhile
+    private void evict(Instant now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            tokens.values().removeIf(token -> token.isExpired(now));
+            Iterator<String> digests = tokens.keySet().iterator();
+            while (tokens.size() > maxSize * 3 / 4 && digests.hasNext()) {
+                digests.next();
+                digests.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
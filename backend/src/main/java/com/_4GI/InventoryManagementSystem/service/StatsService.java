@@ -0,0 +1,11 @@
+package com._4GI.InventoryManagementSystem.service;
+
+import com._4GI.InventoryManagementSystem.dto.Response;
+
+
+public interface StatsService {
+    Response getDashboardStats();
+    Response getLedgerStats();
+    Response getArchiveStats();
+    Response getPrincipalCacheStats();
+}
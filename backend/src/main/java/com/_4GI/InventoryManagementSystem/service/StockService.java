@@ -0,0 +1,11 @@
+package com._4GI.InventoryManagementSystem.service;
+
+import com._4GI.InventoryManagementSystem.entity.Product;
+
+
+public interface StockService {
+    // Atomically add quantity to the product stock and return the refreshed product
+    Product increaseStock(Long productId, int quantity);
+    // Atomically remove quantity from the product stock, failing instead of going negative
+    Product decreaseStock(Long productId, int quantity);
+}
@@ -0,0 +1,14 @@
+package com._4GI.InventoryManagementSystem.service;
+
+import com._4GI.InventoryManagementSystem.export.TransactionExportCriteria;
+import com._4GI.InventoryManagementSystem.export.TransactionExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+public interface TransactionExportService {
+    // Streams the matching transactions to out, returns the number of rows written; out is not closed
+    long exportTransactions(TransactionExportCriteria criteria, TransactionExportFormat format, boolean gzip,
+                            OutputStream out) throws IOException;
+}
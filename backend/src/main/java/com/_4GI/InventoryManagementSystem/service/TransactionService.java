@@ -2,15 +2,29 @@ package com._4GI.InventoryManagementSystem.service;
 
 import com._4GI.InventoryManagementSystem.dto.Response;
 import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.dto.TransactionStatusBulkRequest;
 import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import java.util.List;
 
 
 public interface TransactionService {
     Response restockInventory(TransactionRequest transactionRequest);
     Response sell(TransactionRequest transactionRequest);
     Response returnToSupplier(TransactionRequest transactionRequest);
+    // Mixed-type bulk ingestion, one result per line
+    Response processBatch(List<TransactionRequest> transactionRequests);
     Response getAllTransactions(int page, int size, String searchText);
+    // Keyset pagination, newest first; cursor is the nextCursor of the previous page (null for the first one)
+    Response getTransactionsAfter(String cursor, int limit, String searchText);
     Response getTransactionById(Long id);
     Response getAllTransactionByMonthAndYear(int month, int year);
+    // type/status are optional filters, page/size optional paging (null = whole month)
+    Response getAllTransactionByMonthAndYear(int month, int year, TransactionType type, TransactionStatus status,
+                                             Integer page, Integer size);
     Response updateTransactionStatus(Long transactionId, TransactionStatus transactionStatus);
+    // Moves many rows at once, by ids or filter, along the allowed transitions only
+    Response updateTransactionStatuses(TransactionStatusBulkRequest request);
+    // Moves the months older than the archive horizon out of the table now, instead of waiting for the nightly run
+    Response archiveTransactions();
 }
@@ -5,14 +5,20 @@ import com._4GI.InventoryManagementSystem.dto.RegisterRequest;
 import com._4GI.InventoryManagementSystem.dto.Response;
 import com._4GI.InventoryManagementSystem.dto.UserDTO;
 import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+
+import java.time.LocalDate;
 
 
 public interface UserService {
     Response registerUser(RegisterRequest registerRequest);
     Response loginUser(LoginRequest loginRequest);
+    // revokes the given bearer token only, the user's other tokens stay valid
+    Response logoutUser(String token);
     Response getAllUsers();
     User getCurrentLoggedInUser();
     Response updateUser(Long id, UserDTO userDTO);
     Response deleteUser(Long id);
-    Response getUserTransactions(Long id);
+    // newest first, keyset-paged (cursor from the previous page's nextCursor); the first page carries the summary
+    Response getUserTransactions(Long id, LocalDate from, LocalDate to, TransactionType type, String cursor, int limit);
 }
@@ -8,11 +8,14 @@ import com._4GI.InventoryManagementSystem.repository.CategoryRepository;
 import com._4GI.InventoryManagementSystem.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -21,11 +24,10 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
 
     @Override
     public Response createCategory(CategoryDTO categoryDTO) {
-        Category categoryToSave = modelMapper.map(categoryDTO, Category.class);
+        Category categoryToSave = categoryDTO.toEntity();
         categoryRepository.save(categoryToSave);
 
         return Response.builder()
@@ -37,11 +39,7 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public Response getAllCategories() {
         //List<Category> categories = categoryRepository.findAll(Sort.by(Sort.Direction.ASC, "position"));
-        List<Category> categories = categoryRepository.findAllOrdered();
-
-        List<CategoryDTO> categoryDTOS = categories.stream()
-                .map(c -> modelMapper.map(c, CategoryDTO.class))
-                .toList();
+        List<CategoryDTO> categoryDTOS = categoryRepository.findAllDtosOrdered();
 
         return Response.builder()
                 .status(200)
@@ -55,7 +53,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category Not Found"));
-        CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
+        CategoryDTO categoryDTO = CategoryDTO.fromEntity(category);
 
         return Response.builder()
                 .status(200)
@@ -95,14 +93,23 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public Response reorderCategories(List<Long> orderedIds) {
-        // Loop through IDs and update their position field
+        // one select, then only the categories whose position changed are updated, in one JDBC batch
+        Map<Long, Category> byId = categoryRepository.findAllById(orderedIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
         for (int i = 0; i < orderedIds.size(); i++) {
             Long id = orderedIds.get(i);
-            categoryRepository.updatePosition(id, i);
+            Category category = byId.get(id);
+            if (category == null) {
+                // rolls the whole reorder back
+                throw new NotFoundException("Category not found with ID: " + id);
+            }
+            category.setPosition(i);
         }
         return Response.builder()
                 .status(200)
+                .message("Reordering successful")
                 .build();
     }
 }
@@ -0,0 +1,81 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+
+/**
+ * Opaque cursor for keyset pagination: the last returned id, or its creation time and id for lists in
+ * (created_at, id) order, base64url-encoded so clients treat it as a token instead of building offsets from it.
+ */
+final class KeysetCursor {
+
+    private static final String PREFIX = "id:";
+    private static final String TIME_PREFIX = "at:";
+
+    // Last row of a page in (created_at, id) order
+    record Position(LocalDateTime createdAt, long id) {
+    }
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Long lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        return encode(PREFIX + lastId);
+    }
+
+    static String encode(LocalDateTime createdAt, Long lastId) {
+        return encode(TIME_PREFIX + createdAt + "|" + lastId);
+    }
+
+    static Long decode(String cursor) {
+        String value = decodeValue(cursor, PREFIX);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (IllegalArgumentException e) {
+            throw new NameValueRequiredException("Invalid cursor");
+        }
+    }
+
+    static Position decodePosition(String cursor) {
+        String value = decodeValue(cursor, TIME_PREFIX);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int separator = value.indexOf('|');
+            return new Position(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new NameValueRequiredException("Invalid cursor");
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeValue(String cursor, String prefix) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(prefix)) {
+                throw new IllegalArgumentException(value);
+            }
+            return value.substring(prefix.length());
+        } catch (IllegalArgumentException e) {
+            throw new NameValueRequiredException("Invalid cursor");
+        }
+    }
+}
@@ -4,15 +4,19 @@ import com._4GI.InventoryManagementSystem.dto.ProductDTO;
 import com._4GI.InventoryManagementSystem.dto.Response;
 import com._4GI.InventoryManagementSystem.entity.Category;
 import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.event.ProductChangedEvent;
 import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
 import com._4GI.InventoryManagementSystem.repository.CategoryRepository;
 import com._4GI.InventoryManagementSystem.repository.ProductRepository;
 import com._4GI.InventoryManagementSystem.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -22,8 +26,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -34,12 +39,39 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Value("${product.image.upload-dir}")
     private String imageUploadDir;
 
+    private Counter uploadBytes;
+    private DistributionSummary uploadThroughput;
+
+    @PostConstruct
+    void bindMetrics() {
+        uploadBytes = Counter.builder("ims.product.image.upload.bytes")
+                .description("Bytes of product images written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        uploadThroughput = DistributionSummary.builder("ims.product.image.upload.throughput")
+                .description("Write rate of each product image upload")
+                .baseUnit("bytes_per_second")
+                .register(meterRegistry);
+    }
+
+    // Writes the upload and meters its size and write rate
+    private void storeImage(MultipartFile imageFile, Path imagePath) throws IOException {
+        long begin = System.nanoTime();
+        imageFile.transferTo(imagePath.toFile());
+        long nanos = Math.max(1, System.nanoTime() - begin);
+
+        long bytes = imageFile.getSize();
+        uploadBytes.increment(bytes);
+        uploadThroughput.record(bytes * 1e9 / nanos);
+    }
+
     // Get Product
     private Product getProductOrThrow(Long productId) {
         return productRepository.findById(productId)
@@ -55,21 +87,20 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     @Override
     public Response updateProductPositions(List<ProductDTO> products) {
-        List<Product> updatedProducts = new ArrayList<>();
-
-        for (int i = 0; i < products.size(); i++) {
-            Long id = products.get(i).getId();
-
-            // Load product entity
-            Product product = productRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Product not found with ID: " + id)); // <--- safer
-
-            product.setPosition(i); // <--- set new position
-            updatedProducts.add(product); // <--- collect for batch save
+        List<Long> ids = products.stream().map(ProductDTO::getId).toList();
+        // one select for the whole list; the managed entities' new positions are flushed as one JDBC batch
+        Map<Long, Product> byId = productRepository.findAllWithCategoryByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Product product = byId.get(id);
+            if (product == null) {
+                throw new NotFoundException("Product not found with ID: " + id);
+            }
+            product.setPosition(i);
         }
 
-        productRepository.saveAll(updatedProducts); // <--- persist all changes at once
-
         return Response.builder()
                 .status(200)
                 .message("Reordering successful")
@@ -84,7 +115,7 @@ public class ProductServiceImpl implements ProductService {
                 String filename = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename();
                 Path imagePath = Paths.get(imageUploadDir, filename).toAbsolutePath();
                 Files.createDirectories(imagePath.getParent());
-                imageFile.transferTo(imagePath.toFile());
+                storeImage(imageFile, imagePath);
                 productDTO.setImageUrl(filename);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to save image file: " + e.getMessage());
@@ -101,6 +132,7 @@ public class ProductServiceImpl implements ProductService {
         product.setImageUrl(productDTO.getImageUrl());
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct.getId(), savedProduct.getName(), savedProduct.getSku()));
         ProductDTO savedDto = ProductDTO.fromEntity(savedProduct);
 
         return Response.builder()
@@ -122,7 +154,7 @@ public class ProductServiceImpl implements ProductService {
                 Path imagePath = Paths.get(imageUploadDir, filename).toAbsolutePath();
 
                 Files.createDirectories(imagePath.getParent());
-                imageFile.transferTo(imagePath.toFile());
+                storeImage(imageFile, imagePath);
                 productDTO.setImageUrl(filename);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to save image file: " + e.getMessage());
@@ -141,6 +173,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product updatedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(updatedProduct.getId(), updatedProduct.getName(), updatedProduct.getSku()));
         ProductDTO updatedDto = ProductDTO.fromEntity(updatedProduct);
 
         return Response.builder()
@@ -154,10 +187,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public Response getAllProducts() {
         //List<Product> products = productRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<Product> products = productRepository.findAllByOrderByPositionAsc();
-        List<ProductDTO> productDTOS = products.stream()
-                                                .map(p -> modelMapper.map(p, ProductDTO.class))
-                                                .toList();
+        List<ProductDTO> productDTOS = productRepository.findAllDtosOrderByPosition();
 
         return Response.builder()
                 .status(200)
@@ -173,7 +203,7 @@ public class ProductServiceImpl implements ProductService {
         return Response.builder()
                 .status(200)
                 .message("success")
-                .product(modelMapper.map(product, ProductDTO.class))
+                .product(ProductDTO.fromEntity(product))
                 .build();
     }
 
@@ -182,6 +212,7 @@ public class ProductServiceImpl implements ProductService {
     public Response deleteProduct(Long id) {
         getProductOrThrow(id);
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
         return Response.builder()
                 .status(200)
                 .message("Product successfully deleted")
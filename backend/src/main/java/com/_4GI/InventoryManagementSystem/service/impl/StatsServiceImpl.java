@@ -0,0 +1,57 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.archive.TransactionArchive;
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.ledger.TransactionLedger;
+import com._4GI.InventoryManagementSystem.security.PrincipalCache;
+import com._4GI.InventoryManagementSystem.service.StatsService;
+import com._4GI.InventoryManagementSystem.stats.DashboardStatsAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final DashboardStatsAggregator dashboardStatsAggregator;
+    private final TransactionLedger transactionLedger;
+    private final TransactionArchive transactionArchive;
+    private final PrincipalCache principalCache;
+
+    @Override
+    public Response getDashboardStats() {
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .stats(dashboardStatsAggregator.snapshot())
+                .build();
+    }
+
+    @Override
+    public Response getLedgerStats() {
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .ledger(transactionLedger.stats())
+                .build();
+    }
+
+    @Override
+    public Response getArchiveStats() {
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .archive(transactionArchive.stats())
+                .build();
+    }
+
+    @Override
+    public Response getPrincipalCacheStats() {
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .principalCache(principalCache.stats())
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.exceptions.InsufficientStockException;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.repository.ProductRepository;
+import com._4GI.InventoryManagementSystem.service.StockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+
+/**
+ * Stock mutation engine.
+ * Every change is a single conditional delta UPDATE executed by the database, so concurrent
+ * sells/restocks on the same product serialize on the row lock instead of losing updates.
+ * Methods join the caller's transaction so the stock change and the ledger insert commit together.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Product increaseStock(Long productId, int quantity) {
+        int updated = productRepository.incrementStock(productId, quantity, LocalDateTime.now());
+
+        if (updated == 0) {
+            throw new NotFoundException("Product Not Found");
+        }
+
+        return getProductOrThrow(productId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Product decreaseStock(Long productId, int quantity) {
+        int updated = productRepository.decrementStock(productId, quantity, LocalDateTime.now());
+
+        if (updated == 0) {
+            // Either the product does not exist or there is not enough stock left
+            Product product = getProductOrThrow(productId);
+            log.debug("Rejected stock decrease of {} for product {} (available: {})",
+                    quantity, productId, product.getStockQuantity());
+            throw new InsufficientStockException("Insufficient stock for product " + product.getName()
+                    + " (requested: " + quantity + ", available: " + product.getStockQuantity() + ")");
+        }
+
+        return getProductOrThrow(productId);
+    }
+
+    // Read back the row we just locked/updated (same transaction, so the values are consistent)
+    private Product getProductOrThrow(Long productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Product Not Found"));
+    }
+}
@@ -8,9 +8,6 @@ import com._4GI.InventoryManagementSystem.repository.SupplierRepository;
 import com._4GI.InventoryManagementSystem.service.SupplierService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -21,11 +18,10 @@ import java.util.List;
 public class SupplierServiceImpl implements SupplierService {
 
     private final SupplierRepository supplierRepository;
-    private final ModelMapper modelMapper;
 
     @Override
     public Response addSupplier(SupplierDTO supplierDTO) {
-        Supplier supplierToSave = modelMapper.map(supplierDTO, Supplier.class);
+        Supplier supplierToSave = supplierDTO.toEntity();
         supplierRepository.save(supplierToSave);
 
         return Response.builder()
@@ -57,10 +53,7 @@ public class SupplierServiceImpl implements SupplierService {
 
     @Override
     public Response getAllSuppliers() {
-        List<Supplier> suppliers = supplierRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<SupplierDTO> supplierDTOS = suppliers.stream()
-                .map(s -> modelMapper.map(s, SupplierDTO.class))
-                .toList();
+        List<SupplierDTO> supplierDTOS = supplierRepository.findAllDtos();
 
         return Response.builder()
                 .status(200)
@@ -75,7 +68,7 @@ public class SupplierServiceImpl implements SupplierService {
         Supplier supplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
-        SupplierDTO supplierDTO = modelMapper.map(supplier, SupplierDTO.class);
+        SupplierDTO supplierDTO = SupplierDTO.fromEntity(supplier);
 
         return Response.builder()
                 .status(200)
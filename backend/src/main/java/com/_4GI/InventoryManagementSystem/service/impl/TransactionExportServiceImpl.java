@@ -0,0 +1,104 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.archive.TransactionArchive;
+import com._4GI.InventoryManagementSystem.export.CsvTransactionExportWriter;
+import com._4GI.InventoryManagementSystem.export.NdjsonTransactionExportWriter;
+import com._4GI.InventoryManagementSystem.export.TransactionExportCriteria;
+import com._4GI.InventoryManagementSystem.export.TransactionExportFormat;
+import com._4GI.InventoryManagementSystem.export.TransactionExportRow;
+import com._4GI.InventoryManagementSystem.export.TransactionExportWriter;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import com._4GI.InventoryManagementSystem.service.TransactionExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionArchive transactionArchive;
+
+    // Rows go from the JDBC cursor to the (gzip) output one at a time, memory use does not depend on the row count
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransactions(TransactionExportCriteria criteria, TransactionExportFormat format, boolean gzip,
+                                   OutputStream out) throws IOException {
+        long begin = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        TransactionExportWriter exportWriter = switch (format) {
+            case CSV -> new CsvTransactionExportWriter(writer);
+            case NDJSON -> new NdjsonTransactionExportWriter(writer, objectMapper.getFactory());
+        };
+
+        long rows = 0;
+        exportWriter.writeHeader();
+
+        // archived months first, one month in memory at a time, then the table from where the archive ends
+        LocalDateTime from = criteria.fromTime();
+        LocalDateTime archivedBefore = transactionArchive.archivedBefore();
+        if (archivedBefore != null && (from == null || from.isBefore(archivedBefore))) {
+            LocalDateTime archiveEnd = criteria.toTime() == null || criteria.toTime().isAfter(archivedBefore)
+                    ? archivedBefore : criteria.toTime();
+            long[] archived = new long[1];
+            try {
+                transactionArchive.forEach(from, archiveEnd, criteria.type(), criteria.status(), row -> {
+                    try {
+                        exportWriter.write(row);
+                        archived[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            rows += archived[0];
+            from = archivedBefore;
+        }
+
+        boolean tableRange = from == null || criteria.toTime() == null || from.isBefore(criteria.toTime());
+        if (tableRange) {
+            try (Stream<TransactionExportRow> stream = transactionRepository.streamForExport(
+                    from, criteria.toTime(), criteria.type(), criteria.status())) {
+                Iterator<TransactionExportRow> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    exportWriter.write(iterator.next());
+                    rows++;
+                }
+            }
+        }
+        exportWriter.finish();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+
+        log.info("Exported {} transactions as {}{} in {} ms", rows, format, gzip ? " (gzip)" : "",
+                (System.nanoTime() - begin) / 1_000_000);
+        return rows;
+    }
+}
@@ -1,32 +1,57 @@
 package com._4GI.InventoryManagementSystem.service.impl;
 
+import com._4GI.InventoryManagementSystem.archive.ArchivedTransaction;
+import com._4GI.InventoryManagementSystem.archive.TransactionArchive;
 import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionBatchResult;
 import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
 import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.dto.TransactionStatusBulkRequest;
+import com._4GI.InventoryManagementSystem.dto.TransactionStatusBulkResult;
 import com._4GI.InventoryManagementSystem.entity.Product;
 import com._4GI.InventoryManagementSystem.entity.Supplier;
 import com._4GI.InventoryManagementSystem.entity.Transaction;
 import com._4GI.InventoryManagementSystem.entity.User;
 import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
 import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.event.TransactionRecordedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionStatusBulkChangedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionStatusChangedEvent;
 import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
 import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.metrics.TransactionMetrics;
 import com._4GI.InventoryManagementSystem.repository.ProductRepository;
 import com._4GI.InventoryManagementSystem.repository.SupplierRepository;
 import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import com._4GI.InventoryManagementSystem.search.SearchHits;
+import com._4GI.InventoryManagementSystem.search.TransactionSearchIndexer;
 import com._4GI.InventoryManagementSystem.service.TransactionService;
 import com._4GI.InventoryManagementSystem.service.UserService;
+import com._4GI.InventoryManagementSystem.stock.StockCommand;
+import com._4GI.InventoryManagementSystem.stock.StockCommandDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -35,14 +60,26 @@ import java.util.List;
 public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final ModelMapper modelMapper;
     private final SupplierRepository supplierRepository;
     private final UserService userService;
     private final ProductRepository productRepository;
-
+    private final TransactionSearchIndexer searchIndexer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockCommandDispatcher stockCommandDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionArchive transactionArchive;
+    private final TransactionMetrics transactionMetrics;
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_PAGE_LIMIT = 500;
+    private static final int MAX_STATUS_IDS = 100_000;
+    private static final int STATUS_CHUNK_SIZE = 1_000;
+
+    // Not transactional: the stock change and its ledger row commit in the dispatcher, request threads wait without a connection
     @Override
     public Response restockInventory(TransactionRequest transactionRequest) {
 
+        requireProductAndQuantity(transactionRequest);
         Long productId = transactionRequest.getProductId();
         Long supplierId = transactionRequest.getSupplierId();
         Integer quantity = transactionRequest.getQuantity();
@@ -51,31 +88,13 @@ public class TransactionServiceImpl implements TransactionService {
             throw new NameValueRequiredException("Supplier Id id Required");
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
         Supplier supplier = supplierRepository.findById(supplierId)
                 .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
         User user = userService.getCurrentLoggedInUser();
 
-        // update stock then save
-        product.setStockQuantity(product.getStockQuantity() + quantity);
-        productRepository.save(product);
-
-        // create transaction
-        Transaction transaction = Transaction.builder()
-                .transactionType(TransactionType.PURCHASE)
-                .status(TransactionStatus.COMPLETED)
-                .product(product)
-                .user(user)
-                .supplier(supplier)
-                .totalProducts(quantity)
-                .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)))
-                .description(transactionRequest.getDescription())
-                .build();
-
-        transactionRepository.save(transaction);
+        stockCommandDispatcher.execute(new StockCommand(TransactionType.PURCHASE, productId, quantity,
+                user, supplier, transactionRequest.getDescription()));
 
         return Response.builder()
                 .status(200)
@@ -86,30 +105,15 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     public Response sell(TransactionRequest transactionRequest) {
 
+        requireProductAndQuantity(transactionRequest);
         Long productId = transactionRequest.getProductId();
         Integer quantity = transactionRequest.getQuantity();
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
         User user = userService.getCurrentLoggedInUser();
 
-        // update stock then save
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
-
-        // create transaction
-        Transaction transaction = Transaction.builder()
-                .transactionType(TransactionType.SALE)
-                .status(TransactionStatus.COMPLETED)
-                .product(product)
-                .user(user)
-                .totalProducts(quantity)
-                .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)))
-                .description(transactionRequest.getDescription())
-                .build();
-
-        transactionRepository.save(transaction);
+        // fails with InsufficientStockException instead of going negative
+        stockCommandDispatcher.execute(new StockCommand(TransactionType.SALE, productId, quantity,
+                user, null, transactionRequest.getDescription()));
 
         return Response.builder()
                 .status(200)
@@ -120,6 +124,7 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     public Response returnToSupplier(TransactionRequest transactionRequest) {
 
+        requireProductAndQuantity(transactionRequest);
         Long productId = transactionRequest.getProductId();
         Long supplierId = transactionRequest.getSupplierId();
         Integer quantity = transactionRequest.getQuantity();
@@ -128,66 +133,245 @@ public class TransactionServiceImpl implements TransactionService {
             throw new NameValueRequiredException("Supplier Id id Required");
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
         Supplier supplier = supplierRepository.findById(supplierId)
                 .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
         User user = userService.getCurrentLoggedInUser();
 
-        // update stock then save
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+        // fails with InsufficientStockException instead of going negative
+        stockCommandDispatcher.execute(new StockCommand(TransactionType.RETURN_TO_SUPPLIER, productId, quantity,
+                user, supplier, transactionRequest.getDescription()));
+
+        return Response.builder()
+                .status(200)
+                .message("Transaction Returned Successfully Initialized")
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public Response processBatch(List<TransactionRequest> transactionRequests) {
+
+        if (transactionRequests == null || transactionRequests.isEmpty()) {
+            throw new NameValueRequiredException("At least one transaction is required");
+        }
+        if (transactionRequests.size() > MAX_BATCH_SIZE) {
+            throw new NameValueRequiredException("A batch cannot contain more than " + MAX_BATCH_SIZE + " transactions");
+        }
+
+        User user = userService.getCurrentLoggedInUser();
+
+        // resolve every referenced product (row-locked) and supplier in one query each
+        Map<Long, Product> products = productRepository.findAllByIdForUpdate(
+                        transactionRequests.stream()
+                                .map(TransactionRequest::getProductId)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, Supplier> suppliers = supplierRepository.findAllById(
+                        transactionRequests.stream()
+                                .map(TransactionRequest::getSupplierId)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+
+        List<TransactionBatchResult> results = new ArrayList<>(transactionRequests.size());
+        List<Transaction> transactions = new ArrayList<>(transactionRequests.size());
+        List<TransactionBatchResult> acceptedResults = new ArrayList<>(transactionRequests.size());
+
+        for (int i = 0; i < transactionRequests.size(); i++) {
+            TransactionRequest line = transactionRequests.get(i);
+            TransactionBatchResult result = new TransactionBatchResult(i, 200, "success", null);
+            results.add(result);
+
+            String error = validateBatchLine(line);
+            if (error != null) {
+                result.setStatus(400);
+                result.setMessage(error);
+                continue;
+            }
+
+            Product product = products.get(line.getProductId());
+            if (product == null) {
+                result.setStatus(404);
+                result.setMessage("Product Not Found");
+                continue;
+            }
+
+            Supplier supplier = null;
+            if (line.getTransactionType() != TransactionType.SALE) {
+                supplier = suppliers.get(line.getSupplierId());
+                if (supplier == null) {
+                    result.setStatus(404);
+                    result.setMessage("Supplier Not Found");
+                    continue;
+                }
+            }
+
+            // stock deltas are applied on the locked, managed rows and flushed as one JDBC batch
+            int quantity = line.getQuantity();
+            if (line.getTransactionType() == TransactionType.PURCHASE) {
+                product.setStockQuantity(product.getStockQuantity() + quantity);
+            } else if (product.getStockQuantity() >= quantity) {
+                product.setStockQuantity(product.getStockQuantity() - quantity);
+            } else {
+                transactionMetrics.recordInsufficientBatchLine();
+                result.setStatus(409);
+                result.setMessage("Insufficient stock for product " + product.getName()
+                        + " (requested: " + quantity + ", available: " + product.getStockQuantity() + ")");
+                continue;
+            }
+
+            transactions.add(buildTransaction(line, product, supplier, user));
+            acceptedResults.add(result);
+        }
+
+        // inserts are grouped into JDBC batches (hibernate.jdbc.batch_size)
+        transactionRepository.saveAll(transactions);
+        transactionRepository.flush();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            acceptedResults.get(i).setTransactionId(transactions.get(i).getId());
+            eventPublisher.publishEvent(TransactionRecordedEvent.of(transactions.get(i)));
+        }
+
+        int failed = transactionRequests.size() - transactions.size();
+
+        return Response.builder()
+                .status(200)
+                .message("Batch processed: " + transactions.size() + " succeeded, " + failed + " failed")
+                .batchResults(results)
+                .build();
+    }
+
+    private String validateBatchLine(TransactionRequest line) {
+        if (line == null) {
+            return "Transaction is required";
+        }
+        if (line.getTransactionType() == null) {
+            return "Transaction type is required";
+        }
+        if (line.getProductId() == null || line.getProductId() <= 0) {
+            return "Product id is required";
+        }
+        if (line.getQuantity() == null || line.getQuantity() <= 0) {
+            return "Quantity is required";
+        }
+        if (line.getTransactionType() != TransactionType.SALE && line.getSupplierId() == null) {
+            return "Supplier Id id Required";
+        }
+        return null;
+    }
+
+    // @Positive lets a missing value through, the stock command needs both
+    private static void requireProductAndQuantity(TransactionRequest request) {
+        if (request.getProductId() == null) {
+            throw new NameValueRequiredException("Product id is required");
+        }
+        if (request.getQuantity() == null) {
+            throw new NameValueRequiredException("Quantity is required");
+        }
+    }
 
-        // create transaction
-        Transaction transaction = Transaction.builder()
-                .transactionType(TransactionType.RETURN_TO_SUPPLIER)
-                .status(TransactionStatus.PROCESSING)
+    // Same ledger values as the single-call endpoints for each type
+    private Transaction buildTransaction(TransactionRequest line, Product product, Supplier supplier, User user) {
+        TransactionType type = line.getTransactionType();
+        BigDecimal totalPrice = type == TransactionType.RETURN_TO_SUPPLIER
+                ? BigDecimal.ZERO
+                : product.getPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+        TransactionStatus status = type == TransactionType.RETURN_TO_SUPPLIER
+                ? TransactionStatus.PROCESSING
+                : TransactionStatus.COMPLETED;
+
+        return Transaction.builder()
+                .transactionType(type)
+                .status(status)
                 .product(product)
                 .user(user)
                 .supplier(supplier)
-                .totalProducts(quantity)
-                .totalPrice(BigDecimal.ZERO)
-                .description(transactionRequest.getDescription())
+                .totalProducts(line.getQuantity())
+                .totalPrice(totalPrice)
+                .description(line.getDescription())
                 .build();
+    }
+
+    @Override
+    public Response getAllTransactions(int page, int size, String searchText) {
+        if (isIndexedSearch(searchText)) {
+            // ranked lookup in the in-memory index, then load only the rows of the page
+            SearchHits hits = searchIndexer.search(searchText, page * size, size);
+
+            return Response.builder()
+                    .status(200)
+                    .message("success")
+                    .transactions(findAllInOrder(hits.ids()))
+                    .totalElements(hits.total())
+                    .totalPages((int) ((hits.total() + size - 1) / size))
+                    .build();
+        }
 
-        transactionRepository.save(transaction);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+        Page<TransactionDTO> transactionPage = transactionRepository.searchTransactions(searchText, pageable);
 
         return Response.builder()
                 .status(200)
-                .message("Transaction Returned Successfully Initialized")
+                .message("success")
+                .transactions(transactionPage.getContent())
                 .build();
     }
 
     @Override
-    public Response getAllTransactions(int page, int size, String searchText) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
-        Page<Transaction> transactionPage = transactionRepository.searchTransactions(searchText, pageable);
+    public Response getTransactionsAfter(String cursor, int limit, String searchText) {
+        Long afterId = KeysetCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+
+        long beforeId = afterId == null ? Long.MAX_VALUE : afterId;
+
+        // fetch one extra row to know whether another page exists
+        List<TransactionDTO> transactionDTOS;
+        if (isIndexedSearch(searchText)) {
+            transactionDTOS = findAllInOrder(searchIndexer.searchBefore(searchText, beforeId, pageSize + 1));
+        } else {
+            transactionDTOS = transactionRepository.searchTransactionsBefore(beforeId, searchText, Limit.of(pageSize + 1));
+        }
 
-        // Map safely with the configured type map (nested fields skipped)
-        List<TransactionDTO> transactionDTOS = transactionPage.getContent().stream()
-                .map(t -> modelMapper.map(t, TransactionDTO.class))
-                .toList();
+        boolean hasMore = transactionDTOS.size() > pageSize;
+        if (hasMore) {
+            transactionDTOS = transactionDTOS.subList(0, pageSize);
+        }
 
         return Response.builder()
                 .status(200)
                 .message("success")
                 .transactions(transactionDTOS)
+                .nextCursor(hasMore ? KeysetCursor.encode(transactionDTOS.get(pageSize - 1).getId()) : null)
                 .build();
     }
 
+    private boolean isIndexedSearch(String searchText) {
+        return searchText != null && !searchText.isBlank() && searchIndexer.isReady();
+    }
+
+    // Loads the given ids in one query and keeps the order decided by the index
+    private List<TransactionDTO> findAllInOrder(List<Long> ids) {
+        Map<Long, TransactionDTO> byId = transactionRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(TransactionDTO::getId, Function.identity()));
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     public Response getTransactionById(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
+        TransactionDTO transactionDTO = transactionRepository.findDtoById(id)
+                .or(() -> transactionArchive.findById(id).map(ArchivedTransaction::toDto))
                 .orElseThrow(() -> new NotFoundException("Transaction Not Found"));
 
-        TransactionDTO transactionDTO = modelMapper.map(transaction, TransactionDTO.class);
-        // remove circular data if needed
-        if (transactionDTO.getUser() != null) {
-            transactionDTO.getUser().setTransactions(null);
-        }
-
         return Response.builder()
                 .status(200)
                 .message("success")
@@ -197,17 +381,72 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public Response getAllTransactionByMonthAndYear(int month, int year) {
-        List<Transaction> transactions = transactionRepository.findAllByMonthAndYear(month, year);
+        return getAllTransactionByMonthAndYear(month, year, null, null, null, null);
+    }
 
-        // Map safely with the configured type map (nested fields skipped)
-        List<TransactionDTO> transactionDTOS = transactions.stream()
-                .map(t -> modelMapper.map(t, TransactionDTO.class))
-                .toList();
+    @Override
+    public Response getAllTransactionByMonthAndYear(int month, int year, TransactionType type, TransactionStatus status,
+                                                    Integer page, Integer size) {
+        if (month < 1 || month > 12) {
+            throw new NameValueRequiredException("Month must be between 1 and 12");
+        }
+
+        LocalDateTime from = LocalDate.of(year, month, 1).atStartOfDay();
+        LocalDateTime to = from.plusMonths(1);
+
+        if (transactionArchive.covers(from)) {
+            return getArchivedMonth(from, to, type, status, page, size);
+        }
+
+        // Slice: no COUNT query, hasNext tells the client whether to ask for another page
+        Pageable pageable = page == null || size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_LIMIT)));
+        Slice<TransactionDTO> transactions = transactionRepository.findAllCreatedBetween(from, to, type, status, pageable);
 
         return Response.builder()
                 .status(200)
                 .message("success")
-                .transactions(transactionDTOS)
+                .transactions(transactions.getContent())
+                .hasNext(pageable.isPaged() ? transactions.hasNext() : null)
+                .build();
+    }
+
+    // Archived month: segment and leftover table rows merged in (created_at, id) order; a page skips the rows before
+    // it and stops one row past it, only the page is kept
+    private Response getArchivedMonth(LocalDateTime from, LocalDateTime to, TransactionType type,
+                                      TransactionStatus status, Integer page, Integer size) {
+        List<TransactionDTO> transactions = new ArrayList<>();
+        if (page == null || size == null) {
+            transactionArchive.forEach(from, to, type, status, row -> transactions.add(row.toDto()));
+            return Response.builder()
+                    .status(200)
+                    .message("success")
+                    .transactions(transactions)
+                    .build();
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_LIMIT));
+        long skip = (long) page * pageSize;
+        long[] seen = new long[1];
+        boolean[] hasNext = new boolean[1];
+        transactionArchive.forEachWhile(from, to, type, status, row -> {
+            if (seen[0]++ < skip) {
+                return true;
+            }
+            if (transactions.size() < pageSize) {
+                transactions.add(row.toDto());
+                return true;
+            }
+            hasNext[0] = true;
+            return false;
+        });
+
+        return Response.builder()
+                .status(200)
+                .message("success")
+                .transactions(transactions)
+                .hasNext(hasNext[0])
                 .build();
     }
 
@@ -217,14 +456,148 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction existingTransaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new NotFoundException("Transaction Not Found"));
 
+        TransactionStatus previousStatus = existingTransaction.getStatus();
         existingTransaction.setStatus(transactionStatus);
         existingTransaction.setUpdatedAt(LocalDateTime.now());
 
         transactionRepository.save(existingTransaction);
+        eventPublisher.publishEvent(new TransactionStatusChangedEvent(transactionId, previousStatus, transactionStatus));
 
         return Response.builder()
                 .status(200)
                 .message("Transaction Status Successfully Updated")
                 .build();
     }
+
+    @Override
+    public Response archiveTransactions() {
+        long archived = transactionArchive.archive();
+
+        return Response.builder()
+                .status(200)
+                .message(archived + " Transactions Archived")
+                .archive(transactionArchive.stats())
+                .build();
+    }
+
+    // Not transactional: each chunk commits on its own, so locks are held for one chunk and a failure keeps the earlier ones
+    @Override
+    public Response updateTransactionStatuses(TransactionStatusBulkRequest request) {
+        TransactionStatus target = request.getStatus();
+        if (target == null) {
+            throw new NameValueRequiredException("Target status is required");
+        }
+
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getType() != null || request.getCurrentStatus() != null
+                || request.getSupplierId() != null || request.getFrom() != null || request.getTo() != null;
+        if (byIds == byFilter) {
+            throw new NameValueRequiredException("Either transaction ids or at least one filter is required, not both");
+        }
+        if (byIds && request.getIds().size() > MAX_STATUS_IDS) {
+            throw new NameValueRequiredException("At most " + MAX_STATUS_IDS + " transaction ids can be updated at once");
+        }
+        if (request.getCurrentStatus() != null && !request.getCurrentStatus().canMoveTo(target)) {
+            throw new NameValueRequiredException("Transactions cannot move from " + request.getCurrentStatus() + " to " + target);
+        }
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo())) {
+            throw new NameValueRequiredException("The from date must be before the to date");
+        }
+
+        Set<TransactionStatus> sources = request.getCurrentStatus() != null
+                ? Set.of(request.getCurrentStatus())
+                : TransactionStatus.sourcesOf(target);
+        if (sources.isEmpty()) {
+            throw new NameValueRequiredException("No transaction can move to " + target);
+        }
+
+        long begin = System.nanoTime();
+        TransactionStatusBulkResult result = byIds
+                ? updateStatusesByIds(request.getIds(), sources, target)
+                : updateStatusesByFilter(request, sources, target);
+        result.setElapsedMillis((System.nanoTime() - begin) / 1_000_000);
+
+        log.info("Bulk status change to {}: {} updated, {} skipped in {} chunks ({} ms)",
+                target, result.getUpdated(), result.getSkipped(), result.getChunks(), result.getElapsedMillis());
+
+        return Response.builder()
+                .status(200)
+                .message("Transaction Statuses Successfully Updated")
+                .bulkStatusResult(result)
+                .build();
+    }
+
+    private TransactionStatusBulkResult updateStatusesByIds(List<Long> requestedIds, Set<TransactionStatus> sources,
+                                                            TransactionStatus target) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(requestedIds));
+        ids.removeIf(Objects::isNull);
+
+        long found = 0;
+        long updated = 0;
+        int chunks = 0;
+        for (int start = 0; start < ids.size(); start += STATUS_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + STATUS_CHUNK_SIZE, ids.size()));
+            found += transactionRepository.countByIdIn(chunk);
+            updated += updateStatusChunk(repository -> repository.findIdsInStatus(chunk, sources), sources, target)
+                    .updated();
+            chunks++;
+        }
+
+        return TransactionStatusBulkResult.builder()
+                .updated(updated)
+                .skipped(found - updated)
+                .notFound(ids.size() - found)
+                .chunks(chunks)
+                .build();
+    }
+
+    private TransactionStatusBulkResult updateStatusesByFilter(TransactionStatusBulkRequest request,
+                                                               Set<TransactionStatus> sources, TransactionStatus target) {
+        LocalDateTime from = request.getFrom() == null ? null : request.getFrom().atStartOfDay();
+        LocalDateTime to = request.getTo() == null ? null : request.getTo().atStartOfDay();
+
+        // with a current status the filter already excludes everything else; without one, count what stays behind
+        long skipped = request.getCurrentStatus() != null ? 0 : transactionRepository.countNotInStatus(
+                sources, request.getType(), request.getSupplierId(), from, to);
+
+        long updated = 0;
+        int chunks = 0;
+        long afterId = 0;
+        while (true) {
+            // keyset walk over the movable rows: each chunk is found through idx_transactions_status, whatever the offset
+            long cursor = afterId;
+            StatusChunk chunk = updateStatusChunk(repository -> repository.findIdsForStatusChange(cursor, sources,
+                    request.getType(), request.getSupplierId(), from, to, Limit.of(STATUS_CHUNK_SIZE)), sources, target);
+            if (chunk.ids().isEmpty()) {
+                break;
+            }
+            updated += chunk.updated();
+            chunks++;
+            afterId = chunk.ids().get(chunk.ids().size() - 1);
+        }
+
+        return TransactionStatusBulkResult.builder()
+                .updated(updated)
+                .skipped(skipped)
+                .chunks(chunks)
+                .build();
+    }
+
+    // Selects a chunk and moves it with one UPDATE ... WHERE id IN (...) in its own transaction; the index follows after commit
+    private StatusChunk updateStatusChunk(Function<TransactionRepository, List<Long>> candidates,
+                                          Set<TransactionStatus> sources, TransactionStatus target) {
+        StatusChunk chunk = transactionTemplate.execute(status -> {
+            List<Long> ids = candidates.apply(transactionRepository);
+            if (ids.isEmpty()) {
+                return new StatusChunk(ids, 0);
+            }
+            int rows = transactionRepository.updateStatusByIdIn(ids, sources, target, LocalDateTime.now());
+            eventPublisher.publishEvent(new TransactionStatusBulkChangedEvent(List.copyOf(ids), target));
+            return new StatusChunk(ids, rows);
+        });
+        return Objects.requireNonNull(chunk);
+    }
+
+    private record StatusChunk(List<Long> ids, int updated) {
+    }
 }
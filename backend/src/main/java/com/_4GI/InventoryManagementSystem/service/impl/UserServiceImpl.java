@@ -1,26 +1,40 @@
 package com._4GI.InventoryManagementSystem.service.impl;
 
+import com._4GI.InventoryManagementSystem.archive.ArchivedTransaction;
+import com._4GI.InventoryManagementSystem.archive.TransactionArchive;
 import com._4GI.InventoryManagementSystem.dto.LoginRequest;
 import com._4GI.InventoryManagementSystem.dto.RegisterRequest;
 import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
 import com._4GI.InventoryManagementSystem.dto.UserDTO;
+import com._4GI.InventoryManagementSystem.dto.UserTransactionSummaryDTO;
 import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
 import com._4GI.InventoryManagementSystem.enums.UserRole;
 import com._4GI.InventoryManagementSystem.exceptions.InvalidCredentialsException;
 import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.exceptions.ServiceBusyException;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
 import com._4GI.InventoryManagementSystem.repository.UserRepository;
+import com._4GI.InventoryManagementSystem.security.CurrentUserResolver;
 import com._4GI.InventoryManagementSystem.security.JwtUtils;
+import com._4GI.InventoryManagementSystem.security.PasswordHasher;
+import com._4GI.InventoryManagementSystem.security.PrincipalCache;
+import com._4GI.InventoryManagementSystem.security.TokenRevocations;
 import com._4GI.InventoryManagementSystem.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 
 @Service
@@ -28,10 +42,17 @@ import java.util.List;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_LIMIT = 500;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final TransactionRepository transactionRepository;
+    // BCrypt runs on the bounded hashing pool, not on the request thread
+    private final PasswordHasher passwordHasher;
     private final JwtUtils jwtUtils;
+    private final CurrentUserResolver currentUserResolver;
+    private final PrincipalCache principalCache;
+    private final TokenRevocations tokenRevocations;
+    private final TransactionArchive transactionArchive;
 
     @Override
     public Response registerUser(RegisterRequest registerRequest) {
@@ -45,7 +66,7 @@ public class UserServiceImpl implements UserService {
         User userToSave = User.builder()
                 .name(registerRequest.getName())
                 .email(registerRequest.getEmail())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(passwordHasher.encode(registerRequest.getPassword()))
                 .phoneNumber(registerRequest.getPhoneNumber())
                 .role(role)
                 .build();
@@ -63,9 +84,10 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> new InvalidCredentialsException("Email or password is incorrect !!"));
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Email or password is incorrect!");
         }
+        rehashIfNeeded(user, loginRequest.getPassword());
 
         String token = jwtUtils.generateToken(user);
 
@@ -78,13 +100,35 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    // The cost factor changed since the hash was made: the password is at hand, store it at the configured cost
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            userRepository.save(user);
+            principalCache.invalidate(user.getEmail());
+        } catch (ServiceBusyException e) {
+            // the login itself succeeded, the next one upgrades the hash
+            log.debug("Rehash of user {} deferred: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public Response logoutUser(String token) {
+        // an invalid or expired token throws like it does in AuthFilter
+        tokenRevocations.revokeToken(jwtUtils.verify(token));
+
+        return Response.builder()
+                .status(200)
+                .message("User logged out successfully")
+                .build();
+    }
+
     @Override
     public Response getAllUsers() {
-        List<User> users = userRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        List<UserDTO> userDTOS = users.stream()
-                .map(u -> modelMapper.map(u, UserDTO.class))
-                .peek(uDto -> uDto.setTransactions(null))
-                .toList();
+        List<UserDTO> userDTOS = userRepository.findAllDtos();
 
         return Response.builder()
                 .status(200)
@@ -95,16 +139,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getCurrentLoggedInUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        String email = authentication.getName();
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User Not Found"));
-
-        user.setTransactions(null);
-
-        return user;
+        // the principal AuthFilter loaded, no second query by email; shared through PrincipalCache, so read-only
+        return currentUserResolver.resolve();
     }
 
     @Override
@@ -112,6 +148,9 @@ public class UserServiceImpl implements UserService {
 
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
+        String previousEmail = existingUser.getEmail();
+        UserRole previousRole = existingUser.getRole();
+        String previousPassword = existingUser.getPassword();
 
         if (userDTO.getEmail() != null) {
             existingUser.setEmail(userDTO.getEmail());
@@ -128,10 +167,17 @@ public class UserServiceImpl implements UserService {
 
         // Update password only if a new one is provided and store it in the password field
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
-            existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            existingUser.setPassword(passwordHasher.encode(userDTO.getPassword()));
         }
 
         userRepository.save(existingUser);
+        // role, email or password changed: the next request reloads the user
+        principalCache.invalidate(previousEmail, existingUser.getEmail());
+        // and the tokens issued until now, carrying the former role or email, stop working
+        if (!previousEmail.equals(existingUser.getEmail()) || previousRole != existingUser.getRole()
+                || !previousPassword.equals(existingUser.getPassword())) {
+            tokenRevocations.revokeUser(previousEmail);
+        }
 
         return Response.builder()
                 .status(200)
@@ -142,9 +188,11 @@ public class UserServiceImpl implements UserService {
     @Override
     public Response deleteUser(Long id) {
 
-        userRepository.findById(id)
+        User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
         userRepository.deleteById(id);
+        principalCache.invalidate(user.getEmail());
+        tokenRevocations.revokeUser(user.getEmail());
 
         return Response.builder()
                 .status(200)
@@ -153,21 +201,81 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Response getUserTransactions(Long id) {
+    @Transactional(readOnly = true)
+    public Response getUserTransactions(Long id, LocalDate from, LocalDate to, TransactionType type,
+                                        String cursor, int limit) {
+        KeysetCursor.Position position = KeysetCursor.decodePosition(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        LocalDateTime fromTime = from == null ? null : from.atStartOfDay();
+        LocalDateTime toTime = to == null ? null : to.atStartOfDay();
+
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        // rows created before archivedBefore are read from the archive, which merges those still in the table
+        LocalDateTime archivedBefore = transactionArchive.covers(fromTime) ? transactionArchive.archivedBefore() : null;
+        LocalDateTime liveFrom = archivedBefore != null && (fromTime == null || fromTime.isBefore(archivedBefore))
+                ? archivedBefore : fromTime;
+        LocalDateTime beforeAt = position == null ? null : position.createdAt();
+        Long beforeId = position == null ? null : position.id();
+
+        // one page through idx_transactions_user_created_at instead of the whole user.transactions collection,
+        // plus one extra row to know whether another page exists
+        List<TransactionDTO> transactions = transactionRepository.findUserTransactionsBefore(id, liveFrom, toTime, type,
+                beforeAt, beforeId, Limit.of(pageSize + 1));
+
+        if (archivedBefore != null && transactions.size() <= pageSize) {
+            // the page reaches past the live rows: continue in the archived months, newest first
+            transactions = new ArrayList<>(transactions);
+            for (ArchivedTransaction row : transactionArchive.findNewestBefore(id, fromTime, toTime, type,
+                    beforeAt, beforeId, pageSize + 1 - transactions.size())) {
+                transactions.add(row.toDto());
+            }
+        }
 
-        userDTO.getTransactions().forEach(transactionDTO -> {
-            transactionDTO.setUser(null);
-            transactionDTO.setSupplier(null);
-        });
+        boolean hasMore = transactions.size() > pageSize;
+        if (hasMore) {
+            transactions = transactions.subList(0, pageSize);
+        }
+        TransactionDTO last = transactions.isEmpty() ? null : transactions.get(transactions.size() - 1);
 
         return Response.builder()
                 .status(200)
                 .message("success")
-                .user(userDTO)
+                .user(UserDTO.fromEntity(user))
+                .transactions(transactions)
+                .nextCursor(hasMore ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null)
+                // the aggregate query (and archive summary) runs once, for the first page
+                .userTransactionSummary(position == null
+                        ? summarize(id, fromTime, liveFrom, toTime, type, archivedBefore != null) : null)
+                .build();
+    }
+
+    private UserTransactionSummaryDTO summarize(Long userId, LocalDateTime from, LocalDateTime liveFrom,
+                                                LocalDateTime to, TransactionType type, boolean archived) {
+        // by type name, the order of the GROUP BY over the STRING column
+        Map<String, TransactionTypeTotalsDTO> totals = new TreeMap<>();
+        for (TransactionTypeTotalsDTO live : transactionRepository.summarizeUserTransactions(userId, liveFrom, to, type)) {
+            totals.put(live.getTransactionType().name(), live);
+        }
+        if (archived) {
+            // from the segment headers, see TransactionArchive.summarizeUser
+            transactionArchive.summarizeUser(userId, from, to, type).forEach((transactionType, archivedTotals) -> {
+                TransactionTypeTotalsDTO typeTotals = totals.computeIfAbsent(transactionType.name(),
+                        name -> new TransactionTypeTotalsDTO(transactionType, 0, 0, BigDecimal.ZERO));
+                typeTotals.setCount(typeTotals.getCount() + archivedTotals.getCount());
+                typeTotals.setTotalProducts(typeTotals.getTotalProducts() + archivedTotals.getTotalProducts());
+                typeTotals.setTotalPrice(typeTotals.getTotalPrice().add(archivedTotals.getTotalPrice()));
+            });
+        }
+        List<TransactionTypeTotalsDTO> byType = List.copyOf(totals.values());
+
+        return UserTransactionSummaryDTO.builder()
+                .count(byType.stream().mapToLong(TransactionTypeTotalsDTO::getCount).sum())
+                .totalProducts(byType.stream().mapToLong(TransactionTypeTotalsDTO::getTotalProducts).sum())
+                .totalPrice(byType.stream().map(TransactionTypeTotalsDTO::getTotalPrice)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add))
+                .byType(byType)
                 .build();
     }
 }
@@ -0,0 +1,75 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Event counts over the last {@code slots} time buckets of {@code bucketMillis} each.
+ * <p>
+ * Each slot packs the bucket number (high bits) and its count (low {@value #COUNT_BITS} bits) in one long,
+ * so recording is a single CAS and a slot left over from an older lap is reset in the same step.
+ */
+public class ActivityRing {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+
+    public ActivityRing(int slots, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.slots = new AtomicLongArray(slots);
+    }
+
+    public void record(long epochMillis) {
+        long bucket = epochMillis / bucketMillis;
+        int slot = (int) (bucket % slots.length());
+        while (true) {
+            long current = slots.get(slot);
+            long currentBucket = current >>> COUNT_BITS;
+            long next;
+            if (currentBucket == bucket) {
+                // saturates instead of overflowing into the bucket bits
+                next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+            } else if (currentBucket < bucket) {
+                next = (bucket << COUNT_BITS) | 1;
+            } else {
+                // older than the whole window
+                return;
+            }
+            if (slots.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts of the buckets ending with the one containing {@code nowMillis}, oldest first.
+     */
+    public long[] snapshot(long nowMillis) {
+        int length = slots.length();
+        long newest = nowMillis / bucketMillis;
+        long[] counts = new long[length];
+        for (int i = 0; i < length; i++) {
+            long bucket = newest - length + 1 + i;
+            if (bucket < 0) {
+                continue;
+            }
+            long value = slots.get((int) (bucket % length));
+            if (value >>> COUNT_BITS == bucket) {
+                counts[i] = value & COUNT_MASK;
+            }
+        }
+        return counts;
+    }
+
+    // start (epoch millis) of the oldest bucket returned by snapshot(nowMillis)
+    public long windowStart(long nowMillis) {
+        return (nowMillis / bucketMillis - slots.length() + 1) * bucketMillis;
+    }
+
+    public long bucketMillis() {
+        return bucketMillis;
+    }
+}
@@ -0,0 +1,171 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import com._4GI.InventoryManagementSystem.archive.TransactionArchive;
+import com._4GI.InventoryManagementSystem.dto.DashboardStatsDTO;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.event.ProductChangedEvent;
+import com._4GI.InventoryManagementSystem.event.TransactionRecordedEvent;
+import com._4GI.InventoryManagementSystem.repository.ProductRepository;
+import com._4GI.InventoryManagementSystem.repository.SupplierRepository;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import com._4GI.InventoryManagementSystem.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Rolling dashboard aggregates kept in memory, so the dashboard never reads the ledger:
+ * <ul>
+ *   <li>all-time transaction counters per type;</li>
+ *   <li>per-second (last minute) and per-minute (last hour) activity rings;</li>
+ *   <li>a distinct-user sketch over the last {@value #ACTIVE_USERS_MINUTES} minutes;</li>
+ *   <li>user/product/supplier counts, refreshed on product changes and periodically.</li>
+ * </ul>
+ * Seeded from the database at startup, then fed by the after-commit events of the transaction service.
+ * Writes of other instances only show up in the counters after a restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsAggregator {
+
+    static final int ACTIVE_USERS_MINUTES = 10;
+    private static final int SECONDS = 60;
+    private static final int MINUTES = 60;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final ProductRepository productRepository;
+    private final SupplierRepository supplierRepository;
+    private final UserRepository userRepository;
+
+    private final Map<TransactionType, LongAdder> byType = new EnumMap<>(TransactionType.class);
+    private volatile ActivityRing perSecond = new ActivityRing(SECONDS, 1_000);
+    private volatile ActivityRing perMinute = new ActivityRing(MINUTES, 60_000);
+    private volatile DistinctSketch activeUsers = new DistinctSketch(ACTIVE_USERS_MINUTES, 60_000);
+
+    private volatile long totalUsers;
+    private volatile long totalProducts;
+    private volatile long totalSuppliers;
+
+    {
+        for (TransactionType type : TransactionType.values()) {
+            byType.put(type, new LongAdder());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every aggregate from the database (plus the archive headers): one grouped count plus the rows of the last hour.
+     */
+    public synchronized void rebuild() {
+        long begin = System.nanoTime();
+
+        byType.values().forEach(LongAdder::reset);
+        for (TransactionTypeCount count : transactionRepository.countByTransactionType()) {
+            if (count.getTransactionType() != null) {
+                byType.get(count.getTransactionType()).add(count.getTotal());
+            }
+        }
+        // archived rows left the table but still count, straight from the segment headers
+        transactionArchive.countByType().forEach((type, count) -> byType.get(type).add(count));
+
+        ActivityRing seconds = new ActivityRing(SECONDS, 1_000);
+        ActivityRing minutes = new ActivityRing(MINUTES, 60_000);
+        DistinctSketch users = new DistinctSketch(ACTIVE_USERS_MINUTES, 60_000);
+        for (TransactionActivityRow row : transactionRepository.findActivitySince(LocalDateTime.now().minusMinutes(MINUTES))) {
+            long millis = toEpochMillis(row.getCreatedAt());
+            seconds.record(millis);
+            minutes.record(millis);
+            if (row.getUserId() != null) {
+                users.add(row.getUserId(), millis);
+            }
+        }
+        perSecond = seconds;
+        perMinute = minutes;
+        activeUsers = users;
+
+        refreshEntityCounts();
+        log.info("Dashboard statistics loaded in {} ms", (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${ims.stats.entity-refresh-interval-ms:60000}")
+    public void refreshEntityCounts() {
+        totalUsers = userRepository.count();
+        totalProducts = productRepository.count();
+        totalSuppliers = supplierRepository.count();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        if (event.transactionType() != null) {
+            byType.get(event.transactionType()).increment();
+        }
+        long millis = toEpochMillis(event.createdAt());
+        perSecond.record(millis);
+        perMinute.record(millis);
+        if (event.userId() != null) {
+            activeUsers.add(event.userId(), millis);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        totalProducts = productRepository.count();
+    }
+
+    public DashboardStatsDTO snapshot() {
+        long now = System.currentTimeMillis();
+
+        Map<TransactionType, Long> counts = new EnumMap<>(TransactionType.class);
+        long total = 0;
+        for (Map.Entry<TransactionType, LongAdder> entry : byType.entrySet()) {
+            long count = entry.getValue().sum();
+            counts.put(entry.getKey(), count);
+            total += count;
+        }
+
+        return DashboardStatsDTO.builder()
+                .totalUsers(totalUsers)
+                .totalProducts(totalProducts)
+                .totalSuppliers(totalSuppliers)
+                .totalTransactions(total)
+                .transactionsByType(counts)
+                .activeUsers(activeUsers.estimate(now))
+                .activeUsersWindowMinutes(ACTIVE_USERS_MINUTES)
+                .perSecond(points(perSecond, now))
+                .perMinute(points(perMinute, now))
+                .build();
+    }
+
+    private static List<DashboardStatsDTO.ActivityPoint> points(ActivityRing ring, long now) {
+        long[] counts = ring.snapshot(now);
+        long start = ring.windowStart(now);
+        List<DashboardStatsDTO.ActivityPoint> points = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            points.add(new DashboardStatsDTO.ActivityPoint(start + i * ring.bucketMillis(), counts[i]));
+        }
+        return points;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,108 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Approximate number of distinct values seen over a sliding window of time buckets.
+ * <p>
+ * One HyperLogLog (2^{@value #PRECISION} one-byte registers, ~3% standard error, exact-ish through linear
+ * counting for small cardinalities) per bucket; the window estimate merges the registers of the live buckets.
+ */
+public class DistinctSketch {
+
+    private static final int PRECISION = 10;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private static final class Bucket {
+        final long number;
+        final byte[] registers = new byte[REGISTERS];
+
+        Bucket(long number) {
+            this.number = number;
+        }
+    }
+
+    public DistinctSketch(int slots, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new AtomicReferenceArray<>(slots);
+    }
+
+    public void add(long value, long epochMillis) {
+        long number = epochMillis / bucketMillis;
+        int slot = (int) (number % buckets.length());
+
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.number < number) {
+            Bucket fresh = new Bucket(number);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(slot);
+            }
+        }
+        if (bucket.number != number) {
+            // older than the whole window
+            return;
+        }
+
+        long hash = mix(value);
+        int register = (int) (hash >>> (64 - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros(hash << PRECISION | (1L << (PRECISION - 1))) + 1);
+        // registers only grow, a racing writer losing its update to a larger rank changes nothing
+        synchronized (bucket) {
+            if (bucket.registers[register] < rank) {
+                bucket.registers[register] = rank;
+            }
+        }
+    }
+
+    /**
+     * Estimated distinct values over the buckets ending with the one containing {@code nowMillis}.
+     */
+    public long estimate(long nowMillis) {
+        long newest = nowMillis / bucketMillis;
+        long oldest = newest - buckets.length() + 1;
+        byte[] merged = new byte[REGISTERS];
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket == null || bucket.number < oldest || bucket.number > newest) {
+                continue;
+            }
+            synchronized (bucket) {
+                for (int i = 0; i < REGISTERS; i++) {
+                    if (bucket.registers[i] > merged[i]) {
+                        merged[i] = bucket.registers[i];
+                    }
+                }
+            }
+        }
+
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : merged) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // small range correction
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // SplitMix64 finalizer, spreads sequential ids over all bits
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,10 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import java.time.LocalDateTime;
+
+
+// Columns the dashboard activity windows need from a ledger row
+public interface TransactionActivityRow {
+    LocalDateTime getCreatedAt();
+    Long getUserId();
+}
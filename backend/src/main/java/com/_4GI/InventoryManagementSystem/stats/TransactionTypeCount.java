@@ -0,0 +1,10 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+
+
+// Number of ledger rows of one type, used to seed the dashboard counters
+public interface TransactionTypeCount {
+    TransactionType getTransactionType();
+    long getTotal();
+}
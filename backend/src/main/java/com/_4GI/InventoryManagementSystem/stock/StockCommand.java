@@ -0,0 +1,70 @@
+package com._4GI.InventoryManagementSystem.stock;
+
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * A stock change of the single-call transaction endpoints together with its ledger row, as submitted to the
+ * {@link StockCommandDispatcher}. The result is delivered through {@link #result()} once the change committed.
+ */
+@Getter
+public class StockCommand {
+
+    private final TransactionType transactionType;
+    private final Long productId;
+    private final int quantity;
+    private final User user;
+    private final Supplier supplier;
+    private final String description;
+
+    private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+    // first of the lane (apply) and the caller (give up after its timeout) to claim the command wins
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    public StockCommand(TransactionType transactionType, Long productId, int quantity,
+                        User user, Supplier supplier, String description) {
+        this.transactionType = transactionType;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.user = user;
+        this.supplier = supplier;
+        this.description = description;
+    }
+
+    public CompletableFuture<Transaction> result() {
+        return result;
+    }
+
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    boolean increasesStock() {
+        return transactionType == TransactionType.PURCHASE;
+    }
+
+    // Same ledger values as before the dispatcher: returns are recorded at zero price, pending the supplier
+    Transaction toTransaction(Product product) {
+        boolean isReturn = transactionType == TransactionType.RETURN_TO_SUPPLIER;
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .status(isReturn ? TransactionStatus.PROCESSING : TransactionStatus.COMPLETED)
+                .product(product)
+                .user(user)
+                .supplier(supplier)
+                .totalProducts(quantity)
+                .totalPrice(isReturn ? BigDecimal.ZERO : product.getPrice().multiply(BigDecimal.valueOf(quantity)))
+                .description(description)
+                .build();
+    }
+}
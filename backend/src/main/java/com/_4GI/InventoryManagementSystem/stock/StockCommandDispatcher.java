@@ -0,0 +1,325 @@
+package com._4GI.InventoryManagementSystem.stock;
+
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.event.TransactionRecordedEvent;
+import com._4GI.InventoryManagementSystem.exceptions.InsufficientStockException;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.exceptions.ServiceBusyException;
+import com._4GI.InventoryManagementSystem.ledger.TransactionLedger;
+import com._4GI.InventoryManagementSystem.metrics.TransactionMetrics;
+import com._4GI.InventoryManagementSystem.repository.ProductRepository;
+import com._4GI.InventoryManagementSystem.service.StockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Applies the stock changes of the single-call transaction endpoints.
+ * <p>
+ * With {@code ims.stock.dispatcher.enabled=true} (the default) commands are hashed by product onto
+ * {@code lanes} single-threaded lanes instead of running on the request threads. A lane drains everything queued
+ * (up to {@code max-batch} commands) and applies it in one database transaction:
+ * <ol>
+ *   <li>the products involved are locked in one ordered {@code SELECT ... FOR UPDATE};</li>
+ *   <li>commands are applied in arrival order against the locked stock, each accepted or rejected on its own (a
+ *   ledger out of room included);</li>
+ *   <li>each product gets one UPDATE with its net change, the ledger rows go out as one JDBC batch.</li>
+ * </ol>
+ * A hot product thus becomes a sequential stream of batches on one lane instead of a convoy of request threads,
+ * each holding a connection while waiting on the row lock. Request threads wait on the command's future without
+ * a transaction. Lanes queue at most {@code queue-capacity} commands; beyond that, or when a command is not
+ * picked up within {@code timeout-ms}, the request fails with a 503 and nothing is applied.
+ * <p>
+ * Disabled, each command runs on the calling thread as one conditional delta UPDATE through {@link StockService}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCommandDispatcher {
+
+    private final StockService stockService;
+    private final ProductRepository productRepository;
+    private final TransactionLedger transactionLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionMetrics transactionMetrics;
+
+    @Value("${ims.stock.dispatcher.enabled:true}")
+    private boolean enabled;
+    @Value("${ims.stock.dispatcher.lanes:4}")
+    private int laneCount;
+    @Value("${ims.stock.dispatcher.max-batch:256}")
+    private int maxBatch;
+    @Value("${ims.stock.dispatcher.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${ims.stock.dispatcher.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private Lane[] lanes;
+    private volatile boolean running;
+
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i);
+            lanes[i].thread.start();
+        }
+        log.info("Stock command dispatcher started: {} lanes, batches of up to {} commands", laneCount, maxBatch);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (lanes == null) {
+            return;
+        }
+        // lanes finish what is queued, then exit
+        running = false;
+        for (Lane lane : lanes) {
+            lane.thread.join(timeoutMs);
+        }
+    }
+
+    /**
+     * Applies the command and returns its ledger row, or throws the business exception that rejected it.
+     */
+    public Transaction execute(StockCommand command) {
+        long begin = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            return executeTimed(command);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            transactionMetrics.recordStockMutation(System.nanoTime() - begin, failure);
+        }
+    }
+
+    private Transaction executeTimed(StockCommand command) {
+        if (!enabled) {
+            return transactionTemplate.execute(status -> applyDirect(command));
+        }
+
+        if (!running || !laneFor(command.getProductId()).queue.offer(command)) {
+            throw new ServiceBusyException("Too many stock updates in progress, please retry");
+        }
+        return await(command);
+    }
+
+    private Transaction await(StockCommand command) {
+        try {
+            return outcome(command);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (command.claim()) {
+                // the lane never picked it up and now never will
+                throw new ServiceBusyException("Stock update timed out, please retry");
+            }
+        }
+        // already being applied: its outcome is only a transaction commit away, still waited for within the timeout
+        try {
+            return outcome(command);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ServiceBusyException("Stock update still in progress, check the transactions before retrying");
+        }
+    }
+
+    // The committed ledger row, or the exception the lane rejected the command with
+    private Transaction outcome(StockCommand command) throws TimeoutException, InterruptedException {
+        try {
+            return command.result().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Fixed-point hash spreads sequential product ids over the lanes
+    private Lane laneFor(Long productId) {
+        int hash = (int) ((productId * 0x9E3779B97F4A7C15L) >>> 32);
+        return lanes[Math.floorMod(hash, lanes.length)];
+    }
+
+    private Transaction applyDirect(StockCommand command) {
+        // atomic conditional delta update, committed together with the ledger row
+        Product product = command.increasesStock()
+                ? stockService.increaseStock(command.getProductId(), command.getQuantity())
+                : stockService.decreaseStock(command.getProductId(), command.getQuantity());
+
+        return record(command, product);
+    }
+
+    private Transaction record(StockCommand command, Product product) {
+        Transaction transaction = command.toTransaction(product);
+        transactionLedger.record(transaction);
+        eventPublisher.publishEvent(TransactionRecordedEvent.of(transaction));
+        return transaction;
+    }
+
+    /**
+     * One single-threaded lane: drains its queue and applies each drained group in one transaction.
+     */
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<StockCommand> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+
+        private Lane(int index) {
+            this.thread = new Thread(this, "stock-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<StockCommand> drained = new ArrayList<>(maxBatch);
+            while (running || !queue.isEmpty()) {
+                try {
+                    StockCommand first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    drained.add(first);
+                    queue.drainTo(drained, maxBatch - 1);
+                    applyBatch(drained);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Stock lane {} failed on a batch of {} commands", thread.getName(), drained.size(), e);
+                } finally {
+                    drained.clear();
+                }
+            }
+        }
+
+        private void applyBatch(List<StockCommand> drained) {
+            List<StockCommand> batch = new ArrayList<>(drained.size());
+            for (StockCommand command : drained) {
+                if (command.claim()) {
+                    batch.add(command);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<Object> outcomes;
+            long begin = System.nanoTime();
+            try {
+                outcomes = transactionTemplate.execute(status -> applyInOneTransaction(batch));
+            } catch (RuntimeException e) {
+                // nothing of the batch committed
+                batch.forEach(command -> command.result().completeExceptionally(e));
+                return;
+            } finally {
+                transactionMetrics.recordLaneBatch(batch.size(), System.nanoTime() - begin);
+            }
+
+            commands.add(batch.size());
+            batches.increment();
+            for (int i = 0; i < batch.size(); i++) {
+                Object outcome = outcomes.get(i);
+                if (outcome instanceof Transaction transaction) {
+                    batch.get(i).result().complete(transaction);
+                } else {
+                    batch.get(i).result().completeExceptionally((RuntimeException) outcome);
+                }
+            }
+        }
+
+        // Returns, per command, its ledger row or the exception rejecting it
+        private List<Object> applyInOneTransaction(List<StockCommand> batch) {
+            Map<Long, Product> products = productRepository.findAllByIdForUpdate(
+                            batch.stream().map(StockCommand::getProductId).collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            List<Object> outcomes = new ArrayList<>(batch.size());
+            for (StockCommand command : batch) {
+                Product product = products.get(command.getProductId());
+                int quantity = command.getQuantity();
+
+                if (product == null) {
+                    outcomes.add(new NotFoundException("Product Not Found"));
+                } else if (command.increasesStock()) {
+                    outcomes.add(apply(command, product, quantity));
+                } else if (product.getStockQuantity() >= quantity) {
+                    outcomes.add(apply(command, product, -quantity));
+                } else {
+                    outcomes.add(new InsufficientStockException("Insufficient stock for product " + product.getName()
+                            + " (requested: " + quantity + ", available: " + product.getStockQuantity() + ")"));
+                }
+            }
+            // the managed products are flushed at commit: one UPDATE per product, whatever the number of commands
+            return outcomes;
+        }
+
+        // The ledger row or, when the write-behind ledger has no room left, the rejection of this command alone:
+        // its change is taken back from the locked product before the next command sees it
+        private Object apply(StockCommand command, Product product, int change) {
+            int stock = product.getStockQuantity();
+            product.setStockQuantity(stock + change);
+            try {
+                return record(command, product);
+            } catch (ServiceBusyException e) {
+                product.setStockQuantity(stock);
+                return e;
+            }
+        }
+    }
+
+    // commands applied by the lanes, and the database transactions they took
+    public long appliedCommands() {
+        return commands.sum();
+    }
+
+    public long appliedBatches() {
+        return batches.sum();
+    }
+
+    // commands waiting in the lanes
+    public int queueDepth() {
+        if (lanes == null) {
+            return 0;
+        }
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+}
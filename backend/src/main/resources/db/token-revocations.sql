@@ -0,0 +1,11 @@
+-- Deny-list of bearer tokens, mirrored in memory by TokenRevocations.
+-- Hibernate creates it with ddl-auto=update; run by hand on databases managed without it.
+
+CREATE TABLE token_revocations (
+    id             BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    revocation_key VARCHAR(320) NOT NULL,
+    not_before     DATETIME(6)  NOT NULL,
+    expires_at     DATETIME(6)  NOT NULL
+);
+
+CREATE INDEX idx_token_revocations_expires_at ON token_revocations (expires_at);
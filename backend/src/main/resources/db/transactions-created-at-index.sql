@@ -0,0 +1,4 @@
+-- Index backing the month/year report and created_at range queries.
+-- Hibernate creates it with ddl-auto=update; run by hand on databases managed without it.
+
+CREATE INDEX idx_transactions_created_at ON transactions (created_at);
@@ -0,0 +1,4 @@
+-- Index backing the bulk status endpoint, which walks the rows of a status in primary key order.
+-- Hibernate creates it with ddl-auto=update; run by hand on databases managed without it.
+
+CREATE INDEX idx_transactions_status ON transactions (status);
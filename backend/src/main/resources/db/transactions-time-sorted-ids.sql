@@ -0,0 +1,15 @@
+-- Migration: transactions.id switches from AUTO_INCREMENT to application-generated time-sorted IDs
+-- (see entity/id/TimeSortedIdSource).
+--
+-- Existing rows keep their IDs: they are all far below the first time-sorted ID
+-- (over 10^11 for any date after 2025-01-02), so ORDER BY id still follows creation order
+-- and no foreign key needs rewriting.
+--
+-- The script is optional: MySQL accepts explicit values in an AUTO_INCREMENT column, but dropping
+-- the attribute avoids the server-side counter jumping to the huge generated values.
+-- Run once, with the application stopped:
+
+ALTER TABLE transactions MODIFY id BIGINT NOT NULL;
+
+-- Rollback (only before any time-sorted ID has been written):
+-- ALTER TABLE transactions MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
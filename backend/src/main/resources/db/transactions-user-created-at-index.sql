@@ -0,0 +1,5 @@
+-- Index backing a user's transaction history (GET /api/users/transactions/{userId}), newest first.
+-- Hibernate creates it with ddl-auto=update; run by hand on databases managed without it.
+-- It also serves the user_id foreign key, whose single-column index can be dropped afterwards.
+
+CREATE INDEX idx_transactions_user_created_at ON transactions (user_id, created_at);
@@ -0,0 +1,144 @@
+package com._4GI.InventoryManagementSystem;
+
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.repository.CategoryRepository;
+import com._4GI.InventoryManagementSystem.repository.ProductRepository;
+import com._4GI.InventoryManagementSystem.repository.SupplierRepository;
+import com._4GI.InventoryManagementSystem.repository.TokenRevocationRepository;
+import com._4GI.InventoryManagementSystem.repository.TransactionRepository;
+import com._4GI.InventoryManagementSystem.repository.UserRepository;
+import com._4GI.InventoryManagementSystem.search.TransactionSearchIndexer;
+import com._4GI.InventoryManagementSystem.security.AuthUser;
+import com._4GI.InventoryManagementSystem.security.PrincipalCache;
+import com._4GI.InventoryManagementSystem.security.TokenRevocations;
+import com._4GI.InventoryManagementSystem.stats.DashboardStatsAggregator;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.IntFunction;
+
+
+/**
+ * Base class for tests running against the embedded H2 database.
+ * Provides seeding helpers and wipes every table after each test.
+ */
+@SpringBootTest
+public abstract class IntegrationTestSupport {
+
+    @Autowired
+    protected ProductRepository productRepository;
+    @Autowired
+    protected CategoryRepository categoryRepository;
+    @Autowired
+    protected SupplierRepository supplierRepository;
+    @Autowired
+    protected TransactionRepository transactionRepository;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected EntityManager entityManager;
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+    @Autowired
+    protected TransactionSearchIndexer searchIndexer;
+    @Autowired
+    protected DashboardStatsAggregator dashboardStats;
+    @Autowired
+    protected PrincipalCache principalCache;
+    @Autowired
+    protected TokenRevocationRepository tokenRevocationRepository;
+    @Autowired
+    protected TokenRevocations tokenRevocations;
+
+    @AfterEach
+    void cleanDatabase() {
+        SecurityContextHolder.clearContext();
+        transactionRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        supplierRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        // users were deleted behind UserService's back
+        principalCache.invalidateAll();
+        tokenRevocationRepository.deleteAllInBatch();
+        tokenRevocations.reload();
+        searchIndexer.rebuild();
+        dashboardStats.rebuild();
+    }
+
+    protected User createUser(String email, UserRole role) {
+        return userRepository.save(User.builder()
+                .name(email)
+                .email(email)
+                .password("x")
+                .phoneNumber("0000")
+                .role(role)
+                .build());
+    }
+
+    protected Category createCategory(String name) {
+        return categoryRepository.save(Category.builder().name(name).position(0).build());
+    }
+
+    protected Supplier createSupplier(String name) {
+        return supplierRepository.save(Supplier.builder().name(name).build());
+    }
+
+    protected Product createProduct(String sku, Category category, String price, int stock) {
+        return productRepository.save(Product.builder()
+                .name("product " + sku)
+                .sku(sku)
+                .price(new BigDecimal(price))
+                .stockQuantity(stock)
+                .category(category)
+                .position(0)
+                .build());
+    }
+
+    // Bulk-inserts ledger rows with JDBC batching, customize each row through the factory
+    protected void seedTransactions(int count, IntFunction<Transaction> rowFactory) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                entityManager.persist(rowFactory.apply(i));
+                if (i % 500 == 499) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        // rows written behind the services' back, reload the search index and the dashboard aggregates
+        searchIndexer.rebuild();
+        dashboardStats.rebuild();
+    }
+
+    protected Transaction.TransactionBuilder sale(Product product, User user, int quantity) {
+        return Transaction.builder()
+                .transactionType(TransactionType.SALE)
+                .status(TransactionStatus.COMPLETED)
+                .product(product)
+                .user(user)
+                .totalProducts(quantity)
+                .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)))
+                .description("sale " + quantity);
+    }
+
+    // Puts the user in the SecurityContext of the calling thread, like AuthFilter does
+    protected void authenticate(User user) {
+        AuthUser principal = AuthUser.builder().user(user).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,37 @@
+package com._4GI.InventoryManagementSystem;
+
+import com._4GI.InventoryManagementSystem.metrics.StatementCounter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Statement budgets: the statements the calling thread prepared since {@link #reset()}, by kind, so a query
+ * regression (an added select, a loop of updates) fails the test. Background threads are not counted.
+ * <pre>
+ * SqlStatementBudget.reset();
+ * categoryService.reorderCategories(ids);
+ * SqlStatementBudget.assertSqlCount(1, 0, 1, 0);
+ * </pre>
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    public static void reset() {
+        SqlStatementRecorder.clear();
+        StatementCounter.reset();
+    }
+
+    public static void assertSqlCount(int selects, int inserts, int updates, int deletes) {
+        String actual = "select=%d, insert=%d, update=%d, delete=%d".formatted(StatementCounter.selects(),
+                StatementCounter.inserts(), StatementCounter.updates(), StatementCounter.deletes());
+        assertEquals("select=%d, insert=%d, update=%d, delete=%d".formatted(selects, inserts, updates, deletes), actual,
+                () -> "statements of all threads: " + SqlStatementRecorder.statements());
+    }
+
+    public static void assertSelectCount(int selects) {
+        assertSqlCount(selects, 0, 0, 0);
+    }
+}
@@ -0,0 +1,42 @@
+package com._4GI.InventoryManagementSystem;
+
+import com._4GI.InventoryManagementSystem.metrics.StatementCounter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * Records every statement Hibernate prepares, on any thread (dispatcher lanes included).
+ * Registered for the tests through hibernate.session_factory.statement_inspector, in place of the
+ * {@link StatementCounter} it extends so the per-request counts keep working.
+ */
+public class SqlStatementRecorder extends StatementCounter {
+
+    private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return super.inspect(sql);
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    // Selects reading the given table, e.g. "users"
+    public static List<String> selectsFrom(String table) {
+        String from = " from " + table.toLowerCase(Locale.ROOT) + " ";
+        return STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " "))
+                .filter(sql -> sql.startsWith("select") && sql.contains(from))
+                .toList();
+    }
+}
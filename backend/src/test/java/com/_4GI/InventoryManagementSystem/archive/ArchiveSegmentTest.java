@@ -0,0 +1,187 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ArchiveSegmentTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2023, 5);
+    private static final int ROWS = Integer.getInteger("bench.rows", 50_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryColumnAndKeepsMetadata() throws IOException {
+        List<ArchivedTransaction> rows = rows(ROWS);
+        Path file = write(rows);
+
+        ArchiveSegment segment = ArchiveSegment.open(file);
+        assertEquals(MONTH, segment.getMonth());
+        assertEquals(ROWS, segment.getRows());
+        assertEquals(rows.get(0).getCreatedAt(), segment.getMinCreatedAt());
+        assertEquals(rows.get(ROWS - 1).getCreatedAt(), segment.getMaxCreatedAt());
+        assertEquals(rows.stream().mapToLong(ArchivedTransaction::getId).min().orElseThrow(), segment.getMinId());
+        assertEquals(rows.stream().filter(r -> r.getTransactionType() == TransactionType.SALE).count(),
+                segment.getTypeCounts().get(TransactionType.SALE));
+
+        // every value comes back as written: nulls, scales, dictionary overflow, accents
+        assertEquals(rows, segment.scan(null, null, null, null));
+        // compressed: a few bytes a row
+        assertTrue(segment.getBytes() < 8L * ROWS);
+    }
+
+    @Test
+    void scansSelectOnTimeTypeStatusAndId() throws IOException {
+        List<ArchivedTransaction> rows = rows(10_000);
+        ArchiveSegment segment = ArchiveSegment.open(write(rows));
+
+        LocalDateTime from = MONTH.atDay(10).atStartOfDay();
+        LocalDateTime to = MONTH.atDay(12).atStartOfDay();
+        List<ArchivedTransaction> expected = rows.stream()
+                .filter(r -> !r.getCreatedAt().isBefore(from) && r.getCreatedAt().isBefore(to))
+                .filter(r -> r.getTransactionType() == TransactionType.PURCHASE)
+                .filter(r -> r.getStatus() == TransactionStatus.COMPLETED)
+                .toList();
+        assertTrue(!expected.isEmpty());
+        assertEquals(expected, segment.scan(from, to, TransactionType.PURCHASE, TransactionStatus.COMPLETED));
+
+        // ruled out by the metadata alone
+        assertEquals(List.of(), segment.scan(MONTH.plusMonths(1).atDay(1).atStartOfDay(), null, null, null));
+        assertEquals(List.of(), segment.scan(null, null, null, TransactionStatus.PENDING));
+
+        ArchivedTransaction middle = rows.get(5_000);
+        assertEquals(Optional.of(middle), segment.find(middle.getId()));
+        assertEquals(Optional.empty(), segment.find(middle.getId() + 1));
+    }
+
+    @Test
+    void userTotalsAndScansComeFromTheUsersRowsOnly() throws IOException {
+        List<ArchivedTransaction> rows = rows(10_000);
+        ArchiveSegment segment = ArchiveSegment.open(write(rows));
+
+        for (long userId = 100; userId < 108; userId++) {
+            long id = userId;
+            List<ArchivedTransaction> own = rows.stream().filter(r -> r.getUserId() == id).toList();
+            List<TransactionTypeTotalsDTO> totals = segment.userTotals(userId);
+            assertEquals(3, totals.size());
+            for (TransactionTypeTotalsDTO typeTotals : totals) {
+                List<ArchivedTransaction> ofType = own.stream()
+                        .filter(r -> r.getTransactionType() == typeTotals.getTransactionType()).toList();
+                assertEquals(ofType.size(), typeTotals.getCount());
+                assertEquals(ofType.stream().mapToLong(r -> r.getTotalProducts() == null ? 0 : r.getTotalProducts()).sum(),
+                        typeTotals.getTotalProducts());
+                assertEquals(0, ofType.stream().map(ArchivedTransaction::getTotalPrice).filter(Objects::nonNull)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(typeTotals.getTotalPrice()));
+            }
+            List<ArchivedTransaction> scanned = new ArrayList<>();
+            segment.scan(null, null, null, null, userId, scanned::add);
+            assertEquals(own, scanned);
+        }
+
+        // a user without rows in the month: answered by the header alone
+        assertFalse(segment.mayContainUser(99));
+        assertEquals(List.of(), segment.userTotals(99));
+        List<ArchivedTransaction> none = new ArrayList<>();
+        segment.scan(null, null, null, null, 99L, none::add);
+        assertEquals(List.of(), none);
+    }
+
+    @Test
+    void streamingScanStopsWhenTheSinkDoes() throws IOException {
+        List<ArchivedTransaction> rows = rows(10_000);
+        ArchiveSegment segment = ArchiveSegment.open(write(rows));
+
+        List<ArchivedTransaction> taken = new ArrayList<>();
+        segment.scan(null, null, null, null, row -> taken.add(row) && taken.size() < 25);
+
+        assertEquals(rows.subList(0, 25), taken);
+    }
+
+    @Test
+    void refusesRowsOutOfOrderOrOfAnotherMonth() {
+        ArchiveSegmentWriter writer = new ArchiveSegmentWriter(MONTH);
+        List<ArchivedTransaction> rows = rows(2);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.add(ArchivedTransaction.builder()
+                .id(1L).createdAt(MONTH.plusMonths(1).atDay(1).atStartOfDay()).build()));
+        assertThrows(IllegalArgumentException.class, () -> {
+            writer.add(rows.get(1));
+            writer.add(rows.get(0));
+        });
+    }
+
+    @Test
+    void replacesTheSegmentAtomically() throws IOException {
+        Path file = write(rows(100));
+        ArchiveSegment before = ArchiveSegment.open(file);
+
+        write(rows(300));
+
+        assertEquals(300, ArchiveSegment.open(file).getRows());
+        // a scan already holding the old file keeps reading it
+        assertEquals(100, before.scan(null, null, null, null).size());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private Path write(List<ArchivedTransaction> rows) throws IOException {
+        ArchiveSegmentWriter writer = new ArchiveSegmentWriter(MONTH);
+        for (ArchivedTransaction row : rows) {
+            writer.add(row);
+        }
+        Path file = ArchiveSegment.fileName(directory, MONTH);
+        writer.writeTo(file);
+        return file;
+    }
+
+    // Rows over the month in (created_at, id) order, with the shapes the ledger produces
+    private static List<ArchivedTransaction> rows(int count) {
+        List<ArchivedTransaction> rows = new ArrayList<>(count);
+        LocalDateTime start = MONTH.atDay(1).atStartOfDay();
+        long step = 30L * 24 * 3600 * 1_000_000 / count;
+        for (int i = 0; i < count; i++) {
+            TransactionType type = TransactionType.values()[i % 3];
+            LocalDateTime createdAt = start.plusNanos((i * step + i % 7) * 1_000);
+            rows.add(ArchivedTransaction.builder()
+                    .id(1_000_000_000L + i * 17L - (i % 2 == 0 ? 0 : 5))
+                    .createdAt(createdAt)
+                    .updatedAt(i % 5 == 0 ? null : createdAt.plusSeconds(i % 100))
+                    .transactionType(type)
+                    .status(i % 11 == 0 ? TransactionStatus.CANCELED : TransactionStatus.COMPLETED)
+                    .totalProducts(i % 13 == 0 ? null : i % 40 + 1)
+                    .totalPrice(i % 9 == 0 ? null : i % 4 == 0 ? BigDecimal.ZERO : new BigDecimal(i % 1000 + ".50"))
+                    .description(i % 6 == 0 ? null : (i % 2 == 0 ? "vente comptoir " : "livraison dépôt ") + i)
+                    .productId((long) (i % 50) + 1)
+                    .productSku("SKU-" + i % 50)
+                    .productName("product " + i % 50)
+                    .userId((long) (i % 8) + 100)
+                    .userEmail("user" + i % 8 + "@ims.test")
+                    .supplierId(type == TransactionType.SALE ? null : (long) i % 5 + 1)
+                    .supplierName(type == TransactionType.SALE ? null : "supplier " + i % 5)
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,203 @@
+package com._4GI.InventoryManagementSystem.archive;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.ArchiveStatsDTO;
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
+import com._4GI.InventoryManagementSystem.dto.UserTransactionSummaryDTO;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.export.TransactionExportCriteria;
+import com._4GI.InventoryManagementSystem.export.TransactionExportFormat;
+import com._4GI.InventoryManagementSystem.service.TransactionExportService;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import com._4GI.InventoryManagementSystem.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Archival of the months past the horizon, and every read API (user history included) answering the same before
+ * and after.
+ * The size can be raised with -Dbench.archiveRows.
+ */
+@SpringBootTest(properties = "ims.archive.horizon-months=12")
+class TransactionArchiveIntegrationTest extends IntegrationTestSupport {
+
+    private static final int OLD_ROWS = Integer.getInteger("bench.archiveRows", 12_000);
+    private static final int RECENT_ROWS = 500;
+    private static final int MONTHS = 4;
+
+    @Autowired
+    private TransactionArchive archive;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionExportService transactionExportService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Product product;
+    private YearMonth firstMonth;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("archive@ims.test", UserRole.ADMIN);
+        product = createProduct("ARC-1", createCategory("archive"), "4.00", 0);
+        firstMonth = YearMonth.now().minusMonths(18);
+
+        seedTransactions(OLD_ROWS + RECENT_ROWS, i -> sale(product, user, i % 9 + 1)
+                .transactionType(TransactionType.values()[i % 3])
+                .description(i < OLD_ROWS ? "old " + i : "new " + i)
+                .build());
+        // old rows spread over MONTHS months, 18 months ago
+        int minutesPerRow = MONTHS * 28 * 24 * 60 / OLD_ROWS;
+        String createdAt = "DATEADD('MINUTE', CAST(SUBSTRING(description, 5) AS INT) * " + minutesPerRow
+                + ", CAST(? AS TIMESTAMP))";
+        jdbcTemplate.update("UPDATE transactions SET created_at = " + createdAt + ", updated_at = " + createdAt
+                + " WHERE description LIKE 'old %'", firstMonth.atDay(1).atStartOfDay(), firstMonth.atDay(1).atStartOfDay());
+        searchIndexer.rebuild();
+        dashboardStats.rebuild();
+    }
+
+    @Test
+    void archivedMonthsReadTheSameAsBeforeArchival() throws IOException {
+        List<List<TransactionDTO>> monthsBefore = new ArrayList<>();
+        for (int m = 0; m < MONTHS; m++) {
+            monthsBefore.add(monthReport(firstMonth.plusMonths(m), null, null));
+        }
+        List<TransactionDTO> pageBefore = monthReport(firstMonth.plusMonths(1), 2, 100);
+        String exportBefore = export(null);
+        String monthExportBefore = export(new TransactionExportCriteria(
+                firstMonth.plusMonths(2).atDay(3), firstMonth.plusMonths(2).atDay(20), TransactionType.SALE, null));
+        TransactionDTO oldRow = monthsBefore.get(1).get(7);
+        List<Long> historyBefore = history(null, null);
+        LocalDate acrossFrom = firstMonth.plusMonths(2).atDay(15);
+        List<Long> saleHistoryBefore = history(acrossFrom, TransactionType.SALE);
+        UserTransactionSummaryDTO summaryBefore = summary(null, null);
+        UserTransactionSummaryDTO saleSummaryBefore = summary(acrossFrom, TransactionType.SALE);
+        Map<TransactionType, Long> countsBefore = dashboardStats.snapshot().getTransactionsByType();
+        long totalBefore = dashboardStats.snapshot().getTotalTransactions();
+
+        long archived = archive.archive();
+
+        assertEquals(OLD_ROWS, archived);
+        assertEquals(RECENT_ROWS, transactionRepository.count());
+        ArchiveStatsDTO stats = archive.stats();
+        assertEquals(MONTHS, stats.getSegments().size());
+        assertEquals(OLD_ROWS, stats.getArchivedRows());
+        assertEquals(firstMonth.plusMonths(MONTHS).atDay(1).atStartOfDay(), stats.getArchivedBefore());
+
+        // every read API answers as before
+        for (int m = 0; m < MONTHS; m++) {
+            assertEquals(monthsBefore.get(m), monthReport(firstMonth.plusMonths(m), null, null));
+        }
+        assertEquals(pageBefore, monthReport(firstMonth.plusMonths(1), 2, 100));
+        assertEquals(exportBefore, export(null));
+        assertEquals(monthExportBefore, export(new TransactionExportCriteria(
+                firstMonth.plusMonths(2).atDay(3), firstMonth.plusMonths(2).atDay(20), TransactionType.SALE, null)));
+        assertEquals(oldRow, transactionService.getTransactionById(oldRow.getId()).getTransaction());
+        // the user's history pages across the archived months, the summary adds them up
+        assertEquals(historyBefore, history(null, null));
+        assertEquals(saleHistoryBefore, history(acrossFrom, TransactionType.SALE));
+        assertSameTotals(summaryBefore, summary(null, null));
+        assertSameTotals(saleSummaryBefore, summary(acrossFrom, TransactionType.SALE));
+        dashboardStats.rebuild();
+        assertEquals(countsBefore, dashboardStats.snapshot().getTransactionsByType());
+        assertEquals(totalBefore, dashboardStats.snapshot().getTotalTransactions());
+
+        // searches have no date range: they only see the table
+        assertEquals(0, transactionService.getAllTransactions(0, 10, "old 1").getTransactions().size());
+        assertEquals(1, transactionService.getAllTransactions(0, 10, "new " + OLD_ROWS).getTransactions().size());
+
+        // the old rows are stored column-compressed, far below their size in the table
+        assertTrue(stats.getSegmentBytes() < 8L * OLD_ROWS);
+
+        // a late row of an archived month is read from the table, then archived by the next run
+        YearMonth month = firstMonth.plusMonths(1);
+        seedTransactions(1, i -> sale(product, user, 1).description("late").build());
+        jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE description = 'late'",
+                month.atDay(15).atTime(12, 0));
+        assertEquals(monthsBefore.get(1).size() + 1, monthReport(month, null, null).size());
+
+        assertEquals(1, archive.archive());
+        assertEquals(RECENT_ROWS, transactionRepository.count());
+        List<TransactionDTO> merged = monthReport(month, null, null);
+        assertEquals(monthsBefore.get(1).size() + 1, merged.size());
+        assertTrue(merged.stream().anyMatch(t -> "late".equals(t.getDescription())));
+        assertEquals(historyBefore.size() + 1, history(null, null).size());
+        // the late row's month is read for it, the others still come from the segment headers
+        assertEquals(summaryBefore.getCount() + 1, summary(null, null).getCount());
+        seedTransactions(1, i -> sale(product, user, 1).description("late again").build());
+        jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE description = 'late again'",
+                month.atDay(16).atTime(12, 0));
+        assertEquals(summaryBefore.getCount() + 2, summary(null, null).getCount());
+        assertEquals(historyBefore.size() + 2, history(null, null).size());
+    }
+
+    // Ids of the user's history walked page by page, newest first
+    private List<Long> history(LocalDate from, TransactionType type) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            Response response = userService.getUserTransactions(user.getId(), from, null, type, cursor, 500);
+            response.getTransactions().forEach(t -> ids.add(t.getId()));
+            cursor = response.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private UserTransactionSummaryDTO summary(LocalDate from, TransactionType type) {
+        return userService.getUserTransactions(user.getId(), from, null, type, null, 1).getUserTransactionSummary();
+    }
+
+    // Database sums and archive sums may differ in scale only
+    private static void assertSameTotals(UserTransactionSummaryDTO expected, UserTransactionSummaryDTO actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getTotalProducts(), actual.getTotalProducts());
+        assertEquals(0, expected.getTotalPrice().compareTo(actual.getTotalPrice()));
+        assertEquals(expected.getByType().size(), actual.getByType().size());
+        for (int i = 0; i < expected.getByType().size(); i++) {
+            TransactionTypeTotalsDTO before = expected.getByType().get(i);
+            TransactionTypeTotalsDTO after = actual.getByType().get(i);
+            assertEquals(before.getTransactionType(), after.getTransactionType());
+            assertEquals(before.getCount(), after.getCount());
+            assertEquals(before.getTotalProducts(), after.getTotalProducts());
+            assertEquals(0, before.getTotalPrice().compareTo(after.getTotalPrice()));
+        }
+    }
+
+    private List<TransactionDTO> monthReport(YearMonth month, Integer page, Integer size) {
+        Response response = transactionService.getAllTransactionByMonthAndYear(
+                month.getMonthValue(), month.getYear(), null, null, page, size);
+        return response.getTransactions();
+    }
+
+    private String export(TransactionExportCriteria criteria) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportTransactions(
+                criteria != null ? criteria : new TransactionExportCriteria(null, null, null, null),
+                TransactionExportFormat.CSV, false, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.repository.TokenRevocationRepository;
+import com._4GI.InventoryManagementSystem.security.AuthFilter;
+import com._4GI.InventoryManagementSystem.security.AuthUser;
+import com._4GI.InventoryManagementSystem.security.CustomUserDetailsService;
+import com._4GI.InventoryManagementSystem.security.JwtUtils;
+import com._4GI.InventoryManagementSystem.security.LegacyAuthFilter;
+import com._4GI.InventoryManagementSystem.security.TokenRevocations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * AuthFilter overhead per request with a bearer token, user lookup stubbed out: the former four parses against
+ * one verification, and against the verified-token cache with the same token coming back.
+ * Run with {@code mvn -Pbenchmark test -Djmh.include=AuthFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    private static final String SECRET = "LadTkKieQwIPtqrEXozfyR0ASW9jumF4YDsg";
+    private static final FilterChain CHAIN = (request, response) -> { };
+    private static final TokenRevocations NO_REVOCATIONS = emptyRevocations();
+
+    private LegacyAuthFilter legacyFilter;
+    private AuthFilter verifyOnceFilter;
+    private AuthFilter cachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(9L).name("Jane").email("jane@ims.test").password("hash").phoneNumber("0600")
+                .role(UserRole.MANAGER).build();
+        UserDetails principal = AuthUser.builder().user(user).build();
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return principal;
+            }
+        };
+
+        SecretKey key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        legacyFilter = new LegacyAuthFilter(key, userDetailsService);
+        verifyOnceFilter = authFilter(jwtUtils(0), userDetailsService);
+        JwtUtils cached = jwtUtils(10_000);
+        cachedFilter = authFilter(cached, userDetailsService);
+        authorization = "Bearer " + cached.generateToken(user);
+    }
+
+    @Benchmark
+    public Authentication legacy() throws Exception {
+        return filter(legacyFilter);
+    }
+
+    @Benchmark
+    public Authentication verifyOnce() throws Exception {
+        return filter(verifyOnceFilter);
+    }
+
+    @Benchmark
+    public Authentication cached() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    private Authentication filter(Filter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/sell");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtUtils jwtUtils(int cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretJwtString", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+
+    // An empty deny-list: the repository returns no rows
+    private static TokenRevocations emptyRevocations() {
+        TokenRevocationRepository repository = (TokenRevocationRepository) Proxy.newProxyInstance(
+                TokenRevocationRepository.class.getClassLoader(), new Class<?>[]{TokenRevocationRepository.class},
+                (proxy, method, args) -> method.getReturnType() == List.class ? List.of() : null);
+        TokenRevocations revocations = new TokenRevocations(repository);
+        ReflectionTestUtils.setField(revocations, "initialCapacity", 10_000);
+        revocations.reload();
+        return revocations;
+    }
+
+    private static AuthFilter authFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService) {
+        AuthFilter filter = new AuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenRevocations", NO_REVOCATIONS);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(filter, "bindMetrics");
+        return filter;
+    }
+}
@@ -0,0 +1,108 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Compares two JMH JSON result files (-rf json) benchmark by benchmark and exits with 1 when one got slower by more
+ * than the threshold and by more than the two error margins together.
+ * Run with {@code mvn -Pbenchmark-diff test -Djmh.baseline=<old.json> [-Djmh.result=<new.json>] [-Djmh.threshold=10]}.
+ */
+public final class BenchmarkDiff {
+
+    // One benchmark (with its @Param values) of a result file
+    record Score(String key, String mode, double score, double error, String unit) {
+
+        // "thrpt" is higher-is-better, every other JMH mode measures time
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    // The comparison of one benchmark, change in percent, positive when slower
+    record Change(String key, Score baseline, Score current, double percent, boolean regression) {
+    }
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkDiff <baseline.json> <result.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        List<Change> changes = compare(read(new File(args[0])), read(new File(args[1])), threshold);
+
+        boolean regressed = false;
+        for (Change change : changes) {
+            if (change.current() == null) {
+                System.out.printf("%-80s %14s  removed%n", change.key(), format(change.baseline()));
+            } else if (change.baseline() == null) {
+                System.out.printf("%-80s %14s  new%n", change.key(), format(change.current()));
+            } else {
+                System.out.printf("%-80s %14s -> %14s  %+7.1f%%%s%n", change.key(), format(change.baseline()),
+                        format(change.current()), change.percent(), change.regression() ? "  REGRESSION" : "");
+                regressed |= change.regression();
+            }
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            if (params.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    key.append(key.indexOf("(") < 0 ? " (" : ", ").append(field.getKey()).append('=')
+                            .append(field.getValue().asText());
+                }
+                key.append(')');
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(key.toString(), run.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    static List<Change> compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        List<Change> changes = new ArrayList<>();
+        for (Score before : baseline.values()) {
+            Score after = current.get(before.key());
+            if (after == null) {
+                changes.add(new Change(before.key(), before, null, 0, false));
+                continue;
+            }
+            double delta = before.higherIsBetter() ? before.score() - after.score() : after.score() - before.score();
+            double percent = before.score() == 0 ? 0 : delta * 100 / before.score();
+            // slower beyond the threshold, and beyond what the error margins explain
+            boolean regression = percent > threshold && delta > before.error() + after.error();
+            changes.add(new Change(before.key(), before, after, percent, regression));
+        }
+        for (Score after : current.values()) {
+            if (!baseline.containsKey(after.key())) {
+                changes.add(new Change(after.key(), null, after, 0, false));
+            }
+        }
+        return changes;
+    }
+
+    private static String format(Score score) {
+        return String.format("%.3f %s", score.score(), score.unit());
+    }
+}
@@ -0,0 +1,64 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class BenchmarkDiffTest {
+
+    private static final String RUN = """
+            {"benchmark": "%s", "mode": "%s", "params": %s,
+             "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "us/op"}}""";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void flagsSlowdownsBeyondThresholdAndError() throws IOException {
+        Map<String, BenchmarkDiff.Score> baseline = BenchmarkDiff.read(write("old.json",
+                run("a.Jwt.verify", "avgt", "null", 10, 0.5),
+                run("a.Serialization.serialize", "avgt", "{\"transactions\": \"1000\"}", 100, 2),
+                run("a.Limiter.ops", "thrpt", "null", 1000, 10),
+                run("a.Gone.run", "avgt", "null", 1, 0.1)));
+        Map<String, BenchmarkDiff.Score> current = BenchmarkDiff.read(write("new.json",
+                run("a.Jwt.verify", "avgt", "null", 12, 0.5),
+                run("a.Serialization.serialize", "avgt", "{\"transactions\": \"1000\"}", 115, 20),
+                run("a.Limiter.ops", "thrpt", "null", 800, 10),
+                run("a.New.run", "avgt", "null", 1, 0.1)));
+
+        List<BenchmarkDiff.Change> changes = BenchmarkDiff.compare(baseline, current, 10);
+
+        assertEquals(5, changes.size());
+        // 20% slower, well beyond the error
+        assertTrue(changes.get(0).regression());
+        // 15% slower but within the error margins
+        assertEquals("a.Serialization.serialize (transactions=1000)", changes.get(1).key());
+        assertFalse(changes.get(1).regression());
+        // throughput down by 20%
+        assertTrue(changes.get(2).regression());
+        assertNull(changes.get(3).current());
+        assertNull(changes.get(4).baseline());
+    }
+
+    private File write(String name, String... runs) throws IOException {
+        Path file = dir.resolve(name);
+        Files.writeString(file, "[" + String.join(",", runs) + "]");
+        return file.toFile();
+    }
+
+    private static String run(String benchmark, String mode, String params, double score, double error) {
+        return RUN.formatted(benchmark, mode, params, score, error);
+    }
+}
@@ -0,0 +1,77 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.InventoryManagementSystemApplication;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.repository.CategoryRepository;
+import com._4GI.InventoryManagementSystem.service.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * CategoryServiceImpl.reorderCategories through the application context on the embedded H2 database of the tests
+ * (src/test/resources), a shuffled order each call. Run with {@code mvn -Pbenchmark test -Djmh.include=CategoryReorder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryReorderBenchmark {
+
+    @Param({"50", "500"})
+    public int categories;
+
+    private ConfigurableApplicationContext context;
+    private CategoryService categoryService;
+    private List<Long> order;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementSystemApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "logging.level.root=WARN", "ims.search.index.enabled=false")
+                .run();
+        categoryService = context.getBean(CategoryService.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+
+        order = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            order.add(categoryRepository.save(Category.builder().name("bench-" + i).position(i).build()).getId());
+        }
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object reorder() {
+        Collections.shuffle(order, random);
+        return categoryService.reorderCategories(order);
+    }
+}
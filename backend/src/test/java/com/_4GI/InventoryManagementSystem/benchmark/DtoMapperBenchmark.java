@@ -0,0 +1,108 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.dto.LegacyModelMapper;
+import com._4GI.InventoryManagementSystem.dto.ProductDTO;
+import com._4GI.InventoryManagementSystem.dto.SupplierDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.UserDTO;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Entity to DTO mapping: former ModelMapper configuration against the explicit mappers.
+ * Run with {@code mvn -Pbenchmark test -Djmh.include=DtoMapper}; -prof gc reports gc.alloc.rate.norm (bytes per mapping).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private Product product;
+    private Supplier supplier;
+    private User user;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        modelMapper = LegacyModelMapper.create();
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 10, 0);
+        product = Product.builder().id(7L).name("Laptop stand").sku("LS-1").price(new BigDecimal("49.90"))
+                .stockQuantity(12).description("aluminium").imageUrl("/images/products/ls-1.png")
+                .createdAt(now).updatedAt(now).position(5)
+                .category(Category.builder().id(3L).name("Laptops").position(2).build())
+                .build();
+        supplier = Supplier.builder().id(4L).name("Acme").address("1 Main St").build();
+        user = User.builder().id(9L).name("Jane").email("jane@ims.test").password("hash").phoneNumber("0600")
+                .role(UserRole.MANAGER).createdAt(now).build();
+        transaction = Transaction.builder().id(123_456_789L).totalProducts(3).totalPrice(new BigDecimal("149.70"))
+                .transactionType(TransactionType.PURCHASE).status(TransactionStatus.COMPLETED).description("restock")
+                .createdAt(now).updatedAt(now).user(user).product(product).supplier(supplier)
+                .build();
+    }
+
+    @Benchmark
+    public ProductDTO productModelMapper() {
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productExplicit() {
+        return ProductDTO.fromEntity(product);
+    }
+
+    @Benchmark
+    public SupplierDTO supplierModelMapper() {
+        return modelMapper.map(supplier, SupplierDTO.class);
+    }
+
+    @Benchmark
+    public SupplierDTO supplierExplicit() {
+        return SupplierDTO.fromEntity(supplier);
+    }
+
+    @Benchmark
+    public UserDTO userModelMapper() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userExplicit() {
+        return UserDTO.fromEntity(user);
+    }
+
+    @Benchmark
+    public TransactionDTO transactionModelMapper() {
+        return modelMapper.map(transaction, TransactionDTO.class);
+    }
+
+    @Benchmark
+    public TransactionDTO transactionExplicit() {
+        return TransactionDTO.fromEntity(transaction);
+    }
+}
@@ -0,0 +1,79 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.security.JwtUtils;
+import com._4GI.InventoryManagementSystem.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Token issuing and reading: generateToken, a full verification (signature, expiry, claims), the cached
+ * verification of a token seen before, and the single-claim parse AuthFilter used to repeat.
+ * Run with {@code mvn -Pbenchmark test -Djmh.include=Jwt}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "LadTkKieQwIPtqrEXozfyR0ASW9jumF4YDsg";
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        user = User.builder().id(9L).name("Jane").email("jane@ims.test").password("hash").phoneNumber("0600")
+                .role(UserRole.MANAGER).build();
+        uncached = jwtUtils(0);
+        cached = jwtUtils(10_000);
+        token = uncached.generateToken(user);
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public String parseSubject() {
+        return uncached.getUsernameFromToken(token);
+    }
+
+    private static JwtUtils jwtUtils(int cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretJwtString", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,86 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.event.TransactionRecordedEvent;
+import com._4GI.InventoryManagementSystem.metrics.StatementCounter;
+import com._4GI.InventoryManagementSystem.metrics.StatementMetricsFilter;
+import com._4GI.InventoryManagementSystem.metrics.TransactionMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * What the meters add to a request, on the Prometheus registry: the per-request statement summary around a
+ * request issuing 5 statements, against the same request unmetered, and the ledger and stock meters of a sell.
+ * Run with {@code mvn -Pbenchmark test -Djmh.include=MetricsOverhead}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final StatementCounter INSPECTOR = new StatementCounter();
+    // the request's work: five statements, attributed to a URI template as Spring MVC does
+    private static final FilterChain CHAIN = (request, response) -> {
+        for (int i = 0; i < 5; i++) {
+            INSPECTOR.inspect("select 1");
+        }
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/transactions/sell");
+    };
+
+    private StatementMetricsFilter statementFilter;
+    private TransactionMetrics transactionMetrics;
+    private TransactionRecordedEvent event;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        statementFilter = new StatementMetricsFilter(registry);
+        transactionMetrics = new TransactionMetrics(registry);
+        event = new TransactionRecordedEvent(1L, TransactionType.SALE, TransactionStatus.COMPLETED, 2L, 3L, null,
+                1, BigDecimal.ONE, "bench", LocalDateTime.now());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unmetered() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CHAIN.doFilter(new MockHttpServletRequest("POST", "/api/transactions/sell"), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse statementsMetered() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        statementFilter.doFilter(new MockHttpServletRequest("POST", "/api/transactions/sell"), response, CHAIN);
+        return response;
+    }
+
+    // what a sell adds: its stock timer and its ledger counter
+    @Benchmark
+    public void sellMeters() {
+        transactionMetrics.recordStockMutation(250_000, null);
+        transactionMetrics.onTransactionRecorded(event);
+    }
+}
@@ -0,0 +1,102 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.security.ClientRateLimiter;
+import com._4GI.InventoryManagementSystem.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Rate limit cost per request, spread over {@code clients} distinct clients: the bucket update alone, and the
+ * whole filter against the same request going through no filter at all.
+ * Run with {@code mvn -Pbenchmark test -Djmh.include=RateLimitFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"16384"})
+    public int clients;
+
+    private String[] keys;
+    private String[] addresses;
+    private ClientRateLimiter limiter;
+    private RateLimitFilter filter;
+
+    @Setup
+    public void setUp() throws Exception {
+        keys = new String[clients];
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+            keys[i] = "ip:" + addresses[i];
+        }
+        // buckets never run dry: the benchmark measures the granted path
+        limiter = new ClientRateLimiter(16_000, 16_000, 600_000, 64);
+        filter = new RateLimitFilter(new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "capacity", 16_000);
+        ReflectionTestUtils.setField(filter, "refillPerSecond", 16_000);
+        ReflectionTestUtils.setField(filter, "idleTimeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(filter, "defaultCost", 1);
+        ReflectionTestUtils.setField(filter, "listCost", 2);
+        ReflectionTestUtils.setField(filter, "searchCost", 4);
+        ReflectionTestUtils.setField(filter, "exportCost", 20);
+        ReflectionTestUtils.setField(filter, "loginCost", 10);
+        ReflectionTestUtils.setField(filter, "uploadCost", 10);
+        ReflectionTestUtils.invokeMethod(filter, "init");
+        for (int i = 0; i < clients; i++) {
+            limiter.tryAcquire(keys[i], 1);
+            filter.doFilter(request(i), new MockHttpServletResponse(), CHAIN);
+        }
+    }
+
+    @Benchmark
+    public long limiterOnly() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(clients)], 2);
+    }
+
+    @Benchmark
+    public int baseline() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CHAIN.doFilter(request(ThreadLocalRandom.current().nextInt(clients)), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int filtered() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(ThreadLocalRandom.current().nextInt(clients)), response, CHAIN);
+        return response.getStatus();
+    }
+
+    private MockHttpServletRequest request(int client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/all");
+        request.setRemoteAddr(addresses[client]);
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Jackson serialization of a transaction list Response, with the ObjectMapper configuration Spring MVC uses.
+ * Run with {@code mvn -Pbenchmark test -Djmh.include=ResponseSerialization}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000"})
+    public int transactions;
+
+    private ObjectMapper objectMapper;
+    private Response response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        List<TransactionDTO> rows = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            LocalDateTime createdAt = start.plusMinutes(i);
+            rows.add(new TransactionDTO(1_000_000L + i, i % 9 + 1, new BigDecimal("12.50").multiply(BigDecimal.valueOf(i % 9 + 1)),
+                    TransactionType.values()[i % 3], TransactionStatus.COMPLETED, "counter sale " + i, createdAt, createdAt,
+                    (long) (i % 50), "Product " + i % 50, "SKU-" + i % 50, i % 3 == 0 ? null : 4L, i % 3 == 0 ? null : "Acme"));
+        }
+        response = Response.builder().status(200).message("success").transactions(rows).hasNext(true).build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
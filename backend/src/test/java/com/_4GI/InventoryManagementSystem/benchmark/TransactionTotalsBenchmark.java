@@ -0,0 +1,70 @@
+package com._4GI.InventoryManagementSystem.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Line totals of a transaction batch: price.multiply(BigDecimal.valueOf(quantity)) per line as
+ * TransactionServiceImpl.buildTransaction and StockCommand compute them, summed as the user history summary does,
+ * against the same arithmetic on unscaled cents. Run with {@code mvn -Pbenchmark test -Djmh.include=TransactionTotals}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionTotalsBenchmark {
+
+    @Param({"1000"})
+    public int lines;
+
+    private BigDecimal[] prices;
+    private long[] cents;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        prices = new BigDecimal[lines];
+        cents = new long[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            cents[i] = random.nextLong(1, 100_000);
+            prices[i] = BigDecimal.valueOf(cents[i], 2);
+            quantities[i] = random.nextInt(1, 50);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal unscaledCents() {
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            total = Math.addExact(total, Math.multiplyExact(cents[i], quantities[i]));
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+}
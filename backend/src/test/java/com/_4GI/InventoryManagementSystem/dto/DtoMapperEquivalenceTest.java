@@ -0,0 +1,147 @@
+package com._4GI.InventoryManagementSystem.dto;
+
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+/**
+ * The explicit mappers must produce field-for-field what the former ModelMapper configuration produced.
+ */
+class DtoMapperEquivalenceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 1, 10, 15, 30);
+    private static final LocalDateTime UPDATED = CREATED.plusHours(5);
+
+    private final ModelMapper modelMapper = LegacyModelMapper.create();
+
+    @Test
+    void mapsProduct() {
+        for (Product product : List.of(fullProduct(), new Product())) {
+            assertEquals(modelMapper.map(product, ProductDTO.class), ProductDTO.fromEntity(product));
+        }
+    }
+
+    @Test
+    void mapsCategoryBothWays() {
+        Category category = Category.builder().id(3L).name("Laptops").position(2).build();
+        assertEquals(modelMapper.map(category, CategoryDTO.class), CategoryDTO.fromEntity(category));
+
+        for (CategoryDTO dto : List.of(new CategoryDTO(3L, "Laptops"), new CategoryDTO(null, "New"), new CategoryDTO())) {
+            assertEquals(modelMapper.map(dto, Category.class), dto.toEntity());
+        }
+    }
+
+    @Test
+    void mapsSupplierBothWays() {
+        for (Supplier supplier : List.of(fullSupplier(), new Supplier())) {
+            assertEquals(modelMapper.map(supplier, SupplierDTO.class), SupplierDTO.fromEntity(supplier));
+        }
+        for (SupplierDTO dto : List.of(new SupplierDTO(4L, "Acme", "1 Main St"), new SupplierDTO(null, "Acme", null))) {
+            assertEquals(modelMapper.map(dto, Supplier.class), dto.toEntity());
+        }
+    }
+
+    @Test
+    void userSkipsTransactions() {
+        User user = fullUser();
+        user.setTransactions(List.of(transaction(fullProduct(), null)));
+
+        UserDTO dto = UserDTO.fromEntity(user);
+        assertEquals(modelMapper.map(user, UserDTO.class), dto);
+        assertNull(dto.getTransactions());
+        assertEquals(modelMapper.map(new User(), UserDTO.class), UserDTO.fromEntity(new User()));
+    }
+
+    @Test
+    void transactionSkipsNestedDtosAndFlattensProductAndSupplier() {
+        for (Transaction transaction : List.of(transaction(fullProduct(), fullSupplier()), transaction(fullProduct(), null),
+                transaction(null, null), new Transaction())) {
+            TransactionDTO expected = modelMapper.map(transaction, TransactionDTO.class);
+            // the flattened fields are the one addition over the former mapping (same as the read projections)
+            expected.setProductId(transaction.getProduct() != null ? transaction.getProduct().getId() : null);
+            expected.setProductName(transaction.getProduct() != null ? transaction.getProduct().getName() : null);
+            expected.setProductSku(transaction.getProduct() != null ? transaction.getProduct().getSku() : null);
+            expected.setSupplierId(transaction.getSupplier() != null ? transaction.getSupplier().getId() : null);
+            expected.setSupplierName(transaction.getSupplier() != null ? transaction.getSupplier().getName() : null);
+
+            TransactionDTO dto = TransactionDTO.fromEntity(transaction);
+            assertEquals(expected, dto);
+            assertNull(dto.getUser());
+            assertNull(dto.getProduct());
+            assertNull(dto.getSupplier());
+        }
+    }
+
+    @Test
+    void nullEntitiesMapToNull() {
+        assertNull(ProductDTO.fromEntity(null));
+        assertNull(CategoryDTO.fromEntity(null));
+        assertNull(SupplierDTO.fromEntity(null));
+        assertNull(UserDTO.fromEntity(null));
+        assertNull(TransactionDTO.fromEntity(null));
+    }
+
+    static Product fullProduct() {
+        return Product.builder()
+                .id(7L)
+                .name("Laptop stand")
+                .sku("LS-1")
+                .price(new BigDecimal("49.90"))
+                .stockQuantity(12)
+                .description("aluminium")
+                .imageUrl("/images/products/ls-1.png")
+                .expiryDate(CREATED.plusYears(1))
+                .createdAt(CREATED)
+                .updatedAt(UPDATED)
+                .category(Category.builder().id(3L).name("Laptops").position(2).build())
+                .position(5)
+                .build();
+    }
+
+    static Supplier fullSupplier() {
+        return Supplier.builder().id(4L).name("Acme").address("1 Main St").build();
+    }
+
+    static User fullUser() {
+        return User.builder()
+                .id(9L)
+                .name("Jane")
+                .email("jane@ims.test")
+                .password("$2a$10$hash")
+                .phoneNumber("0600")
+                .role(UserRole.MANAGER)
+                .createdAt(CREATED)
+                .build();
+    }
+
+    static Transaction transaction(Product product, Supplier supplier) {
+        return Transaction.builder()
+                .id(123_456_789L)
+                .totalProducts(3)
+                .totalPrice(new BigDecimal("149.70"))
+                .transactionType(supplier != null ? TransactionType.PURCHASE : TransactionType.SALE)
+                .status(TransactionStatus.COMPLETED)
+                .description("counter sale")
+                .createdAt(CREATED)
+                .updatedAt(UPDATED)
+                .user(fullUser())
+                .product(product)
+                .supplier(supplier)
+                .build();
+    }
+}
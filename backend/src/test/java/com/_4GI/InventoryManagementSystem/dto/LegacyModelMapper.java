@@ -1,20 +1,22 @@
-package com._4GI.InventoryManagementSystem.config;
+package com._4GI.InventoryManagementSystem.dto;
 
-import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
-import com._4GI.InventoryManagementSystem.dto.UserDTO;
 import com._4GI.InventoryManagementSystem.entity.Transaction;
 import com._4GI.InventoryManagementSystem.entity.User;
 import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 
 import static org.modelmapper.config.Configuration.AccessLevel.PRIVATE;
 
-@Configuration
-public class ModelMapperConfig {
 
-    @Bean
-    public ModelMapper modelMapper() {
+/**
+ * The ModelMapper configuration the services used before the explicit mappers, kept as the reference of the
+ * equivalence tests and the baseline of the mapping benchmarks.
+ */
+public final class LegacyModelMapper {
+
+    private LegacyModelMapper() {
+    }
+
+    public static ModelMapper create() {
         ModelMapper mm = new ModelMapper();
 
         mm.getConfiguration()
@@ -23,10 +25,8 @@ public class ModelMapperConfig {
                 .setSkipNullEnabled(true)
                 .setCollectionsMergeEnabled(false)
                 .setAmbiguityIgnored(true)
-                // TEMP: turn off implicit mappings while we define skip rules
                 .setImplicitMappingEnabled(false);
 
-        // --- Create empty type maps and add skip rules ---
         var txMap = mm.createTypeMap(Transaction.class, TransactionDTO.class);
         txMap.addMappings(m -> {
             m.skip(TransactionDTO::setUser);
@@ -37,7 +37,6 @@ public class ModelMapperConfig {
         var userMap = mm.createTypeMap(User.class, UserDTO.class);
         userMap.addMappings(m -> m.skip(UserDTO::setTransactions));
 
-        // Re-enable implicit mappings and populate the rest
         mm.getConfiguration().setImplicitMappingEnabled(true);
         txMap.implicitMappings();
         userMap.implicitMappings();
@@ -0,0 +1,88 @@
+package com._4GI.InventoryManagementSystem.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TimeSortedIdSourceTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void idsIncreaseAndEncodeTheirCreationTime() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeSortedIdSource source = new TimeSortedIdSource(3, clock::get);
+
+        long first = source.nextId();
+        long second = source.nextId();
+        clock.addAndGet(5);
+        long third = source.nextId();
+
+        assertTrue(first < second && second < third);
+        assertEquals(NOW, TimeSortedIdSource.timestampOf(first).toEpochMilli());
+        assertEquals(NOW + 5, TimeSortedIdSource.timestampOf(third).toEpochMilli());
+        assertTrue(TimeSortedIdSource.lowerBoundFor(Instant.ofEpochMilli(NOW)) <= first);
+        assertTrue(TimeSortedIdSource.lowerBoundFor(Instant.ofEpochMilli(NOW + 1)) > second);
+        // stays exact as a JavaScript number
+        assertTrue(third < (1L << 53));
+    }
+
+    @Test
+    void clockGoingBackwardsOrSequenceOverflowNeverRepeatsIds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeSortedIdSource source = new TimeSortedIdSource(0, clock::get);
+
+        long previous = source.nextId();
+        for (int i = 0; i < 1_000; i++) {
+            if (i == 500) {
+                clock.addAndGet(-10_000);
+            }
+            long next = source.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void differentNodesNeverCollide() {
+        AtomicLong clock = new AtomicLong(NOW);
+        assertNotEquals(new TimeSortedIdSource(1, clock::get).nextId(), new TimeSortedIdSource(2, clock::get).nextId());
+        assertThrows(IllegalArgumentException.class, () -> new TimeSortedIdSource(TimeSortedIdSource.MAX_NODE + 1, clock::get));
+    }
+
+    @Test
+    void concurrentCallersGetUniqueIds() throws Exception {
+        TimeSortedIdSource source = new TimeSortedIdSource(0, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(source.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(8 * 50_000, ids.size());
+    }
+}
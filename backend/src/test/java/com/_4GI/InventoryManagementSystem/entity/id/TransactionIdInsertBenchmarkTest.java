@@ -0,0 +1,78 @@
+package com._4GI.InventoryManagementSystem.entity.id;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.entity.IdentityLedgerRow;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Insert throughput of time-sorted (batchable) transaction IDs against the former IDENTITY strategy.
+ * The row count can be raised with -Dbench.rows. In-memory H2 has no network round trip, so the
+ * gain measured here is a lower bound of what MySQL sees; timings are reported, not asserted.
+ * Tagged "loadtest" and left out of the regular build, run with {@code mvn -Ploadtest test}.
+ */
+@Tag("loadtest")
+class TransactionIdInsertBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 20_000);
+    private static final int FLUSH_EVERY = 100;
+
+    @Test
+    void compareInsertThroughput() {
+        IntFunction<Object> timeSorted = i -> Transaction.builder()
+                .totalProducts(i)
+                .totalPrice(BigDecimal.TEN)
+                .transactionType(TransactionType.SALE)
+                .status(TransactionStatus.COMPLETED)
+                .description("bench")
+                .build();
+        IntFunction<Object> identity = i -> IdentityLedgerRow.builder()
+                .totalProducts(i)
+                .totalPrice(BigDecimal.TEN)
+                .transactionType(TransactionType.SALE)
+                .status(TransactionStatus.COMPLETED)
+                .description("bench")
+                .build();
+
+        // warm up
+        insert(identity, 1_000);
+        insert(timeSorted, 1_000);
+
+        long identityNanos = insert(identity, ROWS);
+        long timeSortedNanos = insert(timeSorted, ROWS);
+
+        System.out.printf("[bench] %d inserts: IDENTITY %.0f rows/s, time-sorted %.0f rows/s (%.1fx)%n",
+                ROWS, ROWS / (identityNanos / 1e9), ROWS / (timeSortedNanos / 1e9),
+                (double) identityNanos / timeSortedNanos);
+
+        List<Long> ids = transactionRepository.findAll().stream().map(Transaction::getId).toList();
+        assertEquals(ROWS + 1_000, ids.stream().distinct().count());
+
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createQuery("DELETE FROM IdentityLedgerRow").executeUpdate());
+    }
+
+    private long insert(IntFunction<Object> rowFactory, int rows) {
+        long begin = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(rowFactory.apply(i));
+                if (i % FLUSH_EVERY == FLUSH_EVERY - 1) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,169 @@
+package com._4GI.InventoryManagementSystem.export;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.TransactionExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+/**
+ * /api/transactions/export end to end, plus a check that rows never accumulate while streaming.
+ * The benchmark size can be raised with -Dbench.exportRows.
+ */
+@AutoConfigureMockMvc
+class TransactionExportIntegrationTest extends IntegrationTestSupport {
+
+    // -Dbench.exportRows=1000000 for a bigger run
+    private static final int BENCH_ROWS = Integer.getInteger("bench.exportRows", 10_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TransactionExportService transactionExportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private Product product;
+    private Supplier supplier;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("export@ims.test", UserRole.MANAGER);
+        product = createProduct("EXP-1", createCategory("export"), "2.50", 0);
+        supplier = createSupplier("Acme, \"Global\"");
+    }
+
+    @Test
+    void streamsCsvInCreationOrderWithFilters() throws Exception {
+        seedTransactions(3, i -> sale(product, user, i + 1)
+                .transactionType(i == 1 ? TransactionType.PURCHASE : TransactionType.SALE)
+                .supplier(i == 1 ? supplier : null)
+                .description(i == 2 ? "line one\nline two" : "plain")
+                .build());
+        jdbcTemplate.update("UPDATE transactions SET created_at = TIMESTAMP '2025-03-10 10:00:00' + total_products * INTERVAL '1' DAY");
+
+        String csv = export("/api/transactions/export?format=csv&from=2025-03-01&to=2025-04-01",
+                "text/csv;charset=UTF-8", "transactions_2025-03-01_2025-04-01.csv");
+        String[] lines = csv.split("\r\n", -1);
+
+        assertTrue(lines[0].startsWith("id,created_at,transaction_type"));
+        assertEquals(5, lines.length, csv); // header, 3 rows (one multi-line), trailing empty
+        assertTrue(lines[1].contains(",2025-03-11T10:00,SALE,COMPLETED,1,2.50,"));
+        assertTrue(lines[2].contains(",PURCHASE,") && lines[2].contains(",\"Acme, \"\"Global\"\"\","));
+        assertTrue(lines[3].endsWith(",\"line one\nline two\""));
+
+        String purchases = export("/api/transactions/export?type=PURCHASE&to=2025-03-12",
+                "text/csv;charset=UTF-8", "transactions_2025-03-12.csv");
+        assertEquals(1, purchases.split("\r\n").length);
+    }
+
+    @Test
+    void streamsGzipNdjson() throws Exception {
+        seedTransactions(250, i -> sale(product, user, 1).status(TransactionStatus.PENDING).build());
+
+        MvcResult started = mockMvc.perform(get("/api/transactions/export?format=ndjson&gzip=true").with(user("export@ims.test").roles("MANAGER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(250, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("PENDING", first.get("status").asText());
+        assertEquals("EXP-1", first.get("productSku").asText());
+        assertEquals(2.5, first.get("totalPrice").asDouble());
+    }
+
+    @Test
+    void rejectsBadParametersBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/transactions/export?format=xlsx").with(user("export@ims.test").roles("MANAGER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions/export?from=2025-02-01&to=2025-01-01").with(user("export@ims.test").roles("MANAGER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void keepsNothingInMemoryWhileStreaming() throws Exception {
+        seedTransactions(BENCH_ROWS, i -> sale(product, user, 1).description("bench row " + i).build());
+
+        CountingOutputStream out = new CountingOutputStream();
+        long rows = transactionExportService.exportTransactions(
+                new TransactionExportCriteria(null, LocalDate.now().plusDays(1), null, null),
+                TransactionExportFormat.CSV, false, out);
+
+        assertEquals(BENCH_ROWS, rows);
+        assertTrue(out.bytes > BENCH_ROWS);
+        // rows are projections, the persistence context stays empty however large the export
+        assertEquals(0, out.maxManagedEntities);
+    }
+
+    private String export(String url, String contentType, String fileName) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).with(user("export@ims.test").roles("MANAGER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", contentType))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"" + fileName + "\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    // Discards the export, sampling the export transaction's persistence context on every buffer flush
+    private class CountingOutputStream extends OutputStream {
+        long bytes;
+        int maxManagedEntities;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            int managed = entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal()
+                    .getNumberOfManagedEntities();
+            maxManagedEntities = Math.max(maxManagedEntities, managed);
+        }
+    }
+}
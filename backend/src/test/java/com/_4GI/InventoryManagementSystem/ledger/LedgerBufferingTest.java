@@ -0,0 +1,143 @@
+package com._4GI.InventoryManagementSystem.ledger;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class LedgerBufferingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ringDrainsInOrderAndAppliesBackpressureUntilReleased() throws Exception {
+        LedgerRingBuffer<Integer> ring = new LedgerRingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.reserve(0, TimeUnit.MILLISECONDS));
+            ring.publish(i);
+        }
+        assertFalse(ring.reserve(10, TimeUnit.MILLISECONDS), "full buffer must refuse a fifth reservation");
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, ring.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        // drained but not released yet: the slots still count as pending
+        assertFalse(ring.reserve(0, TimeUnit.MILLISECONDS));
+        assertEquals(4, ring.pending());
+
+        ring.release(3);
+        assertTrue(ring.reserve(0, TimeUnit.MILLISECONDS));
+        ring.cancel();
+        assertEquals(1, ring.pending());
+        assertEquals(1, ring.drainTo(drained, 10));
+        assertEquals(3, drained.get(3));
+    }
+
+    @Test
+    void ringKeepsEveryValueOfConcurrentProducers() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        LedgerRingBuffer<Long> ring = new LedgerRingBuffer<>(1_024);
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p << 32;
+            pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.reserve(1, TimeUnit.MINUTES);
+                    ring.publish(base | i);
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+
+        // single consumer: every producer's values arrive complete and in its own order
+        long[] next = new long[producers];
+        List<Long> batch = new ArrayList<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            batch.clear();
+            int drained = ring.drainTo(batch, 256);
+            for (long value : batch) {
+                int producer = (int) (value >>> 32);
+                assertEquals(next[producer]++, value & 0xFFFFFFFFL);
+            }
+            ring.release(drained);
+            received += drained;
+        }
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(0, ring.pending());
+    }
+
+    @Test
+    void journalRoundTripsEntriesAndStopsAtATornRecord() throws IOException {
+        LedgerJournal journal = new LedgerJournal(directory, 1 << 20);
+        LedgerEntry full = entry(1L, "restock, 3 boxes");
+        LedgerEntry sparse = new LedgerEntry(2L, TransactionType.SALE, null, 7L, null, null, null, null, null,
+                LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000));
+        journal.append(full);
+        journal.append(sparse);
+        journal.close();   // both entries pending: the segment must survive
+
+        List<Path> segments = new LedgerJournal(directory, 1 << 20).recoveredSegments();
+        assertEquals(1, segments.size());
+        assertEquals(List.of(full, sparse), LedgerJournal.read(segments.get(0)));
+
+        // simulate a crash in the middle of a third append
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 5}));
+        }
+        assertEquals(List.of(full, sparse), LedgerJournal.read(segments.get(0)));
+    }
+
+    @Test
+    void journalDeletesFullSegmentsOnceWritten() throws IOException {
+        LedgerJournal journal = new LedgerJournal(directory, 64);
+        LedgerJournal.Segment first = journal.append(entry(1L, "first"));
+        journal.maintain();                               // over 64 bytes: rotated, still pending
+        LedgerJournal.Segment second = journal.append(entry(2L, "second"));
+        assertEquals(2, segmentCount());
+
+        first.written();
+        journal.maintain();                               // first deleted, second rotated, a third one opened
+        assertEquals(2, segmentCount());
+
+        second.written();
+        journal.close();
+        assertEquals(0, segmentCount());
+    }
+
+    private long segmentCount() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static LedgerEntry entry(long id, String description) {
+        return new LedgerEntry(id, TransactionType.PURCHASE, TransactionStatus.COMPLETED, 10L, 20L, 30L, 3,
+                new BigDecimal("7.50"), description, LocalDateTime.of(2025, 2, 28, 23, 59, 59));
+    }
+}
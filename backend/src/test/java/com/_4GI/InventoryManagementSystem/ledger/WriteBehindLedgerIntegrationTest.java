@@ -0,0 +1,223 @@
+package com._4GI.InventoryManagementSystem.ledger;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.LedgerStatsDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * The single-call endpoints with ims.ledger.write-behind.enabled, plus a latency comparison with the
+ * synchronous ledger that is tagged "loadtest" and only runs with {@code mvn -Ploadtest test}.
+ * Sizes can be raised with -Dbench.threads / -Dbench.opsPerThread.
+ */
+@SpringBootTest(properties = {
+        "ims.ledger.write-behind.enabled=true",
+        "ims.ledger.write-behind.flush-size=200",
+        "ims.ledger.write-behind.flush-interval-ms=20",
+        "ims.ledger.write-behind.journal-dir=${java.io.tmpdir}/ims-test/ledger-${random.uuid}"
+})
+class WriteBehindLedgerIntegrationTest extends IntegrationTestSupport {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 8);
+    private static final int OPS_PER_THREAD = Integer.getInteger("bench.opsPerThread", 250);
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionLedger ledger;
+
+    @TempDir
+    Path crashedJournal;
+
+    private User user;
+    private Supplier supplier;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("ledger@ims.test", UserRole.MANAGER);
+        supplier = createSupplier("ledger");
+        product = createProduct("WB-1", createCategory("ledger"), "2.00", 1_000_000);
+        authenticate(user);
+    }
+
+    @AfterEach
+    void drainBeforeCleanup() throws InterruptedException {
+        assertTrue(ledger.awaitWritten(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stockCommitsRightAwayAndLedgerRowsFollowInBatches() throws Exception {
+        LedgerStatsDTO before = ledger.stats();
+        transactionService.sell(request(5, null));
+        transactionService.restockInventory(request(7, supplier.getId()));
+        transactionService.returnToSupplier(request(2, supplier.getId()));
+
+        assertEquals(1_000_000 - 5 + 7 - 2, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+
+        assertTrue(ledger.awaitWritten(10, TimeUnit.SECONDS));
+        List<Transaction> rows = transactionRepository.findAll();
+        assertEquals(3, rows.size());
+        Transaction sale = rows.stream().filter(t -> t.getTransactionType() == TransactionType.SALE).findFirst().orElseThrow();
+        assertEquals(new BigDecimal("10.00"), sale.getTotalPrice());
+        assertEquals(TransactionStatus.COMPLETED, sale.getStatus());
+        assertTrue(sale.getCreatedAt().isAfter(LocalDateTime.now().minusMinutes(1)));
+
+        // the after-commit events carried the pre-assigned ids, the search index and the dashboard agree with the table
+        assertEquals(3, dashboardStats.snapshot().getTotalTransactions());
+
+        LedgerStatsDTO stats = ledger.stats();
+        assertTrue(stats.isWriteBehind());
+        assertEquals(3, stats.getRecorded() - before.getRecorded());
+        assertEquals(3, stats.getWritten() - before.getWritten());
+        assertEquals(0, stats.getQueueDepth());
+        assertTrue(stats.getFlushes() > before.getFlushes());
+    }
+
+    @Test
+    void rolledBackTransactionGivesItsSlotBackAndWritesNothing() throws Exception {
+        long recorded = ledger.stats().getRecorded();
+        transactionTemplate.executeWithoutResult(status -> {
+            ledger.record(sale(product, user, 1).build());
+            assertEquals(1, ledger.stats().getQueueDepth());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, ledger.stats().getQueueDepth());
+        assertEquals(recorded, ledger.stats().getRecorded());
+        assertTrue(ledger.awaitWritten(1, TimeUnit.SECONDS));
+        assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    void replaysEntriesLeftInAJournalByACrash() throws Exception {
+        transactionService.sell(request(1, null));
+        assertTrue(ledger.awaitWritten(10, TimeUnit.SECONDS));
+        long alreadyWritten = transactionRepository.findAll().get(0).getId();
+
+        // a previous run journaled two entries and died after writing only the first one
+        LedgerJournal journal = new LedgerJournal(crashedJournal, 1 << 20);
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        journal.append(new LedgerEntry(alreadyWritten, TransactionType.SALE, TransactionStatus.COMPLETED,
+                product.getId(), user.getId(), null, 1, new BigDecimal("2.00"), "bench", createdAt));
+        journal.append(new LedgerEntry(alreadyWritten + 1, TransactionType.PURCHASE, TransactionStatus.COMPLETED,
+                product.getId(), user.getId(), supplier.getId(), 4, new BigDecimal("8.00"), "lost", createdAt));
+        journal.close();
+
+        List<Path> segments = new LedgerJournal(crashedJournal, 1 << 20).recoveredSegments();
+        ledger.replay(segments);
+
+        assertEquals(2, transactionRepository.count());
+        Transaction restored = transactionRepository.findById(alreadyWritten + 1).orElseThrow();
+        assertEquals("lost", restored.getDescription());
+        assertEquals(createdAt, restored.getCreatedAt());
+        assertFalse(Files.exists(segments.get(0)));
+    }
+
+    @Test
+    @Tag("loadtest")
+    void writeBehindLowersSellLatency() throws Exception {
+        // warm up both paths
+        runConcurrently(20);
+        ReflectionTestUtils.setField(ledger, "writeBehind", false);
+        long[] synchronous;
+        try {
+            runConcurrently(20);
+            synchronous = runConcurrently(OPS_PER_THREAD);
+        } finally {
+            ReflectionTestUtils.setField(ledger, "writeBehind", true);
+        }
+        long[] writeBehind = runConcurrently(OPS_PER_THREAD);
+        assertTrue(ledger.awaitWritten(30, TimeUnit.SECONDS));
+
+        report("synchronous ledger", synchronous);
+        report("write-behind ledger", writeBehind);
+        LedgerStatsDTO stats = ledger.stats();
+        System.out.printf("[bench] write-behind: %d flushes, avg %.2f ms, max %.2f ms per flush%n",
+                stats.getFlushes(), stats.getAverageFlushMillis(), stats.getMaxFlushMillis());
+
+        assertEquals(2L * (20 + OPS_PER_THREAD) * THREADS, transactionRepository.count());
+    }
+
+    // Runs sells on THREADS threads released together, returns every call's latency in nanos
+    private long[] runConcurrently(int opsPerThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                authenticate(user);
+                long[] latencies = new long[opsPerThread];
+                try {
+                    start.await();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        long begin = System.nanoTime();
+                        transactionService.sell(request(1, null));
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return latencies;
+            }));
+        }
+
+        start.countDown();
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get(2, TimeUnit.MINUTES);
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        pool.shutdown();
+        return all;
+    }
+
+    private static void report(String label, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("[bench] %s: %d sells on %d threads, p50 %.3f ms, p99 %.3f ms%n",
+                label, sorted.length, THREADS,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+
+    private TransactionRequest request(int quantity, Long supplierId) {
+        return new TransactionRequest(product.getId(), quantity, supplierId, "bench");
+    }
+}
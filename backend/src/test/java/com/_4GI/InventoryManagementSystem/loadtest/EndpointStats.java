@@ -0,0 +1,62 @@
+package com._4GI.InventoryManagementSystem.loadtest;
+
+import java.util.Arrays;
+
+
+/**
+ * Latencies and outcomes of one endpoint, recorded by a single client thread and merged once the run is over,
+ * so recording never contends.
+ */
+final class EndpointStats {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private int errors;
+    private int shed;
+
+    void record(long latencyNanos, int status, boolean shedding) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        if (shedding) {
+            shed++;
+        } else if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    void merge(EndpointStats other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        shed += other.shed;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    // Answered with a deliberate 503/429 (hashing pool full, rate limited), neither a success nor an error
+    int shed() {
+        return shed;
+    }
+
+    // Nearest-rank percentile in milliseconds, 0 without samples
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(rank, 0)] / 1e6;
+    }
+}
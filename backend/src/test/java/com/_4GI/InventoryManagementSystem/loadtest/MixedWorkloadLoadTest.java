@@ -0,0 +1,278 @@
+package com._4GI.InventoryManagementSystem.loadtest;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.security.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * The application on a random port against the embedded database, seeded with -Dload.products/suppliers/users/
+ * transactions rows, under a mixed workload through the REST API: sell, purchase and return, catalog reads, transaction
+ * pages and searches, and logins, from -Dload.clients virtual-thread clients for -Dload.seconds. Reports throughput
+ * and p50/p95/p99 per endpoint (also written to -Dload.result) and fails on the limits of loadtest.properties.
+ * Tagged "loadtest" and left out of the regular build, run with {@code mvn -Ploadtest test}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MixedWorkloadLoadTest extends IntegrationTestSupport {
+
+    private static final int PRODUCTS = Integer.getInteger("load.products", 2_000);
+    private static final int SUPPLIERS = Integer.getInteger("load.suppliers", 50);
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int TRANSACTIONS = Integer.getInteger("load.transactions", 50_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 5);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final String RESULT = System.getProperty("load.result", "target/loadtest-result.json");
+    private static final String PASSWORD = "load-test";
+    private static final String[] SEARCH_TERMS = {"restock", "sale", "return", "LOAD-1", "product LOAD-42"};
+
+    // The mix, by weight
+    enum Endpoint {
+        SELL(30), PURCHASE(10), RETURN(5), PRODUCT(20), PRODUCTS(3), TRANSACTIONS(12), SEARCH(12), LOGIN(2);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    // Rows of the result file, latencies in ms
+    record EndpointResult(int requests, double throughput, double p50, double p95, double p99, int errors, int shed) {
+    }
+
+    record TotalResult(int clients, int seconds, int requests, double throughput, double errorRate) {
+    }
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<User> users;
+    private List<String> tokens;
+    private List<Product> products;
+    private List<Supplier> suppliers;
+    private HttpClient http;
+
+    @BeforeEach
+    void seed() {
+        long begin = System.nanoTime();
+        String hash = passwordEncoder.encode(PASSWORD);
+        users = userRepository.saveAll(IntStream.range(0, USERS).mapToObj(i -> User.builder()
+                .name("load " + i).email("load" + i + "@ims.test").password(hash).phoneNumber("0000")
+                .role(UserRole.ADMIN).build()).toList());
+        tokens = users.stream().map(jwtUtils::generateToken).toList();
+        suppliers = supplierRepository.saveAll(IntStream.range(0, SUPPLIERS)
+                .mapToObj(i -> Supplier.builder().name("supplier " + i).build()).toList());
+        Category category = createCategory("load");
+        products = productRepository.saveAll(IntStream.range(0, PRODUCTS).mapToObj(i -> Product.builder()
+                .name("product LOAD-" + i).sku("LOAD-" + i).price(new BigDecimal("4.75")).stockQuantity(1_000_000)
+                .category(category).position(i).build()).toList());
+        seedTransactions(TRANSACTIONS, i -> sale(products.get(i % PRODUCTS), users.get(i % USERS), i % 5 + 1)
+                .transactionType(TransactionType.values()[i % 3])
+                .supplier(i % 3 == 0 ? null : suppliers.get(i % SUPPLIERS))
+                .description(TransactionType.values()[i % 3] == TransactionType.PURCHASE ? "restock " + i : "sale " + i)
+                .build());
+        System.out.printf("[bench] load test seeded %d products, %d suppliers, %d users, %d transactions in %.1f s%n",
+                PRODUCTS, SUPPLIERS, USERS, TRANSACTIONS, (System.nanoTime() - begin) / 1e9);
+
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinLimits() throws Exception {
+        run(WARMUP_SECONDS);
+        Map<Endpoint, EndpointStats> stats = run(SECONDS);
+
+        Properties limits = limits();
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> result = new LinkedHashMap<>();
+        int requests = 0;
+        int errors = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            String name = entry.getKey().name().toLowerCase();
+            EndpointStats endpoint = entry.getValue();
+            double p50 = endpoint.percentileMillis(50);
+            double p95 = endpoint.percentileMillis(95);
+            double p99 = endpoint.percentileMillis(99);
+            System.out.printf("[bench] load %-12s %7d requests %8.1f req/s  p50 %7.1f ms  p95 %7.1f ms  p99 %7.1f ms"
+                            + "  errors %d  shed %d%n", name, endpoint.count(), endpoint.count() / (double) SECONDS,
+                    p50, p95, p99, endpoint.errors(), endpoint.shed());
+            result.put(name, new EndpointResult(endpoint.count(), endpoint.count() / (double) SECONDS, p50, p95, p99,
+                    endpoint.errors(), endpoint.shed()));
+            requests += endpoint.count();
+            errors += endpoint.errors();
+
+            String maxP99 = limit(limits, "load.max.p99." + name);
+            if (maxP99 != null && p99 > Double.parseDouble(maxP99)) {
+                violations.add("%s p99 %.1f ms > %s ms".formatted(name, p99, maxP99));
+            }
+        }
+        double throughput = requests / (double) SECONDS;
+        double errorRate = requests == 0 ? 1 : errors / (double) requests;
+        System.out.printf("[bench] load total %d clients, %d requests in %d s, %.1f req/s, error rate %.4f%n",
+                CLIENTS, requests, SECONDS, throughput, errorRate);
+        result.put("total", new TotalResult(CLIENTS, SECONDS, requests, throughput, errorRate));
+        File file = new File(RESULT);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, result);
+
+        if (throughput < Double.parseDouble(limit(limits, "load.min.throughput"))) {
+            violations.add("throughput %.1f req/s < %s".formatted(throughput, limit(limits, "load.min.throughput")));
+        }
+        if (errorRate > Double.parseDouble(limit(limits, "load.max.error-rate"))) {
+            violations.add("error rate %.4f > %s".formatted(errorRate, limit(limits, "load.max.error-rate")));
+        }
+        assertTrue(violations.isEmpty(), violations.toString());
+    }
+
+    // Every client loops over the weighted mix until the deadline, then their stats are merged per endpoint
+    private Map<Endpoint, EndpointStats> run(int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Map<Endpoint, EndpointStats>>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                long seed = i;
+                clients.add(executor.submit(() -> client(new SplittableRandom(seed), deadline)));
+            }
+        }
+        Map<Endpoint, EndpointStats> merged = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            merged.put(endpoint, new EndpointStats());
+        }
+        for (Future<Map<Endpoint, EndpointStats>> client : clients) {
+            client.get().forEach((endpoint, stats) -> merged.get(endpoint).merge(stats));
+        }
+        return merged;
+    }
+
+    private Map<Endpoint, EndpointStats> client(SplittableRandom random, long deadline) throws Exception {
+        int totalWeight = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            totalWeight += endpoint.weight;
+        }
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        while (System.nanoTime() < deadline) {
+            int pick = random.nextInt(totalWeight);
+            Endpoint endpoint = Endpoint.values()[0];
+            for (Endpoint candidate : Endpoint.values()) {
+                if (pick < candidate.weight) {
+                    endpoint = candidate;
+                    break;
+                }
+                pick -= candidate.weight;
+            }
+            HttpRequest request = request(endpoint, random);
+            long begin = System.nanoTime();
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            // logins beyond the hashing pool and rate-limited calls are shed on purpose
+            boolean shedding = status == 429 || endpoint == Endpoint.LOGIN && status == 503;
+            stats.computeIfAbsent(endpoint, e -> new EndpointStats())
+                    .record(System.nanoTime() - begin, status, shedding);
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+        int user = random.nextInt(USERS);
+        long productId = products.get(random.nextInt(PRODUCTS)).getId();
+        long supplierId = suppliers.get(random.nextInt(SUPPLIERS)).getId();
+        return switch (endpoint) {
+            case SELL -> post("/api/transactions/sell", user,
+                    "{\"productId\": %d, \"quantity\": %d}".formatted(productId, random.nextInt(1, 4)));
+            case PURCHASE -> post("/api/transactions/purchase", user,
+                    "{\"productId\": %d, \"quantity\": %d, \"supplierId\": %d, \"description\": \"restock\"}"
+                            .formatted(productId, random.nextInt(5, 20), supplierId));
+            case RETURN -> post("/api/transactions/return", user,
+                    "{\"productId\": %d, \"quantity\": 1, \"supplierId\": %d, \"description\": \"damaged\"}"
+                            .formatted(productId, supplierId));
+            case PRODUCT -> get("/api/products/" + productId, user);
+            case PRODUCTS -> get("/api/products/all", user);
+            case TRANSACTIONS -> get("/api/transactions/all?limit=50", user);
+            case SEARCH -> get("/api/transactions/all?page=0&size=20&searchText="
+                    + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "%20"), user);
+            case LOGIN -> HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\": \"%s\", \"password\": \"%s\"}"
+                            .formatted(users.get(user).getEmail(), PASSWORD)))
+                    .build();
+        };
+    }
+
+    private HttpRequest get(String path, int user) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + tokens.get(user)).GET().build();
+    }
+
+    private HttpRequest post(String path, int user, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + tokens.get(user))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Properties limits() throws IOException {
+        Properties limits = new Properties();
+        try (InputStream in = MixedWorkloadLoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) {
+                limits.load(in);
+            }
+        }
+        return limits;
+    }
+
+    // A -D system property wins over the file
+    private static String limit(Properties limits, String key) {
+        return System.getProperty(key, limits.getProperty(key));
+    }
+}
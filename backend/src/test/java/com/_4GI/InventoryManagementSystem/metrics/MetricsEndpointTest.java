@@ -0,0 +1,142 @@
+package com._4GI.InventoryManagementSystem.metrics;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.security.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+/**
+ * The meters move with the requests that feed them, and the scrape endpoint serves them to admins only.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest extends IntegrationTestSupport {
+
+    private static final String SELL_BODY = "{\"productId\": %d, \"quantity\": %d, \"description\": \"metrics\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String authorization;
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        User admin = createUser("metrics@ims.test", UserRole.ADMIN);
+        authorization = "Bearer " + jwtUtils.generateToken(admin);
+        category = createCategory("metrics");
+        product = createProduct("MET-1", category, "2.00", 3);
+    }
+
+    @Test
+    void requestsMoveTheirMeters() throws Exception {
+        double sold = count("ims.transactions.recorded", "type", "SALE", "status", "COMPLETED");
+        double insufficient = count("ims.stock.insufficient", "source", "single");
+        double insufficientLines = count("ims.stock.insufficient", "source", "batch");
+        long verifications = meterRegistry.get("ims.security.jwt.verify").timer().count();
+        long rejectedMutations = meterRegistry.get("ims.stock.mutations").tag("outcome", "insufficient_stock").timer().count();
+
+        sell(2).andExpect(status().isOk());
+        sell(5).andExpect(status().isConflict());
+        mockMvc.perform(post("/api/transactions/batch").header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"transactionType\": \"SALE\", \"productId\": %d, \"quantity\": 9}]".formatted(product.getId())))
+                .andExpect(status().isOk());
+
+        assertEquals(sold + 1, count("ims.transactions.recorded", "type", "SALE", "status", "COMPLETED"));
+        assertEquals(insufficient + 1, count("ims.stock.insufficient", "source", "single"));
+        assertEquals(insufficientLines + 1, count("ims.stock.insufficient", "source", "batch"));
+        assertEquals(verifications + 3, meterRegistry.get("ims.security.jwt.verify").timer().count());
+        assertEquals(rejectedMutations + 1,
+                meterRegistry.get("ims.stock.mutations").tag("outcome", "insufficient_stock").timer().count());
+        // the sell's statements, the filter's user lookup included
+        assertTrue(meterRegistry.get("ims.hibernate.statements").tag("uri", "/api/transactions/sell")
+                .summary().max() > 0);
+    }
+
+    @Test
+    void imageUploadsAreMetered() throws Exception {
+        double bytes = count("ims.product.image.upload.bytes");
+        MockMultipartFile image = new MockMultipartFile("imageFile", "shelf.png", "image/png", new byte[4096]);
+
+        mockMvc.perform(multipart("/api/products/add").file(image)
+                        .header("Authorization", authorization)
+                        .param("name", "Shelf").param("sku", "MET-2").param("price", "9.90")
+                        .param("stockQuantity", "1").param("categoryId", String.valueOf(category.getId())))
+                .andExpect(status().isOk());
+
+        assertEquals(bytes + 4096, count("ims.product.image.upload.bytes"));
+        assertTrue(meterRegistry.get("ims.product.image.upload.throughput").summary().count() > 0);
+    }
+
+    @Test
+    void prometheusScrapeNeedsAnAdminToken() throws Exception {
+        User manager = createUser("metrics-manager@ims.test", UserRole.MANAGER);
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + jwtUtils.generateToken(manager)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusScrapeServesTheMeters() throws Exception {
+        sell(1).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String metric : new String[]{
+                "http_server_requests_seconds_bucket{",
+                "uri=\"/api/transactions/sell\"",
+                "ims_transactions_recorded_total{",
+                "ims_stock_mutations_seconds_count{",
+                "ims_security_jwt_verify_seconds_count",
+                "ims_hibernate_statements_count{",
+                "hikaricp_connections_pending{",
+                "hikaricp_connections_active{",
+                "ims_stock_dispatcher_queue_depth",
+                "ims_security_principal_cache_hits_total",
+                "ims_security_hashing_queued",
+                "ims_ratelimit_rejected_total"}) {
+            assertTrue(scrape.contains(metric), metric);
+        }
+    }
+
+    private ResultActions sell(int quantity) throws Exception {
+        return mockMvc.perform(post("/api/transactions/sell").header("Authorization", authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SELL_BODY.formatted(product.getId(), quantity)));
+    }
+
+    private double count(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+}
@@ -0,0 +1,148 @@
+package com._4GI.InventoryManagementSystem.repository;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.CategoryDTO;
+import com._4GI.InventoryManagementSystem.dto.LegacyModelMapper;
+import com._4GI.InventoryManagementSystem.dto.ProductDTO;
+import com._4GI.InventoryManagementSystem.dto.SupplierDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.UserDTO;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+/**
+ * The read-side projections against the former entity + ModelMapper path: same output, and rows/s and bytes allocated
+ * per row in a comparison tagged "loadtest" that only runs with {@code mvn -Ploadtest test}.
+ * Sizes can be raised with -Dbench.readRows / -Dbench.readRounds.
+ */
+class ReadProjectionBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int ROWS = Integer.getInteger("bench.readRows", 20_000);
+    private static final int ROUNDS = Integer.getInteger("bench.readRounds", 5);
+    private static final int PRODUCTS = 500;
+    private static final int COMPARED_ROWS = 1_000;
+
+    private final ModelMapper modelMapper = LegacyModelMapper.create();
+
+    @Test
+    void projectionsMatchTheMappedEntities() {
+        seed(COMPARED_ROWS);
+        Pageable page = PageRequest.of(0, COMPARED_ROWS, Sort.by(Sort.Direction.DESC, "id"));
+        List<TransactionDTO> projected = transactionRepository.searchTransactions(null, page).getContent();
+        List<TransactionDTO> mapped = transactionTemplate.execute(status ->
+                transactionRepository.findAll(page).getContent().stream()
+                        .map(t -> withFlattenedFields(t, modelMapper.map(t, TransactionDTO.class)))
+                        .toList());
+        assertEquals(mapped, projected);
+
+        assertEquals(productRepository.findAllByOrderByPositionAsc().stream().map(p -> modelMapper.map(p, ProductDTO.class)).toList(),
+                productRepository.findAllDtosOrderByPosition());
+        assertEquals(categoryRepository.findAllOrdered().stream().map(c -> modelMapper.map(c, CategoryDTO.class)).toList(),
+                categoryRepository.findAllDtosOrdered());
+        assertEquals(supplierRepository.findAll(Sort.by(Sort.Direction.DESC, "id")).stream().map(s -> modelMapper.map(s, SupplierDTO.class)).toList(),
+                supplierRepository.findAllDtos());
+
+        List<UserDTO> users = userRepository.findAll(Sort.by(Sort.Direction.DESC, "id")).stream()
+                .map(u -> modelMapper.map(u, UserDTO.class))
+                .peek(u -> u.setPassword(null))
+                .toList();
+        assertEquals(users, userRepository.findAllDtos());
+        assertNull(userRepository.findAllDtos().get(0).getPassword());
+    }
+
+    @Test
+    @Tag("loadtest")
+    void reportsThroughputAndAllocationPerRow() {
+        seed(ROWS);
+        Pageable page = PageRequest.of(0, ROWS, Sort.by(Sort.Direction.DESC, "id"));
+
+        // the entity path maps inside a transaction, ModelMapper touches the lazy product/user/supplier proxies
+        measure("transactions", ROWS,
+                () -> transactionTemplate.execute(status -> transactionRepository.findAll(page).getContent().stream()
+                        .map(t -> modelMapper.map(t, TransactionDTO.class)).toList()),
+                () -> transactionRepository.searchTransactions(null, page).getContent());
+        measure("products", PRODUCTS,
+                () -> productRepository.findAllByOrderByPositionAsc().stream()
+                        .map(p -> modelMapper.map(p, ProductDTO.class)).toList(),
+                () -> productRepository.findAllDtosOrderByPosition());
+    }
+
+    private void seed(int rows) {
+        User user = createUser("read@ims.test", UserRole.ADMIN);
+        Category category = createCategory("read");
+        var supplier = createSupplier("read supplier");
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(createProduct("R-" + i, category, "1.50", i));
+        }
+        seedTransactions(rows, i -> sale(products.get(i % PRODUCTS), user, 1)
+                .supplier(i % 2 == 0 ? supplier : null)
+                .build());
+    }
+
+    // the former DTO had no product/supplier fields, fill them from the entity to compare the rest
+    private static TransactionDTO withFlattenedFields(Transaction t, TransactionDTO dto) {
+        if (t.getProduct() != null) {
+            dto.setProductId(t.getProduct().getId());
+            dto.setProductName(t.getProduct().getName());
+            dto.setProductSku(t.getProduct().getSku());
+        }
+        if (t.getSupplier() != null) {
+            dto.setSupplierId(t.getSupplier().getId());
+            dto.setSupplierName(t.getSupplier().getName());
+        }
+        return dto;
+    }
+
+    private void measure(String label, int rows, Supplier<List<?>> entityPath,
+                         Supplier<List<?>> projectionPath) {
+        // warm up both paths
+        for (int i = 0; i < 2; i++) {
+            entityPath.get();
+            projectionPath.get();
+        }
+        Result entities = run(entityPath, rows);
+        Result projections = run(projectionPath, rows);
+
+        System.out.printf("[bench] %s x%d: entity+ModelMapper %.0f rows/s %.0f B/row | projection %.0f rows/s %.0f B/row (%.1fx faster, %.1fx less allocation)%n",
+                label, rows, entities.rowsPerSecond, entities.bytesPerRow, projections.rowsPerSecond, projections.bytesPerRow,
+                projections.rowsPerSecond / entities.rowsPerSecond, entities.bytesPerRow / projections.bytesPerRow);
+    }
+
+    private record Result(double rowsPerSecond, double bytesPerRow) {
+    }
+
+    private static Result run(Supplier<List<?>> path, int rows) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long begin = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            assertEquals(rows, path.get().size());
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        long total = (long) rows * ROUNDS;
+        return new Result(total / (elapsed / 1e9), (double) allocated / total);
+    }
+}
@@ -0,0 +1,101 @@
+package com._4GI.InventoryManagementSystem.repository;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementRecorder;
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TransactionMonthQueryTest extends IntegrationTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        User user = createUser("month@ims.test", UserRole.ADMIN);
+        Product product = createProduct("MONTH", createCategory("month"), "3.00", 0);
+
+        // 10 rows per day from Feb 25th to Apr 5th 2026, every 4th one a pending purchase
+        seedTransactions(400, i -> sale(product, user, 1)
+                .transactionType(i % 4 == 0 ? TransactionType.PURCHASE : TransactionType.SALE)
+                .status(i % 4 == 0 ? TransactionStatus.PENDING : TransactionStatus.COMPLETED)
+                .description(String.valueOf(i))
+                .build());
+        // created_at is set by @CreationTimestamp, backdate it through SQL
+        jdbcTemplate.update("UPDATE transactions SET created_at = DATEADD('MINUTE', CAST(description AS INT) * 144, " +
+                "TIMESTAMP '2026-02-25 00:00:00')");
+    }
+
+    @Test
+    void returnsOnlyTheRequestedMonthWithFilters() {
+        // March 2026 = days 4 to 34 of the seeded range = rows 40..349
+        assertEquals(310, transactionService.getAllTransactionByMonthAndYear(3, 2026).getTransactions().size());
+
+        Response purchases = transactionService.getAllTransactionByMonthAndYear(3, 2026,
+                TransactionType.PURCHASE, TransactionStatus.PENDING, null, null);
+        assertTrue(purchases.getTransactions().stream()
+                .allMatch(t -> t.getTransactionType() == TransactionType.PURCHASE && t.getStatus() == TransactionStatus.PENDING));
+        assertEquals(78, purchases.getTransactions().size());
+        assertNull(purchases.getHasNext());
+    }
+
+    @Test
+    void pagesWithoutCountQuery() {
+        Response first = transactionService.getAllTransactionByMonthAndYear(3, 2026, null, null, 0, 300);
+        Response second = transactionService.getAllTransactionByMonthAndYear(3, 2026, null, null, 1, 300);
+
+        assertEquals(300, first.getTransactions().size());
+        assertTrue(first.getHasNext());
+        assertEquals(10, second.getTransactions().size());
+        assertFalse(second.getHasNext());
+    }
+
+    @Test
+    void monthRangeQueryUsesTheCreatedAtIndex() {
+        // the statement Hibernate generates for findAllCreatedBetween, as the month report runs it
+        SqlStatementRecorder.clear();
+        transactionService.getAllTransactionByMonthAndYear(3, 2026, null, null, 0, 50);
+        List<String> generated = SqlStatementRecorder.selectsFrom("transactions").stream()
+                .filter(sql -> sql.contains("created_at") && sql.contains("order by"))
+                .toList();
+        assertEquals(1, generated.size(), generated::toString);
+
+        // from and to come first; type, status and the page bounds are left unbound (null)
+        Object[] parameters = new Object[(int) generated.get(0).chars().filter(c -> c == '?').count()];
+        parameters[0] = LocalDateTime.of(2026, 3, 1, 0, 0);
+        parameters[1] = LocalDateTime.of(2026, 4, 1, 0, 0);
+        String rangePlan = explain(generated.get(0), parameters);
+        String functionPlan = explain("SELECT * FROM transactions t " +
+                "WHERE YEAR(t.created_at) = 2026 AND MONTH(t.created_at) = 3");
+
+        assertTrue(rangePlan.contains("idx_transactions_created_at"), rangePlan);
+        // the former YEAR()/MONTH() form cannot use it
+        assertTrue(functionPlan.contains("tablescan"), functionPlan);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters))
+                .toLowerCase(Locale.ROOT);
+    }
+}
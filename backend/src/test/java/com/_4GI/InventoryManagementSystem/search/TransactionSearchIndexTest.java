@@ -0,0 +1,128 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Matching and ranking of the trigram index, plus its latency at a million rows against a full scan, which is
+ * tagged "loadtest" and only runs with {@code mvn -Ploadtest test}.
+ */
+class TransactionSearchIndexTest {
+
+    // -Dbench.searchRows=5000000 for a bigger run (needs a larger heap)
+    private static final int BENCH_ROWS = Integer.getInteger("bench.searchRows", 1_000_000);
+
+    @Test
+    void matchesSubstringsIgnoringCaseAndAccents() {
+        TransactionSearchIndex index = new TransactionSearchIndex();
+        index.add(1, "Écran livré au dépôt", TransactionStatus.COMPLETED, null);
+        index.add(2, "clavier", TransactionStatus.COMPLETED, null);
+        index.add(3, null, TransactionStatus.PENDING, null);
+
+        assertEquals(List.of(1L), index.search("DEPOT", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("ecran liv", 0, 10).ids());
+        assertEquals(List.of(2L), index.search("vi", 0, 10).ids());
+        assertEquals(List.of(3L), index.search("pend", 0, 10).ids());
+        assertEquals(0, index.search("zzz", 0, 10).total());
+    }
+
+    @Test
+    void ranksSkuThenNameThenDescriptionThenRecency() {
+        TransactionSearchIndex index = new TransactionSearchIndex();
+        index.putProduct(10, "Laptop stand", "LS-1");
+        index.putProduct(11, "Mouse", "LAPTOP-MOUSE");
+        index.add(1, "laptop bag", TransactionStatus.COMPLETED, null);
+        index.add(2, "restock", TransactionStatus.COMPLETED, 10L);
+        index.add(3, "restock", TransactionStatus.COMPLETED, 11L);
+        index.add(4, "laptop bag again", TransactionStatus.COMPLETED, null);
+
+        SearchHits hits = index.search("laptop", 0, 10);
+
+        assertEquals(4, hits.total());
+        assertEquals(List.of(3L, 2L, 4L, 1L), hits.ids());
+        assertEquals(List.of(2L, 4L), index.search("laptop", 1, 2).ids());
+    }
+
+    @Test
+    void followsStatusAndProductChanges() {
+        TransactionSearchIndex index = new TransactionSearchIndex();
+        index.putProduct(10, "Chair", "CH-1");
+        index.add(1, "order", TransactionStatus.PROCESSING, 10L);
+
+        index.updateStatus(1, TransactionStatus.CANCELED);
+        index.putProduct(10, "Gaming chair", "CH-1");
+
+        assertEquals(0, index.search("processing", 0, 10).total());
+        assertEquals(List.of(1L), index.search("canceled", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("gaming", 0, 10).ids());
+
+        index.removeProduct(10);
+        assertEquals(0, index.search("gaming", 0, 10).total());
+    }
+
+    @Test
+    void searchBeforeIsRecencyOrderedBelowTheCursor() {
+        TransactionSearchIndex index = new TransactionSearchIndex();
+        for (long id = 1; id <= 10; id++) {
+            index.add(id, id % 2 == 0 ? "even sale" : "odd sale", TransactionStatus.COMPLETED, null);
+        }
+
+        assertEquals(List.of(10L, 8L, 6L), index.searchBefore("even", Long.MAX_VALUE, 3));
+        assertEquals(List.of(4L, 2L), index.searchBefore("even", 6, 3));
+    }
+
+    @Test
+    @Tag("loadtest")
+    void searchLatencyAtOneMillionTransactions() {
+        String[] words = {"laptop", "écran", "clavier", "souris", "casque", "imprimante", "chaise", "montre",
+                "smartphone", "enceinte", "retour", "livraison", "promo", "client", "magasin", "stock"};
+        Random random = new Random(42);
+        TransactionSearchIndex index = new TransactionSearchIndex();
+        String[] corpus = new String[BENCH_ROWS];
+
+        for (int p = 1; p <= 500; p++) {
+            index.putProduct(p, "product " + words[p % words.length] + " " + p, "SKU-" + p);
+        }
+
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < BENCH_ROWS; i++) {
+            corpus[i] = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " ref " + random.nextInt(100_000);
+            index.add(i + 1, corpus[i], TransactionStatus.COMPLETED, (long) (1 + random.nextInt(500)));
+        }
+        long buildNanos = System.nanoTime() - buildStart;
+
+        String query = "ref 4242";
+        int expected = 0;
+        long scanStart = System.nanoTime();
+        for (String description : corpus) {
+            if (TransactionSearchIndex.normalize(description).contains(query)) {
+                expected++;
+            }
+        }
+        long scanNanos = System.nanoTime() - scanStart;
+
+        // warm up, then best of a few runs
+        long best = Long.MAX_VALUE;
+        SearchHits hits = null;
+        for (int run = 0; run < 10; run++) {
+            long begin = System.nanoTime();
+            hits = index.search(query, 0, 50);
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+
+        System.out.printf("[bench] search over %d transactions: index %.2f ms, full scan %.2f ms (build %.1f s)%n",
+                BENCH_ROWS, best / 1e6, scanNanos / 1e6, buildNanos / 1e9);
+
+        assertEquals(expected, hits.total());
+        assertTrue(hits.ids().size() <= 50);
+    }
+}
@@ -0,0 +1,111 @@
+package com._4GI.InventoryManagementSystem.search;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementRecorder;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TransactionSearchIntegrationTest extends IntegrationTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Product laptop;
+    private Product chair;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("search@ims.test", UserRole.ADMIN);
+        Category category = createCategory("search");
+        laptop = createProduct("LAP-01", category, "900.00", 1_000);
+        chair = createProduct("CHR-02", category, "80.00", 1_000);
+
+        seedTransactions(300, i -> sale(i % 3 == 0 ? chair : laptop, user, 1)
+                .description(i % 7 == 0 ? "Livraison dépôt " + i : "vente comptoir " + i)
+                .build());
+    }
+
+    // accent folding is covered by TransactionSearchIndexTest, H2's LIKE is accent-sensitive unlike MySQL's collation
+    @Test
+    void indexReturnsTheSameRowsAsTheSqlSearch() {
+        for (String text : List.of("lap", "chr-02", "livraison", "comptoir 1", "complet", "product")) {
+            List<Long> sqlIds = transactionRepository.searchTransactions(text, PageRequest.of(0, 1_000))
+                    .stream().map(TransactionDTO::getId).sorted().toList();
+            List<Long> indexIds = transactionService.getAllTransactions(0, 1_000, text).getTransactions()
+                    .stream().map(TransactionDTO::getId).sorted().toList();
+
+            assertEquals(sqlIds, indexIds, "search for '" + text + "'");
+        }
+    }
+
+    @Test
+    void committedWritesAreSearchableImmediately() {
+        authenticate(user);
+        transactionService.sell(new TransactionRequest(chair.getId(), 2, null, "flash promo"));
+
+        List<TransactionDTO> hits = transactionService.getAllTransactions(0, 10, "flash promo").getTransactions();
+
+        assertEquals(1, hits.size());
+        assertTrue(hits.get(0).getDescription().contains("flash"));
+    }
+
+    @Test
+    void catchUpPicksUpProductsRenamedByAnotherInstance() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE Product p SET p.name = 'Ergonomic seat', p.updatedAt = :now WHERE p.id = :id")
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("id", chair.getId())
+                .executeUpdate());
+        assertEquals(0, searchIndexer.search("ergonomic", 0, 10).total());
+
+        searchIndexer.refresh();
+
+        assertEquals(100, searchIndexer.search("ergonomic", 0, 1_000).total());
+    }
+
+    @Test
+    void catchUpQueryUsesTheUpdatedAtIndex() {
+        // the statement Hibernate generates for findSearchRowsChangedSince, as the scheduled catch-up runs it
+        SqlStatementRecorder.clear();
+        searchIndexer.refresh();
+        List<String> generated = SqlStatementRecorder.selectsFrom("transactions").stream()
+                .filter(sql -> sql.contains("updated_at"))
+                .toList();
+        assertEquals(1, generated.size(), generated::toString);
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(1);
+        String catchUpPlan = explain(generated.get(0), since);
+        String orPlan = explain("SELECT t.id FROM transactions t WHERE t.created_at >= ? OR t.updated_at >= ?",
+                since, since);
+
+        assertTrue(catchUpPlan.contains("idx_transactions_updated_at"), catchUpPlan);
+        // the former created_at OR updated_at filter read the whole table
+        assertTrue(orPlan.contains("tablescan"), orPlan);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters))
+                .toLowerCase(Locale.ROOT);
+    }
+}
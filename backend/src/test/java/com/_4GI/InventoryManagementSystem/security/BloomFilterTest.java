@@ -0,0 +1,29 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class BloomFilterTest {
+
+    @Test
+    void hasNoFalseNegativesAndAboutTheConfiguredFalsePositives() {
+        int capacity = 10_000;
+        BloomFilter filter = new BloomFilter(capacity, 0.01);
+        for (int i = 0; i < capacity; i++) {
+            filter.add("jti:" + i);
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(filter.mightContain("jti:" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("sub:user" + i + "@ims.test")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000");
+    }
+}
@@ -0,0 +1,87 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementRecorder;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+/**
+ * A sell reuses the user AuthFilter loaded instead of querying it again by email.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CurrentUserResolverTest extends IntegrationTestSupport {
+
+    private static final String SELL_BODY = "{\"productId\": %d, \"quantity\": 1, \"description\": \"counter\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("cashier@ims.test", UserRole.MANAGER);
+        product = createProduct("CUR-1", createCategory("current"), "3.00", 100);
+    }
+
+    @Test
+    void sellWithBearerTokenLoadsTheUserOnlyInTheFilter() throws Exception {
+        String token = jwtUtils.generateToken(user);
+
+        SqlStatementRecorder.clear();
+        mockMvc.perform(post("/api/transactions/sell")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SELL_BODY.formatted(product.getId())))
+                .andExpect(status().isOk());
+
+        // the filter's loadUserByUsername, no second lookup in the service
+        assertEquals(1, SqlStatementRecorder.selectsFrom("users").size(), SqlStatementRecorder.statements().toString());
+        assertEquals(user.getId(), transactionRepository.findAll().get(0).getUser().getId());
+    }
+
+    @Test
+    void sellOfAnAuthenticatedServiceCallIssuesNoUserSelect() {
+        authenticate(user);
+
+        SqlStatementRecorder.clear();
+        transactionService.sell(new TransactionRequest(product.getId(), 2, null, "counter", null));
+
+        assertEquals(0, SqlStatementRecorder.selectsFrom("users").size(), SqlStatementRecorder.statements().toString());
+        assertEquals(98, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void otherPrincipalsAreLookedUpOncePerRequest() throws Exception {
+        SqlStatementRecorder.clear();
+        mockMvc.perform(post("/api/transactions/sell")
+                        .with(user("cashier@ims.test").roles("MANAGER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SELL_BODY.formatted(product.getId())))
+                .andExpect(status().isOk());
+
+        assertEquals(1, SqlStatementRecorder.selectsFrom("users").size(), SqlStatementRecorder.statements().toString());
+    }
+}
@@ -0,0 +1,72 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * AuthFilter and JwtUtils as they were before the verified-token cache: four parser builds and signature checks
+ * per request. Kept as the baseline of the filter benchmark.
+ */
+public class LegacyAuthFilter extends OncePerRequestFilter {
+
+    private final SecretKey key;
+    private final UserDetailsService userDetailsService;
+
+    public LegacyAuthFilter(SecretKey key, UserDetailsService userDetailsService) {
+        this.key = key;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String token = authHeader.substring(7);
+        String email = extractClaims(token, Claims::getSubject);
+        String role = extractClaims(token, claims -> claims.get("role", String.class));
+
+        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (isTokenValid(token, userDetails)) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isTokenValid(String token, UserDetails userDetails) {
+        String username = extractClaims(token, Claims::getSubject);
+        return username.equals(userDetails.getUsername()) && !extractClaims(token, Claims::getExpiration).before(new Date());
+    }
+
+    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
+        return claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+    }
+}
@@ -0,0 +1,175 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+/**
+ * Catalog and transaction reads during a login storm: logins beyond the hashing pool are turned away with a 503
+ * while reads go on. The read latency with hashing on the bounded pool against hashing on as many threads as there
+ * are logins, as the request threads used to, is tagged "loadtest" and only runs with {@code mvn -Ploadtest test}.
+ * Sizes can be raised with -Dbench.loginThreads.
+ */
+@SpringBootTest(properties = {"ims.security.hashing.threads=1", "ims.security.hashing.queue-capacity=4"})
+@AutoConfigureMockMvc
+class LoginStormTest extends IntegrationTestSupport {
+
+    private static final int LOGIN_THREADS = Integer.getInteger("bench.loginThreads", 32);
+    private static final int SAMPLES = 40;
+    private static final String PASSWORD = "shift-change";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    private User staff;
+
+    @BeforeEach
+    void setUp() {
+        staff = userRepository.save(User.builder().name("staff").email("staff@ims.test")
+                .password(passwordEncoder.encode(PASSWORD)).phoneNumber("0000").role(UserRole.MANAGER).build());
+        Category category = createCategory("storm");
+        for (int i = 0; i < 50; i++) {
+            Product product = createProduct("STORM-" + i, category, "2.50", 100);
+            if (i < 10) {
+                seedTransactions(20, n -> sale(product, staff, 1).build());
+            }
+        }
+    }
+
+    @Test
+    void readsGoOnWhileLoginsAreRejectedFast() throws Exception {
+        ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        duringStorm(() -> countLogin(statuses));
+
+        assertTrue(statuses.containsKey(200), statuses.toString());
+        assertTrue(statuses.containsKey(503), statuses.toString());
+        assertTrue(passwordHasher.rejected() > 0);
+    }
+
+    @Test
+    @Tag("loadtest")
+    void readsKeepTheirLatencyDuringALoginStorm() throws Exception {
+        sampleReads(); // warm-up
+        double[] idle = sampleReads();
+
+        ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        double[] bounded = duringStorm(() -> countLogin(statuses));
+
+        // the former behaviour: every login hashing on its own request thread
+        double[] unbounded = duringStorm(() -> passwordEncoder.matches(PASSWORD, staff.getPassword()));
+
+        System.out.printf("[bench] login storm, %d login threads, reads p50/p99 ms: idle %.1f/%.1f, "
+                        + "bounded hashing %.1f/%.1f, hashing on request threads %.1f/%.1f; login statuses %s%n",
+                LOGIN_THREADS, idle[0], idle[1], bounded[0], bounded[1], unbounded[0], unbounded[1], statuses);
+
+        assertTrue(statuses.containsKey(503), statuses.toString());
+    }
+
+    @Test
+    void loginRehashesPasswordsOfAnotherCost() throws Exception {
+        String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        staff.setPassword(weak);
+        userRepository.save(staff);
+        assertTrue(passwordHasher.needsRehash(weak));
+
+        login().andExpect(status().isOk());
+
+        String upgraded = userRepository.findById(staff.getId()).orElseThrow().getPassword();
+        assertNotEquals(weak, upgraded);
+        assertTrue(upgraded.startsWith("$2a$10$"), upgraded);
+        assertTrue(!passwordHasher.needsRehash(upgraded));
+        login().andExpect(status().isOk());
+        assertEquals(upgraded, userRepository.findById(staff.getId()).orElseThrow().getPassword());
+    }
+
+    private ResultActions login() throws Exception {
+        return mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"staff@ims.test\", \"password\": \"" + PASSWORD + "\"}"));
+    }
+
+    private void countLogin(ConcurrentHashMap<Integer, LongAdder> statuses) throws Exception {
+        int status = login().andReturn().getResponse().getStatus();
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    private double[] duringStorm(ThrowingRunnable login) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < LOGIN_THREADS; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    try {
+                        login.run();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }));
+        }
+        try {
+            Thread.sleep(200);
+            return sampleReads();
+        } finally {
+            running.set(false);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+    }
+
+    // p50 and p99 in ms of a product list and a transaction page, alternately
+    private double[] sampleReads() throws Exception {
+        double[] millis = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long begin = System.nanoTime();
+            if (i % 2 == 0) {
+                mockMvc.perform(get("/api/products/all").with(user("staff@ims.test").roles("ADMIN")))
+                        .andExpect(status().isOk());
+            } else {
+                mockMvc.perform(get("/api/transactions/all?page=0&size=20").with(user("staff@ims.test").roles("ADMIN")))
+                        .andExpect(status().isOk());
+            }
+            millis[i] = (System.nanoTime() - begin) / 1e6;
+        }
+        Arrays.sort(millis);
+        return new double[]{millis[SAMPLES / 2], millis[(int) Math.ceil(SAMPLES * 0.99) - 1]};
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,134 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementBudget;
+import com._4GI.InventoryManagementSystem.dto.PrincipalCacheStatsDTO;
+import com._4GI.InventoryManagementSystem.dto.UserDTO;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PrincipalCacheTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("principal@ims.test", UserRole.MANAGER);
+    }
+
+    @Test
+    void repeatRequestsReachTheControllerWithoutDatabaseWork() throws Exception {
+        String authorization = "Bearer " + jwtUtils.generateToken(user);
+        PrincipalCacheStatsDTO before = principalCache.stats();
+
+        // MockMvc runs the filters on this thread, where each request's statements are counted
+        mockMvc.perform(get("/api/stats/dashboard").header("Authorization", authorization)).andExpect(status().isOk());
+        SqlStatementBudget.assertSelectCount(1);
+
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/api/stats/dashboard").header("Authorization", authorization)).andExpect(status().isOk());
+            SqlStatementBudget.assertSqlCount(0, 0, 0, 0);
+        }
+
+        PrincipalCacheStatsDTO after = principalCache.stats();
+        assertEquals(10, after.getHits() - before.getHits());
+        assertEquals(1, after.getMisses() - before.getMisses());
+        assertTrue(after.getHitRatio() > 0);
+    }
+
+    @Test
+    void currentUserIsServedWithoutTouchingTheCachedPrincipal() throws Exception {
+        String authorization = "Bearer " + jwtUtils.generateToken(user);
+        mockMvc.perform(get("/api/users/current").header("Authorization", authorization)).andExpect(status().isOk());
+        User cached = ((AuthUser) userDetailsService.loadUserByUsername("principal@ims.test")).getUser();
+        List<Transaction> transactions = new ArrayList<>();
+        cached.setTransactions(transactions);
+
+        mockMvc.perform(get("/api/users/current").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("principal@ims.test"))
+                .andExpect(jsonPath("$.role").value("MANAGER"))
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andExpect(jsonPath("$.transactions").doesNotExist());
+        SqlStatementBudget.assertSqlCount(0, 0, 0, 0);
+
+        assertSame(cached, ((AuthUser) userDetailsService.loadUserByUsername("principal@ims.test")).getUser());
+        assertSame(transactions, cached.getTransactions());
+    }
+
+    @Test
+    void updatesAndDeletionsAreSeenByTheNextRequest() {
+        assertEquals(UserRole.MANAGER, role(userDetailsService.loadUserByUsername("principal@ims.test")));
+
+        UserDTO promotion = new UserDTO();
+        promotion.setRole(UserRole.ADMIN);
+        userService.updateUser(user.getId(), promotion);
+        assertEquals(UserRole.ADMIN, role(userDetailsService.loadUserByUsername("principal@ims.test")));
+
+        // the former email is not served from the cache any more
+        UserDTO rename = new UserDTO();
+        rename.setEmail("renamed@ims.test");
+        userService.updateUser(user.getId(), rename);
+        assertThrows(NotFoundException.class, () -> userDetailsService.loadUserByUsername("principal@ims.test"));
+        assertEquals(user.getId(), ((AuthUser) userDetailsService.loadUserByUsername("renamed@ims.test")).getUser().getId());
+
+        userService.deleteUser(user.getId());
+        assertThrows(NotFoundException.class, () -> userDetailsService.loadUserByUsername("renamed@ims.test"));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        PrincipalCache cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 10);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMillis(50));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a@ims.test", email -> { loads.incrementAndGet(); return Optional.of(user); });
+        cache.get("a@ims.test", email -> { loads.incrementAndGet(); return Optional.of(user); });
+        assertEquals(1, loads.get());
+
+        Thread.sleep(100);
+        cache.get("a@ims.test", email -> { loads.incrementAndGet(); return Optional.of(user); });
+        assertEquals(2, loads.get());
+    }
+
+    private static UserRole role(Object principal) {
+        return ((AuthUser) principal).getUser().getRole();
+    }
+}
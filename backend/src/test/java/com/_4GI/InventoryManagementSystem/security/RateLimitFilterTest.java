@@ -0,0 +1,133 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest(properties = {"ims.ratelimit.enabled=true", "ims.ratelimit.capacity=20",
+        "ims.ratelimit.refill-per-second=1", "ims.ratelimit.address.capacity=30",
+        "ims.ratelimit.address.refill-per-second=1", "ims.ratelimit.login.capacity=20",
+        "ims.ratelimit.login.refill-per-second=1", "ims.ratelimit.cost.list=5", "ims.ratelimit.cost.login=10"})
+@AutoConfigureMockMvc
+class RateLimitFilterTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Test
+    void usersAreLimitedByTheirOwnBucketWithWeightedCosts() throws Exception {
+        String first = "Bearer " + jwtUtils.generateToken(createUser("first@ims.test", UserRole.ADMIN));
+        String second = "Bearer " + jwtUtils.generateToken(createUser("second@ims.test", UserRole.ADMIN));
+        long rejectedBefore = rateLimitFilter.rejected();
+
+        // four lists of 5 tokens empty the bucket of 20
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/products/all").header("Authorization", first)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/products/all").header("Authorization", first))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // same address, another user: a bucket of its own
+        mockMvc.perform(get("/api/products/all").header("Authorization", second)).andExpect(status().isOk());
+        assertEquals(1, rateLimitFilter.rejected() - rejectedBefore);
+    }
+
+    @Test
+    void usersBehindOneAddressShareItsLargerBucket() throws Exception {
+        String first = "Bearer " + jwtUtils.generateToken(createUser("nat-first@ims.test", UserRole.ADMIN));
+        String second = "Bearer " + jwtUtils.generateToken(createUser("nat-second@ims.test", UserRole.ADMIN));
+
+        // 20 tokens of the first user's bucket, 20 of the address's 30
+        for (int i = 0; i < 4; i++) {
+            list(first, "10.0.0.9").andExpect(status().isOk());
+        }
+        // the user is refused before the address is charged
+        list(first, "10.0.0.9").andExpect(status().isTooManyRequests());
+        list(second, "10.0.0.9").andExpect(status().isOk());
+        list(second, "10.0.0.9").andExpect(status().isOk());
+        // the second user still has tokens, the address has none left
+        list(second, "10.0.0.9").andExpect(status().isTooManyRequests());
+        list(second, "10.0.0.10").andExpect(status().isOk());
+    }
+
+    @Test
+    void anonymousLoginsAreLimitedPerAddress() throws Exception {
+        String body = "{\"email\": \"nobody@ims.test\", \"password\": \"x\"}";
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/auth/login").with(address("10.0.0.7"))
+                    .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(post("/api/auth/login").with(address("10.0.0.7"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(post("/api/auth/login").with(address("10.0.0.8"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+
+        // logins have a budget of their own, the address's other requests are unaffected
+        String token = "Bearer " + jwtUtils.generateToken(createUser("office@ims.test", UserRole.ADMIN));
+        list(token, "10.0.0.7").andExpect(status().isOk());
+    }
+
+    @Test
+    void bucketsRefillOverTimeAndIdleOnesAreEvicted() {
+        AtomicLong now = new AtomicLong(1_000);
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 60_000, 1, now::get);
+
+        assertEquals(0, limiter.tryAcquire("ip:a", 10));
+        assertEquals(400, limiter.tryAcquire("ip:a", 2));
+        now.addAndGet(200);
+        assertEquals(0, limiter.tryAcquire("ip:a", 1));
+        assertEquals(0, limiter.tryAcquire("ip:b", 3));
+        assertEquals(2, limiter.size());
+
+        now.addAndGet(30_000);
+        limiter.tryAcquire("ip:b", 1);
+        now.addAndGet(30_001);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+        // a dropped client starts again with a full bucket
+        assertEquals(0, limiter.tryAcquire("ip:a", 10));
+
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(20_000, 1, 0, 1));
+    }
+
+    private ResultActions list(String authorization, String ip) throws Exception {
+        return mockMvc.perform(get("/api/products/all").header("Authorization", authorization).with(address(ip)));
+    }
+
+    private static RequestPostProcessor address(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+}
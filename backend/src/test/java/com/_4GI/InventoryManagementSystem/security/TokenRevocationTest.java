@@ -0,0 +1,141 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementBudget;
+import com._4GI.InventoryManagementSystem.dto.UserDTO;
+import com._4GI.InventoryManagementSystem.entity.TokenRevocation;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenRevocationTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("revoked@ims.test", UserRole.ADMIN);
+    }
+
+    @Test
+    void roleChangeRevokesTheTokensIssuedBefore() throws Exception {
+        String before = jwtUtils.generateToken(user);
+        dashboard(before).andExpect(status().isOk());
+
+        UserDTO demotion = new UserDTO();
+        demotion.setRole(UserRole.MANAGER);
+        userService.updateUser(user.getId(), demotion);
+
+        dashboard(before).andExpect(status().isForbidden());
+        user.setRole(UserRole.MANAGER);
+        dashboard(jwtUtils.generateToken(user)).andExpect(status().isOk());
+    }
+
+    @Test
+    void aNameChangeKeepsTheTokensValid() throws Exception {
+        String token = jwtUtils.generateToken(user);
+
+        UserDTO rename = new UserDTO();
+        rename.setName("Renamed");
+        userService.updateUser(user.getId(), rename);
+
+        dashboard(token).andExpect(status().isOk());
+    }
+
+    @Test
+    void deletionRevokesWithoutReachingTheUserLookup() throws Exception {
+        String token = jwtUtils.generateToken(user);
+        userService.deleteUser(user.getId());
+
+        // counted on this thread, from the first filter on, so the background refreshes do not interfere
+        dashboard(token).andExpect(status().isForbidden());
+        SqlStatementBudget.assertSqlCount(0, 0, 0, 0);
+    }
+
+    @Test
+    void logoutRevokesOnlyThatToken() throws Exception {
+        String first = jwtUtils.generateToken(user);
+        String second = jwtUtils.generateToken(user);
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + first))
+                .andExpect(status().isOk());
+
+        dashboard(first).andExpect(status().isForbidden());
+        dashboard(second).andExpect(status().isOk());
+    }
+
+    @Test
+    void picksUpRevocationsOfOtherInstancesAndDropsExpiredOnes() throws Exception {
+        String token = jwtUtils.generateToken(user);
+        Instant now = Instant.now();
+        // written by another instance
+        tokenRevocationRepository.save(TokenRevocation.builder().key(TokenRevocations.USER_PREFIX + user.getEmail())
+                .notBefore(now.plusSeconds(1)).expiresAt(now.plus(1, ChronoUnit.DAYS)).build());
+        tokenRevocationRepository.save(TokenRevocation.builder().key(TokenRevocations.TOKEN_PREFIX + "gone")
+                .notBefore(now).expiresAt(now.plusMillis(50)).build());
+        dashboard(token).andExpect(status().isOk());
+
+        tokenRevocations.refresh();
+        dashboard(token).andExpect(status().isForbidden());
+        assertEquals(2, tokenRevocations.size());
+
+        Thread.sleep(100);
+        tokenRevocations.refresh();
+        assertEquals(1, tokenRevocations.size());
+        assertEquals(1, tokenRevocationRepository.count());
+        assertTrue(tokenRevocations.isRevoked(jwtUtils.verify(token)));
+    }
+
+    @Test
+    void picksUpRevocationsCommittedAfterTheLastRefresh() throws Exception {
+        String token = jwtUtils.generateToken(user);
+        tokenRevocations.refresh();
+
+        // created by another instance before that refresh, committed after it
+        Instant now = Instant.now();
+        TokenRevocation late = tokenRevocationRepository.save(TokenRevocation.builder()
+                .key(TokenRevocations.USER_PREFIX + user.getEmail())
+                .notBefore(now.plusSeconds(1)).expiresAt(now.plus(1, ChronoUnit.DAYS)).build());
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE TokenRevocation r SET r.createdAt = :createdAt WHERE r.id = :id")
+                .setParameter("createdAt", now.minusSeconds(10))
+                .setParameter("id", late.getId())
+                .executeUpdate());
+
+        tokenRevocations.refresh();
+        dashboard(token).andExpect(status().isForbidden());
+        // read again within the overlap, still one entry
+        tokenRevocations.refresh();
+        assertEquals(1, tokenRevocations.size());
+    }
+
+    private ResultActions dashboard(String token) throws Exception {
+        return mockMvc.perform(get("/api/stats/dashboard").header("Authorization", "Bearer " + token));
+    }
+}
@@ -0,0 +1,99 @@
+package com._4GI.InventoryManagementSystem.security;
+
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "LadTkKieQwIPtqrEXozfyR0ASW9jumF4YDsg";
+
+    private final User user = User.builder().id(1L).email("jane@ims.test").role(UserRole.ADMIN).build();
+
+    @Test
+    void verifiesOnceThenAnswersFromTheCache() {
+        JwtUtils jwtUtils = jwtUtils(100);
+        String token = jwtUtils.generateToken(user);
+
+        VerifiedToken first = jwtUtils.verify(token);
+        assertEquals("jane@ims.test", first.subject());
+        assertEquals("ADMIN", first.role());
+        assertTrue(first.expiresAt().isAfter(Instant.now()));
+
+        assertSame(first, jwtUtils.verify(token));
+        assertEquals(1, cache(jwtUtils).size());
+    }
+
+    @Test
+    void rejectsForgedAndExpiredTokensWithoutCachingThem() {
+        JwtUtils jwtUtils = jwtUtils(100);
+        String token = jwtUtils.generateToken(user);
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = Jwts.builder()
+                .subject(user.getEmail())
+                .claim("role", "ADMIN")
+                .expiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .compact();
+
+        assertThrows(SignatureException.class, () -> jwtUtils.verify(forged));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.verify(expired));
+        assertEquals(0, cache(jwtUtils).size());
+    }
+
+    @Test
+    void dropsExpiredEntriesAndStaysBounded() {
+        Instant now = Instant.now();
+        VerifiedTokenCache cache = new VerifiedTokenCache(8);
+        cache.put("short", new VerifiedToken("a", "ADMIN", null, now, now.plusSeconds(1)), now);
+        assertNull(cache.get("short", now.plusSeconds(1)));
+        assertEquals(0, cache.size());
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("token" + i, new VerifiedToken("u" + i, "MANAGER", null, now, now.plusSeconds(60)), now);
+        }
+        assertTrue(cache.size() <= 8, "size " + cache.size());
+        assertEquals("u99", cache.get("token99", now).subject());
+
+        // a token without expiry is never kept
+        cache.put("forever", new VerifiedToken("b", "ADMIN", null, now, null), now);
+        assertNull(cache.get("forever", now));
+    }
+
+    @Test
+    void cacheOfSizeZeroVerifiesEveryTime() {
+        JwtUtils jwtUtils = jwtUtils(0);
+        String token = jwtUtils.generateToken(user);
+
+        assertEquals(jwtUtils.verify(token), jwtUtils.verify(token));
+        assertEquals(0, cache(jwtUtils).size());
+    }
+
+    static JwtUtils jwtUtils(int cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretJwtString", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+
+    private static VerifiedTokenCache cache(JwtUtils jwtUtils) {
+        return (VerifiedTokenCache) ReflectionTestUtils.getField(jwtUtils, "verifiedTokens");
+    }
+}
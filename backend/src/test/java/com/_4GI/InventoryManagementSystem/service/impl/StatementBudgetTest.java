@@ -0,0 +1,117 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.ProductDTO;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.metrics.StatementCounter;
+import com._4GI.InventoryManagementSystem.service.CategoryService;
+import com._4GI.InventoryManagementSystem.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com._4GI.InventoryManagementSystem.SqlStatementBudget.assertSelectCount;
+import static com._4GI.InventoryManagementSystem.SqlStatementBudget.assertSqlCount;
+import static com._4GI.InventoryManagementSystem.SqlStatementBudget.reset;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Statement budgets of the reorder and catalog paths, which used to issue one statement per row, and the N+1
+ * warning the inspector logs for a select repeated within a request.
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class StatementBudgetTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void reordersAreOneSelectAndOneBatchedUpdate() {
+        List<Category> categories = new ArrayList<>();
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Category category = createCategory("budget " + i);
+            categories.add(category);
+            products.add(ProductDTO.fromEntity(createProduct("BUD-" + i, category, "1.00", 1)));
+        }
+        Collections.shuffle(products, new Random(42));
+        List<Long> categoryIds = new ArrayList<>(categories.stream().map(Category::getId).toList());
+        Collections.reverse(categoryIds);
+
+        reset();
+        productService.updateProductPositions(products);
+        assertSqlCount(1, 0, 1, 0);
+
+        reset();
+        categoryService.reorderCategories(categoryIds);
+        assertSqlCount(1, 0, 1, 0);
+
+        assertEquals(products.stream().map(ProductDTO::getId).toList(),
+                productRepository.findAllByOrderByPositionAsc().stream().map(Product::getId).toList());
+        assertEquals(categoryIds, categoryRepository.findAll(Sort.by("position")).stream().map(Category::getId).toList());
+    }
+
+    @Test
+    void reorderWithAnUnknownCategoryIsRejectedWhole() {
+        Category first = createCategory("first");
+        Category second = createCategory("second");
+
+        assertThrows(NotFoundException.class,
+                () -> categoryService.reorderCategories(List.of(second.getId(), -1L, first.getId())));
+
+        assertEquals(List.of(0, 0), categoryRepository.findAllById(List.of(first.getId(), second.getId())).stream()
+                .map(Category::getPosition).toList());
+    }
+
+    @Test
+    void catalogReadsAreOneSelectWhateverTheCategories() {
+        for (int i = 0; i < 20; i++) {
+            createProduct("CAT-" + i, createCategory("catalog " + i), "1.00", 1);
+        }
+
+        reset();
+        assertEquals(20, productService.getAllProducts().getProducts().size());
+        assertSelectCount(1);
+
+        reset();
+        assertEquals(20, categoryService.getAllCategories().getCategories().size());
+        assertSelectCount(1);
+    }
+
+    @Test
+    void repeatedSelectsInARequestAreLoggedWithTheirCallSite(CapturedOutput output) {
+        Category category = createCategory("n+1");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(createProduct("NPO-" + i, category, "1.00", 1).getId());
+        }
+        long before = StatementCounter.repeatedSelects();
+
+        StatementCounter.beginRequest();
+        try {
+            // one lookup per id, the pattern the reorders used to have
+            ids.forEach(id -> productRepository.findById(id).orElseThrow());
+        } finally {
+            StatementCounter.endRequest();
+        }
+
+        assertEquals(before + 1, StatementCounter.repeatedSelects());
+        assertTrue(output.getOut().contains("Possible N+1: the same select prepared 10 times in one request, at "
+                + StatementBudgetTest.class.getName()), output.getOut());
+    }
+}
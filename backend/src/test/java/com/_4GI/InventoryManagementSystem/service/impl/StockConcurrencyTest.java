@@ -0,0 +1,143 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.InsufficientStockException;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Sells and restocks of a single hot product from many threads: no update is lost and stock never goes negative.
+ * Sizes can be raised with -Dbench.threads / -Dbench.opsPerThread; throughput is measured by the load test.
+ */
+class StockConcurrencyTest extends IntegrationTestSupport {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int OPS_PER_THREAD = Integer.getInteger("bench.opsPerThread", 50);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private Product product;
+    private Supplier supplier;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("bench@ims.test", UserRole.ADMIN);
+        supplier = createSupplier("bench");
+        product = createProduct("HOT-1", createCategory("bench"), "2.50", 0);
+    }
+
+    @Test
+    void concurrentSellsNeverLoseUpdatesOrOversell() throws Exception {
+        // Only half of the attempted sells can be served
+        int initialStock = THREADS * OPS_PER_THREAD / 2;
+        restock(initialStock);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            try {
+                transactionService.sell(request(1, null));
+                sold.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int finalStock = productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+
+        assertEquals(initialStock, sold.get());
+        assertEquals(THREADS * OPS_PER_THREAD - initialStock, rejected.get());
+        assertEquals(0, finalStock);
+        // one ledger row per accepted sell plus the initial restock
+        assertEquals(sold.get() + 1, transactionRepository.count());
+    }
+
+    @Test
+    void concurrentMixedRestockAndSellKeepStockConsistent() throws Exception {
+        int initialStock = 1_000;
+        restock(initialStock);
+
+        AtomicInteger counter = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (counter.getAndIncrement() % 2 == 0) {
+                transactionService.restockInventory(request(3, supplier.getId()));
+            } else {
+                transactionService.sell(request(2, null));
+            }
+        });
+
+        int operations = THREADS * OPS_PER_THREAD;
+        int restocks = (operations + 1) / 2;
+        int sells = operations / 2;
+        int finalStock = productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+
+        assertEquals(initialStock + restocks * 3 - sells * 2, finalStock);
+        assertTrue(finalStock >= 0);
+    }
+
+    private void restock(int quantity) {
+        authenticate(user);
+        try {
+            transactionService.restockInventory(request(quantity, supplier.getId()));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private TransactionRequest request(int quantity, Long supplierId) {
+        return new TransactionRequest(product.getId(), quantity, supplierId, "bench");
+    }
+
+    // Runs OPS_PER_THREAD operations on THREADS threads released at the same time
+    private void runConcurrently(Runnable operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                authenticate(user);
+                try {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        operation.run();
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,117 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionBatchResult;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Behaviour of /api/transactions/batch, plus a throughput comparison against looping the single-call path that is
+ * tagged "loadtest" and only runs with {@code mvn -Ploadtest test}. The line count can be raised with -Dbench.lines.
+ */
+class TransactionBatchTest extends IntegrationTestSupport {
+
+    private static final int LINES = Integer.getInteger("bench.lines", 2_000);
+    private static final int PRODUCTS = 50;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Supplier supplier;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        authenticate(createUser("batch@ims.test", UserRole.MANAGER));
+        supplier = createSupplier("batch");
+        Category category = createCategory("batch");
+
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(createProduct("B-" + i, category, "1.00", 1_000_000));
+        }
+    }
+
+    @Test
+    void reportsOneResultPerLineAndAppliesStockInOrder() {
+        Product product = createProduct("SMALL", categoryRepository.findAll().get(0), "4.00", 5);
+
+        List<TransactionRequest> lines = List.of(
+                line(product.getId(), 3, null, TransactionType.SALE),
+                line(product.getId(), 3, null, TransactionType.SALE),                  // only 2 left
+                line(product.getId(), 10, supplier.getId(), TransactionType.PURCHASE),
+                line(product.getId(), 3, null, TransactionType.SALE),                  // now served
+                line(product.getId(), 1, null, TransactionType.RETURN_TO_SUPPLIER),    // missing supplier
+                line(999_999L, 1, null, TransactionType.SALE),                         // unknown product
+                line(product.getId(), 1, null, null));                                 // missing type
+
+        Response response = transactionService.processBatch(lines);
+        List<TransactionBatchResult> results = response.getBatchResults();
+
+        assertEquals(lines.size(), results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals(200, results.get(3).getStatus());
+        assertEquals(400, results.get(4).getStatus());
+        assertEquals(404, results.get(5).getStatus());
+        assertEquals(400, results.get(6).getStatus());
+        assertNotNull(results.get(0).getTransactionId());
+        assertNull(results.get(1).getTransactionId());
+
+        assertEquals(5 - 3 + 10 - 3, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    @Tag("loadtest")
+    void batchOutperformsLoopingSingleCalls() {
+        List<TransactionRequest> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            lines.add(line(products.get(i % PRODUCTS).getId(), 1, null, TransactionType.SALE));
+        }
+
+        // warm up both paths
+        transactionService.processBatch(lines.subList(0, 100));
+        lines.subList(0, 100).forEach(transactionService::sell);
+
+        long begin = System.nanoTime();
+        for (TransactionRequest line : lines) {
+            transactionService.sell(line);
+        }
+        long looped = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        Response response = transactionService.processBatch(lines);
+        long batched = System.nanoTime() - begin;
+
+        System.out.printf("[bench] %d sells: looped %.1f ms, batch %.1f ms (%.1fx)%n",
+                LINES, looped / 1e6, batched / 1e6, (double) looped / batched);
+
+        assertTrue(response.getBatchResults().stream().allMatch(r -> r.getStatus() == 200));
+        assertTrue(batched < looped, "batch ingestion should be faster than looping single calls");
+    }
+
+    private TransactionRequest line(Long productId, int quantity, Long supplierId, TransactionType type) {
+        return new TransactionRequest(productId, quantity, supplierId, "batch", type);
+    }
+}
@@ -0,0 +1,188 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.TransactionStatusBulkRequest;
+import com._4GI.InventoryManagementSystem.dto.TransactionStatusBulkResult;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Supplier;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionStatus;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Settling supplier returns through the bulk status endpoint, plus a timing comparison with one
+ * updateTransactionStatus call per row that is tagged "loadtest" and only runs with {@code mvn -Ploadtest test}.
+ * The size can be raised with -Dbench.rows (50000 for the full settlement).
+ */
+class TransactionBulkStatusTest extends IntegrationTestSupport {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 5_000);
+    private static final int SINGLE_CALLS = 500;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Supplier acme;
+    private Supplier other;
+
+    @BeforeEach
+    void setUp() {
+        User user = createUser("settle@ims.test", UserRole.MANAGER);
+        acme = createSupplier("acme");
+        other = createSupplier("other");
+        Product product = createProduct("RET-1", createCategory("returns"), "3.00", 0);
+
+        // 4 rows in 5 are processing returns (3 of acme, 1 of the other supplier), 1 in 5 is a completed sale
+        seedTransactions(ROWS, i -> i % 5 == 4
+                ? sale(product, user, 1).build()
+                : Transaction.builder()
+                        .transactionType(TransactionType.RETURN_TO_SUPPLIER)
+                        .status(TransactionStatus.PROCESSING)
+                        .product(product)
+                        .user(user)
+                        .supplier(i % 5 == 3 ? other : acme)
+                        .totalProducts(1)
+                        .description("return " + i)
+                        .build());
+    }
+
+    @Test
+    void filterSettlesTheMatchingRowsOnly() {
+        long acmeReturns = ROWS / 5 * 3 + Math.min(ROWS % 5, 3);
+
+        TransactionStatusBulkResult result = transactionService.updateTransactionStatuses(TransactionStatusBulkRequest.builder()
+                        .status(TransactionStatus.COMPLETED)
+                        .type(TransactionType.RETURN_TO_SUPPLIER)
+                        .currentStatus(TransactionStatus.PROCESSING)
+                        .supplierId(acme.getId())
+                        .from(LocalDate.now())
+                        .to(LocalDate.now().plusDays(1))
+                        .build())
+                .getBulkStatusResult();
+
+        assertEquals(acmeReturns, result.getUpdated());
+        // committed chunk by chunk, not in one long transaction
+        assertTrue(result.getChunks() > 1);
+        assertEquals(0, result.getSkipped());
+        Map<TransactionStatus, Long> byStatus = transactionRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Transaction::getStatus, Collectors.counting()));
+        assertEquals(ROWS / 5 + acmeReturns, byStatus.get(TransactionStatus.COMPLETED));
+        assertEquals(ROWS - ROWS / 5 - acmeReturns, byStatus.get(TransactionStatus.PROCESSING));
+
+        // the search index followed the committed chunks
+        assertEquals(ROWS / 5 + acmeReturns, searchIndexer.search("completed", 0, 1).total());
+        assertEquals(ROWS - ROWS / 5 - acmeReturns, searchIndexer.search("processing", 0, 1).total());
+
+        // nothing is left to move: a second run is a no-op
+        TransactionStatusBulkResult again = transactionService.updateTransactionStatuses(TransactionStatusBulkRequest.builder()
+                .status(TransactionStatus.COMPLETED)
+                .supplierId(acme.getId())
+                .build()).getBulkStatusResult();
+        assertEquals(0, again.getUpdated());
+        assertEquals(acmeReturns, again.getSkipped());
+    }
+
+    @Test
+    void idsOutsideTheAllowedTransitionsAreSkippedAndUnknownIdsCounted() {
+        Map<TransactionStatus, List<Long>> idsByStatus = transactionRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Transaction::getStatus,
+                        Collectors.mapping(Transaction::getId, Collectors.toList())));
+        List<Long> processing = idsByStatus.get(TransactionStatus.PROCESSING).subList(0, 10);
+        List<Long> completed = idsByStatus.get(TransactionStatus.COMPLETED).subList(0, 5);
+
+        List<Long> ids = new ArrayList<>(processing);
+        ids.addAll(completed);
+        ids.add(processing.get(0));       // duplicates count once
+        ids.add(-1L);
+        ids.add(-2L);
+
+        TransactionStatusBulkResult result = transactionService.updateTransactionStatuses(TransactionStatusBulkRequest.builder()
+                .status(TransactionStatus.CANCELED)
+                .ids(ids)
+                .build()).getBulkStatusResult();
+
+        assertEquals(10, result.getUpdated());
+        assertEquals(5, result.getSkipped());
+        assertEquals(2, result.getNotFound());
+        Map<Long, TransactionStatus> statuses = transactionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, Transaction::getStatus));
+        processing.forEach(id -> assertEquals(TransactionStatus.CANCELED, statuses.get(id)));
+        completed.forEach(id -> assertEquals(TransactionStatus.COMPLETED, statuses.get(id)));
+        assertEquals(10, searchIndexer.search("canceled", 0, 1).total());
+    }
+
+    @Test
+    void rejectsRequestsOutsideTheTransitionRules() {
+        List<TransactionStatusBulkRequest> invalid = List.of(
+                // nothing selected
+                TransactionStatusBulkRequest.builder().status(TransactionStatus.COMPLETED).build(),
+                // ids and a filter
+                TransactionStatusBulkRequest.builder().status(TransactionStatus.COMPLETED).ids(List.of(1L))
+                        .type(TransactionType.SALE).build(),
+                // final statuses do not move
+                TransactionStatusBulkRequest.builder().status(TransactionStatus.PROCESSING)
+                        .currentStatus(TransactionStatus.COMPLETED).build(),
+                // nothing can go back to pending
+                TransactionStatusBulkRequest.builder().status(TransactionStatus.PENDING).supplierId(acme.getId()).build(),
+                TransactionStatusBulkRequest.builder().status(TransactionStatus.COMPLETED)
+                        .from(LocalDate.now()).to(LocalDate.now()).build());
+
+        for (TransactionStatusBulkRequest request : invalid) {
+            assertThrows(NameValueRequiredException.class, () -> transactionService.updateTransactionStatuses(request));
+        }
+        assertEquals(ROWS / 5, transactionRepository.findAll().stream()
+                .filter(t -> t.getStatus() == TransactionStatus.COMPLETED).count());
+    }
+
+    @Test
+    @Tag("loadtest")
+    void bulkUpdateOutpacesOneCallPerRow() {
+        List<Long> ids = transactionRepository.findAll().stream()
+                .filter(t -> t.getStatus() == TransactionStatus.PROCESSING)
+                .map(Transaction::getId)
+                .toList();
+        List<Long> looped = ids.subList(0, SINGLE_CALLS);
+        List<Long> bulk = ids.subList(SINGLE_CALLS, ids.size());
+
+        long begin = System.nanoTime();
+        looped.forEach(id -> transactionService.updateTransactionStatus(id, TransactionStatus.COMPLETED));
+        double perRowMillis = (System.nanoTime() - begin) / 1e6 / looped.size();
+
+        begin = System.nanoTime();
+        TransactionStatusBulkResult result = transactionService.updateTransactionStatuses(TransactionStatusBulkRequest.builder()
+                .status(TransactionStatus.COMPLETED)
+                .ids(bulk)
+                .build()).getBulkStatusResult();
+        double bulkPerRowMillis = (System.nanoTime() - begin) / 1e6 / bulk.size();
+
+        System.out.printf("[bench] status change: one call per row %.3f ms/row (%d rows) | bulk %.4f ms/row (%d rows), "
+                        + "%.0fx, projected %.1f s vs %.1f s for 50k rows%n",
+                perRowMillis, looped.size(), bulkPerRowMillis, bulk.size(), perRowMillis / bulkPerRowMillis,
+                perRowMillis * 50, bulkPerRowMillis * 50);
+
+        assertEquals(bulk.size(), result.getUpdated());
+        Map<Long, Transaction> byId = transactionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        assertTrue(ids.stream().allMatch(id -> byId.get(id).getStatus() == TransactionStatus.COMPLETED));
+    }
+}
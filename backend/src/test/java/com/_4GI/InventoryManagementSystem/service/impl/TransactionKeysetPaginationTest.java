@@ -0,0 +1,122 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Keyset pagination of the transaction list, with a deep-page latency comparison against OFFSET paging that is
+ * tagged "loadtest" and only runs with {@code mvn -Ploadtest test}. The row count can be raised with -Dbench.rows.
+ */
+class TransactionKeysetPaginationTest extends IntegrationTestSupport {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 20_000);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Product apple;
+    private Product pear;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("keyset@ims.test", UserRole.ADMIN);
+        var category = createCategory("fruit");
+        apple = createProduct("APPLE", category, "1.00", 0);
+        pear = createProduct("PEAR", category, "2.00", 0);
+    }
+
+    @Test
+    void walksEveryRowOnceNewestFirst() {
+        seedTransactions(95, i -> sale(i % 2 == 0 ? apple : pear, user, i + 1).build());
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Response page = transactionService.getTransactionsAfter(cursor, 10, null);
+            page.getTransactions().stream().map(TransactionDTO::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(10, pages);
+        assertEquals(95, seen.size());
+        assertEquals(95, seen.stream().distinct().count());
+        assertEquals(seen.stream().sorted((a, b) -> Long.compare(b, a)).toList(), seen);
+    }
+
+    @Test
+    void appliesSearchAndEndsWithoutCursor() {
+        seedTransactions(30, i -> sale(i % 3 == 0 ? pear : apple, user, 1).build());
+
+        Response first = transactionService.getTransactionsAfter(null, 8, "pear");
+        Response second = transactionService.getTransactionsAfter(first.getNextCursor(), 8, "pear");
+
+        assertEquals(8, first.getTransactions().size());
+        assertEquals(2, second.getTransactions().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void rejectsForgedCursor() {
+        assertThrows(NameValueRequiredException.class, () -> transactionService.getTransactionsAfter("not-a-cursor", 10, null));
+        assertEquals(1L, KeysetCursor.decode(KeysetCursor.encode(1L)));
+    }
+
+    @Test
+    @Tag("loadtest")
+    void reportsDeepPageLatencyAgainstOffsetPaging() {
+        seedTransactions(ROWS, i -> sale(apple, user, 1).build());
+        int pageSize = 50;
+        int deepPage = ROWS / pageSize - 2;
+
+        // the cursor of a deep page is the last id of the page before it
+        List<Long> ids = transactionRepository.findAll().stream()
+                .map(t -> t.getId())
+                .sorted((a, b) -> Long.compare(b, a))
+                .toList();
+        String deepCursor = KeysetCursor.encode(ids.get(deepPage * pageSize - 1));
+
+        long firstKeyset = time(() -> transactionService.getTransactionsAfter(null, pageSize, null));
+        long deepKeyset = time(() -> transactionService.getTransactionsAfter(deepCursor, pageSize, null));
+        long firstOffset = time(() -> transactionService.getAllTransactions(0, pageSize, null));
+        long deepOffset = time(() -> transactionService.getAllTransactions(deepPage, pageSize, null));
+
+        System.out.printf("[bench] page %d of %d rows: keyset first %.2f ms / deep %.2f ms, offset first %.2f ms / deep %.2f ms%n",
+                deepPage, ROWS, firstKeyset / 1e6, deepKeyset / 1e6, firstOffset / 1e6, deepOffset / 1e6);
+
+        assertEquals(ids.subList(deepPage * pageSize, deepPage * pageSize + pageSize),
+                transactionService.getTransactionsAfter(deepCursor, pageSize, null)
+                        .getTransactions().stream().map(TransactionDTO::getId).toList());
+    }
+
+    // best of a few runs, to keep JIT warm-up out of the comparison
+    private long time(Runnable call) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long begin = System.nanoTime();
+            call.run();
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        return best;
+    }
+}
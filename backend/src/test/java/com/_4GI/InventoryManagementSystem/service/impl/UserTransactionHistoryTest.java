@@ -0,0 +1,154 @@
+package com._4GI.InventoryManagementSystem.service.impl;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementBudget;
+import com._4GI.InventoryManagementSystem.dto.Response;
+import com._4GI.InventoryManagementSystem.dto.TransactionDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionTypeTotalsDTO;
+import com._4GI.InventoryManagementSystem.dto.UserTransactionSummaryDTO;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+import com._4GI.InventoryManagementSystem.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * A user's history walked page by page against the full list, the summary against the rows, and the time of a
+ * first page against loading the whole collection, tagged "loadtest" and only run with {@code mvn -Ploadtest test}.
+ * The size can be raised with -Dbench.historyRows.
+ */
+class UserTransactionHistoryTest extends IntegrationTestSupport {
+
+    private static final int ROWS = Integer.getInteger("bench.historyRows", 6_000);
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("history@ims.test", UserRole.MANAGER);
+        User colleague = createUser("colleague@ims.test", UserRole.MANAGER);
+        Product product = createProduct("HIS-1", createCategory("history"), "2.50", 0);
+
+        seedTransactions(ROWS, i -> sale(product, i % 10 == 9 ? colleague : user, i % 7 + 1)
+                .transactionType(TransactionType.values()[i % 3])
+                .description(String.valueOf(i))
+                .build());
+        // three rows per hour going back in time, so pages break inside runs of equal created_at
+        today = LocalDate.now();
+        jdbcTemplate.update("UPDATE transactions SET created_at = "
+                + "DATEADD('HOUR', -(CAST(description AS INT) / 3), CAST(? AS TIMESTAMP))", today.atStartOfDay());
+    }
+
+    @Test
+    void pagesWalkTheWholeHistoryNewestFirst() {
+        List<Long> expected = transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId()))
+                .sorted(Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SqlStatementBudget.reset();
+            Response response = userService.getUserTransactions(user.getId(), null, null, null, cursor, 250);
+            // the user, the page and, on the first page only, the summary (this thread's statements only)
+            SqlStatementBudget.assertSelectCount(pages == 0 ? 3 : 2);
+            assertEquals(pages == 0, response.getUserTransactionSummary() != null);
+            assertEquals("history@ims.test", response.getUser().getEmail());
+            assertNull(response.getUser().getTransactions());
+            response.getTransactions().forEach(t -> walked.add(t.getId()));
+            cursor = response.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        assertEquals((expected.size() + 249) / 250, pages);
+    }
+
+    @Test
+    void summaryAndFiltersMatchTheRows() {
+        LocalDate from = today.minusDays(20);
+        LocalDate to = today.minusDays(10);
+        List<Transaction> rows = transactionRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId()))
+                .filter(t -> t.getTransactionType() == TransactionType.SALE)
+                .filter(t -> !t.getCreatedAt().isBefore(from.atStartOfDay()) && t.getCreatedAt().isBefore(to.atStartOfDay()))
+                .toList();
+
+        Response response = userService.getUserTransactions(user.getId(), from, to, TransactionType.SALE, null, 500);
+
+        assertEquals(rows.stream().map(Transaction::getId).collect(Collectors.toSet()),
+                response.getTransactions().stream().map(TransactionDTO::getId).collect(Collectors.toSet()));
+        UserTransactionSummaryDTO summary = response.getUserTransactionSummary();
+        assertEquals(rows.size(), summary.getCount());
+        assertEquals(rows.stream().mapToLong(Transaction::getTotalProducts).sum(), summary.getTotalProducts());
+        assertEquals(0, rows.stream().map(Transaction::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add)
+                .compareTo(summary.getTotalPrice()));
+        assertEquals(List.of(TransactionType.SALE),
+                summary.getByType().stream().map(TransactionTypeTotalsDTO::getTransactionType).toList());
+
+        // unfiltered: one entry per type, adding up to the user's rows
+        UserTransactionSummaryDTO all = userService.getUserTransactions(user.getId(), null, null, null, null, 1)
+                .getUserTransactionSummary();
+        assertEquals(3, all.getByType().size());
+        assertEquals(ROWS - ROWS / 10, all.getCount());
+        assertNotNull(all.getTotalPrice());
+
+        assertThrows(NameValueRequiredException.class,
+                () -> userService.getUserTransactions(user.getId(), null, null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    @Tag("loadtest")
+    void firstPageAgainstLoadingTheCollection() {
+        // warm-up of both paths
+        loadCollection();
+        userService.getUserTransactions(user.getId(), null, null, null, null, 50);
+
+        long begin = System.nanoTime();
+        int loaded = loadCollection();
+        double collectionMillis = (System.nanoTime() - begin) / 1e6;
+
+        begin = System.nanoTime();
+        Response page = userService.getUserTransactions(user.getId(), null, null, null, null, 50);
+        double pageMillis = (System.nanoTime() - begin) / 1e6;
+
+        System.out.printf("[bench] user history: whole collection %d rows %.1f ms, first page of %d with summary %.1f ms%n",
+                loaded, collectionMillis, page.getTransactions().size(), pageMillis);
+        assertEquals(50, page.getTransactions().size());
+    }
+
+    // The former path: the user's lazy collection, every row mapped
+    private int loadCollection() {
+        return transactionTemplate.execute(status -> userRepository.findById(user.getId()).orElseThrow()
+                .getTransactions().stream().map(TransactionDTO::fromEntity).toList().size());
+    }
+}
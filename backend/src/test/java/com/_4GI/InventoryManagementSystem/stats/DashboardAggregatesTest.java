@@ -0,0 +1,69 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class DashboardAggregatesTest {
+
+    @Test
+    void ringCountsPerBucketAndForgetsOldLaps() {
+        ActivityRing ring = new ActivityRing(3, 1_000);
+        ring.record(10_000);
+        ring.record(10_999);
+        ring.record(12_500);
+        ring.record(7_000);  // older than the window when 12.5s is the newest: dropped on the next lap
+
+        assertArrayEquals(new long[]{2, 0, 1}, ring.snapshot(12_900));
+        assertEquals(10_000, ring.windowStart(12_900));
+
+        ring.record(13_000);  // reuses the slot of second 10
+        assertArrayEquals(new long[]{0, 1, 1}, ring.snapshot(13_100));
+        assertArrayEquals(new long[]{0, 0, 0}, ring.snapshot(60_000));
+    }
+
+    @Test
+    void ringIsExactUnderContention() throws Exception {
+        ActivityRing ring = new ActivityRing(60, 1_000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    ring.record(5_000 + i % 3 * 1_000);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        long[] counts = ring.snapshot(7_000);
+        assertEquals(800_000, counts[57] + counts[58] + counts[59]);
+    }
+
+    @Test
+    void sketchEstimatesDistinctValuesInTheWindow() {
+        DistinctSketch sketch = new DistinctSketch(10, 60_000);
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (long user = 1; user <= 25; user++) {
+                sketch.add(user, 600_000 + repeat * 60_000);
+            }
+        }
+        assertEquals(25, sketch.estimate(800_000));
+
+        for (long user = 0; user < 50_000; user++) {
+            sketch.add(user, 900_000);
+        }
+        long estimate = sketch.estimate(900_000);
+        assertTrue(Math.abs(estimate - 50_000) < 50_000 * 0.1, "estimate " + estimate);
+
+        // all of it has left the 10 minute window
+        assertEquals(0, sketch.estimate(900_000 + 10 * 60_000));
+    }
+}
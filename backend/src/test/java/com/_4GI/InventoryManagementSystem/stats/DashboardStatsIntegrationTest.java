@@ -0,0 +1,73 @@
+package com._4GI.InventoryManagementSystem.stats;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.SqlStatementBudget;
+import com._4GI.InventoryManagementSystem.dto.DashboardStatsDTO;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.service.StatsService;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class DashboardStatsIntegrationTest extends IntegrationTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private StatsService statsService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seedsFromTheDatabaseThenFollowsWrites() {
+        User user = createUser("stats@ims.test", UserRole.ADMIN);
+        User other = createUser("stats2@ims.test", UserRole.MANAGER);
+        Product product = createProduct("STATS", createCategory("stats"), "1.00", 100);
+        createSupplier("stats");
+
+        seedTransactions(5, i -> sale(product, i == 0 ? other : user, 1).build());
+        // old rows only count in the all-time counters
+        jdbcTemplate.update("UPDATE transactions SET created_at = ?", LocalDateTime.now().minusDays(1));
+        dashboardStats.rebuild();
+
+        DashboardStatsDTO seeded = statsService.getDashboardStats().getStats();
+        assertEquals(5, seeded.getTransactionsByType().get(TransactionType.SALE));
+        assertEquals(2, seeded.getTotalUsers());
+        assertEquals(1, seeded.getTotalProducts());
+        assertEquals(1, seeded.getTotalSuppliers());
+
+        authenticate(other);
+        transactionService.sell(new TransactionRequest(product.getId(), 2, null, "stats"));
+        transactionService.sell(new TransactionRequest(product.getId(), 1, null, "stats"));
+
+        DashboardStatsDTO stats = statsService.getDashboardStats().getStats();
+        assertEquals(7, stats.getTotalTransactions());
+        assertEquals(7, stats.getTransactionsByType().get(TransactionType.SALE));
+        assertEquals(0, stats.getTransactionsByType().get(TransactionType.PURCHASE));
+        assertEquals(1, stats.getActiveUsers());
+        assertEquals(60, stats.getPerSecond().size());
+        assertEquals(2, stats.getPerSecond().stream().mapToLong(DashboardStatsDTO.ActivityPoint::getCount).sum());
+        assertEquals(2, stats.getPerMinute().stream().mapToLong(DashboardStatsDTO.ActivityPoint::getCount).sum());
+    }
+
+    @Test
+    void answersWithoutTouchingTheLedger() {
+        User user = createUser("stats-bench@ims.test", UserRole.ADMIN);
+        Product product = createProduct("STATS-B", createCategory("stats"), "1.00", 0);
+        seedTransactions(2_000, i -> sale(product, user, 1).build());
+
+        SqlStatementBudget.reset();
+        assertEquals(2_000, statsService.getDashboardStats().getStats().getTotalTransactions());
+        SqlStatementBudget.assertSqlCount(0, 0, 0, 0);
+    }
+}
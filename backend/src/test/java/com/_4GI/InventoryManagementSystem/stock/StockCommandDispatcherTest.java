@@ -0,0 +1,236 @@
+package com._4GI.InventoryManagementSystem.stock;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.Transaction;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.TransactionType;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.NameValueRequiredException;
+import com._4GI.InventoryManagementSystem.exceptions.NotFoundException;
+import com._4GI.InventoryManagementSystem.exceptions.ServiceBusyException;
+import com._4GI.InventoryManagementSystem.ledger.TransactionLedger;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * What callers of the lanes get back when a command is rejected or its lane is stuck: the lane is held up by a row
+ * lock taken on the product from another transaction.
+ */
+class StockCommandDispatcherTest extends IntegrationTestSupport {
+
+    @Autowired
+    private StockCommandDispatcher dispatcher;
+
+    @Autowired
+    private TransactionLedger transactionLedger;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionService transactionService;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private long timeoutMs;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        timeoutMs = (long) ReflectionTestUtils.getField(dispatcher, "timeoutMs");
+        user = createUser("dispatcher@ims.test", UserRole.MANAGER);
+        product = createProduct("LOCKED", createCategory("dispatcher"), "2.00", 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        ReflectionTestUtils.setField(dispatcher, "timeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(dispatcher, "transactionLedger", transactionLedger);
+    }
+
+    @Test
+    void stuckLaneAnswersBusyWithinTheTimeout() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "timeoutMs", 200L);
+        lockProduct();
+        long appliedBefore = dispatcher.appliedCommands();
+
+        // picked up by the lane, which then waits for the row lock
+        StockCommand stuck = sell(product.getId());
+        Future<Transaction> applying = submit(stuck);
+        awaitClaimed(stuck);
+        // queued behind it and given up by its caller
+        Future<Transaction> queued = submit(sell(product.getId()));
+
+        for (Future<Transaction> call : List.of(applying, queued)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ServiceBusyException.class, e.getCause());
+        }
+
+        // once the lock is gone the command the lane claimed still commits, the abandoned one never does
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dispatcher.appliedCommands() == appliedBefore && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        awaitQueueDepth(0);
+        assertEquals(appliedBefore + 1, dispatcher.appliedCommands());
+        assertEquals(9, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void unknownProductIsRejectedAloneInsideItsBatch() throws Exception {
+        Long unknownId = unknownProductInTheSameLane();
+        lockProduct();
+
+        // holds the lane while the next two commands queue up behind it, they are then applied as one batch
+        StockCommand holding = sell(product.getId());
+        Future<Transaction> first = submit(holding);
+        awaitClaimed(holding);
+        Future<Transaction> sold = submit(sell(product.getId()));
+        Future<Transaction> unknown = submit(sell(unknownId));
+        awaitQueueDepth(2);
+        long batchesBefore = dispatcher.appliedBatches();
+        release.countDown();
+
+        assertNotNull(first.get(10, TimeUnit.SECONDS));
+        assertNotNull(sold.get(10, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> unknown.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(NotFoundException.class, e.getCause());
+
+        assertEquals(batchesBefore + 2, dispatcher.appliedBatches());
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    void ledgerOutOfRoomRejectsOnlyItsCommandInsideTheBatch() throws Exception {
+        // the write-behind ledger refuses the row of one command, as it does when its ring buffer stays full
+        ReflectionTestUtils.setField(dispatcher, "transactionLedger",
+                new TransactionLedger(transactionRepository, jdbcTemplate, transactionTemplate) {
+                    @Override
+                    public void record(Transaction transaction) {
+                        if ("ledger full".equals(transaction.getDescription())) {
+                            throw new ServiceBusyException("Too many transactions in progress, please retry");
+                        }
+                        transactionLedger.record(transaction);
+                    }
+                });
+        lockProduct();
+
+        StockCommand holding = sell(product.getId());
+        Future<Transaction> first = submit(holding);
+        awaitClaimed(holding);
+        Future<Transaction> before = submit(sell(product.getId()));
+        Future<Transaction> refused = submit(new StockCommand(TransactionType.SALE, product.getId(), 3, user, null,
+                "ledger full"));
+        Future<Transaction> after = submit(sell(product.getId()));
+        awaitQueueDepth(3);
+        long batchesBefore = dispatcher.appliedBatches();
+        release.countDown();
+
+        assertNotNull(first.get(10, TimeUnit.SECONDS));
+        assertNotNull(before.get(10, TimeUnit.SECONDS));
+        assertNotNull(after.get(10, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> refused.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceBusyException.class, e.getCause());
+
+        // the refused sell of 3 left the stock as it was
+        assertEquals(batchesBefore + 2, dispatcher.appliedBatches());
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    void requestsWithoutQuantityOrProductNeverReachALane() {
+        authenticate(user);
+        Long supplierId = createSupplier("dispatcher").getId();
+        long appliedBefore = dispatcher.appliedCommands();
+
+        // @Positive accepts null: answered with a 400 instead of unboxing into the command
+        assertThrows(NameValueRequiredException.class,
+                () -> transactionService.sell(new TransactionRequest(product.getId(), null, null, "no quantity")));
+        assertThrows(NameValueRequiredException.class,
+                () -> transactionService.restockInventory(new TransactionRequest(product.getId(), null, supplierId, null)));
+        assertThrows(NameValueRequiredException.class,
+                () -> transactionService.returnToSupplier(new TransactionRequest(null, 1, supplierId, null)));
+
+        assertEquals(appliedBefore, dispatcher.appliedCommands());
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    private StockCommand sell(Long productId) {
+        return new StockCommand(TransactionType.SALE, productId, 1, user, null, "dispatcher test");
+    }
+
+    private Future<Transaction> submit(StockCommand command) {
+        return executor.submit(() -> dispatcher.execute(command));
+    }
+
+    // Until a lane took the command, from then on its caller can no longer give it up
+    private void awaitClaimed(StockCommand command) throws InterruptedException {
+        AtomicBoolean claimed = (AtomicBoolean) ReflectionTestUtils.getField(command, "claimed");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!claimed.get() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(claimed.get());
+    }
+
+    // Holds the product's row lock in another transaction until the test releases it
+    private void lockProduct() throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            productRepository.findAllByIdForUpdate(List.of(product.getId()));
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dispatcher.queueDepth() != depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, dispatcher.queueDepth());
+    }
+
+    private Long unknownProductInTheSameLane() {
+        Object lane = ReflectionTestUtils.invokeMethod(dispatcher, "laneFor", product.getId());
+        long id = product.getId() + 1_000_000;
+        while (ReflectionTestUtils.invokeMethod(dispatcher, "laneFor", id) != lane) {
+            id++;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,209 @@
+package com._4GI.InventoryManagementSystem.stock;
+
+import com._4GI.InventoryManagementSystem.IntegrationTestSupport;
+import com._4GI.InventoryManagementSystem.dto.TransactionRequest;
+import com._4GI.InventoryManagementSystem.entity.Category;
+import com._4GI.InventoryManagementSystem.entity.Product;
+import com._4GI.InventoryManagementSystem.entity.User;
+import com._4GI.InventoryManagementSystem.enums.UserRole;
+import com._4GI.InventoryManagementSystem.exceptions.InsufficientStockException;
+import com._4GI.InventoryManagementSystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Hot-product behaviour of the lanes plus a p99 latency comparison, with and without the dispatcher, for sells
+ * spread over the products with a Zipfian skew; the comparison is tagged "loadtest" and only runs with
+ * {@code mvn -Ploadtest test}. Sizes can be raised with -Dbench.threads / -Dbench.opsPerThread, the skew with
+ * -Dbench.zipfExponent.
+ */
+class StockDispatcherBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int OPS_PER_THREAD = Integer.getInteger("bench.opsPerThread", 100);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("bench.zipfExponent", "1.2"));
+    private static final int PRODUCTS = 100;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private StockCommandDispatcher dispatcher;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("lanes@ims.test", UserRole.MANAGER);
+        category = createCategory("lanes");
+    }
+
+    @Test
+    void hotProductIsServedInBatchesWithoutOverselling() throws Exception {
+        int attempts = THREADS * OPS_PER_THREAD;
+        Product hot = createProduct("HOT", category, "1.00", attempts / 2);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long commandsBefore = dispatcher.appliedCommands();
+        long batchesBefore = dispatcher.appliedBatches();
+
+        runConcurrently(seed -> () -> {
+            try {
+                transactionService.sell(new TransactionRequest(hot.getId(), 1, null, "hot"));
+                sold.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        long commands = dispatcher.appliedCommands() - commandsBefore;
+        long batches = dispatcher.appliedBatches() - batchesBefore;
+
+        assertEquals(attempts / 2, sold.get());
+        assertEquals(attempts - attempts / 2, rejected.get());
+        assertEquals(0, productRepository.findById(hot.getId()).orElseThrow().getStockQuantity());
+        assertEquals(sold.get(), transactionRepository.count());
+        assertEquals(attempts, commands);
+        assertTrue(batches < commands, "concurrent sells of one product should share lane transactions");
+    }
+
+    @Test
+    @Tag("loadtest")
+    void zipfianSellsLatencyWithAndWithoutDispatcher() throws Exception {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(createProduct("Z-" + i, category, "1.00", 1_000_000));
+        }
+        ZipfSampler zipf = new ZipfSampler(PRODUCTS, ZIPF_EXPONENT);
+
+        // warm up both paths
+        run(products, zipf, false, 10);
+        run(products, zipf, true, 10);
+
+        long[] direct = run(products, zipf, false, OPS_PER_THREAD);
+        long[] dispatched = run(products, zipf, true, OPS_PER_THREAD);
+
+        Stats withoutLanes = Stats.of(direct);
+        Stats withLanes = Stats.of(dispatched);
+        System.out.printf("[bench] zipf(%.1f) sells over %d products, %d threads: "
+                        + "request threads p50 %.2f ms / p99 %.2f ms / %.0f ops/s | lanes p50 %.2f ms / p99 %.2f ms / %.0f ops/s%n",
+                ZIPF_EXPONENT, PRODUCTS, THREADS,
+                withoutLanes.p50Millis(), withoutLanes.p99Millis(), withoutLanes.opsPerSecond(),
+                withLanes.p50Millis(), withLanes.p99Millis(), withLanes.opsPerSecond());
+
+        int sells = 2 * THREADS * (10 + OPS_PER_THREAD);
+        long remaining = productRepository.findAll().stream().mapToLong(Product::getStockQuantity).sum();
+        assertEquals(PRODUCTS * 1_000_000L - sells, remaining);
+        assertEquals(sells, transactionRepository.count());
+    }
+
+    private long[] run(List<Product> products, ZipfSampler zipf, boolean lanes, int opsPerThread) throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "enabled", lanes);
+        try {
+            long begin = System.nanoTime();
+            long[] latencies = runConcurrently(opsPerThread, seed -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                return () -> transactionService.sell(new TransactionRequest(
+                        products.get(zipf.sample(random)).getId(), 1, null, "zipf"));
+            });
+            latencies[latencies.length - 1] = System.nanoTime() - begin;
+            return latencies;
+        } finally {
+            ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        }
+    }
+
+    private void runConcurrently(IntFunction<Runnable> operationPerThread) throws Exception {
+        runConcurrently(OPS_PER_THREAD, operationPerThread);
+    }
+
+    // Runs opsPerThread operations on THREADS threads released together; returns the latencies plus one spare slot
+    private long[] runConcurrently(int opsPerThread, IntFunction<Runnable> operationPerThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Runnable operation = operationPerThread.apply(t);
+            futures.add(pool.submit(() -> {
+                authenticate(user);
+                long[] latencies = new long[opsPerThread];
+                try {
+                    start.await();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        long begin = System.nanoTime();
+                        operation.run();
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return latencies;
+            }));
+        }
+
+        start.countDown();
+        long[] all = new long[THREADS * opsPerThread + 1];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(futures.get(t).get(2, TimeUnit.MINUTES), 0, all, t * opsPerThread, opsPerThread);
+        }
+        pool.shutdown();
+        return all;
+    }
+
+    // Latencies followed by the elapsed wall time of the run
+    private record Stats(double p50Millis, double p99Millis, double opsPerSecond) {
+
+        static Stats of(long[] run) {
+            long[] latencies = Arrays.copyOf(run, run.length - 1);
+            Arrays.sort(latencies);
+            return new Stats(
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[(int) (latencies.length * 0.99)] / 1e6,
+                    latencies.length / (run[run.length - 1] / 1e9));
+        }
+    }
+
+    // Rank r (0-based) drawn with probability proportional to 1 / (r + 1)^exponent
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.phegondev.InventoryManagementSystem;
 
+import com._4GI.InventoryManagementSystem.InventoryManagementSystemApplication;
 import com._4GI.InventoryManagementSystem.security.JwtUtils;
 import com._4GI.InventoryManagementSystem.security.CustomUserDetailsService;
 import org.junit.jupiter.api.Test;
@@ -7,7 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 
-@SpringBootTest
+@SpringBootTest(classes = InventoryManagementSystemApplication.class)
 class InventoryManagementSystemApplicationTests {
 
     @MockBean
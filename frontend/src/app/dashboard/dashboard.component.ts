@@ -41,11 +41,10 @@ export class DashboardComponent implements OnInit {
 	}
 
 	private loadCounts() {
-		// Users
+		// Users (the list is still needed for the country breakdown)
 		this.api.getAllUsers().subscribe({
 			next: (res: any) => {
 				const users = (res?.users || []);
-				this.totalUsers = users.length;
 
 				// Build Users By Country from users payload (no extra API needed)
 				this.usersByCountryLoaded = false;
@@ -61,16 +60,6 @@ export class DashboardComponent implements OnInit {
 				this.usersByCountryLoaded = true;
 			}
 		});
-
-		// Products
-		this.api.getAllProducts().subscribe({
-			next: (res: any) => this.totalProducts = (res?.products || []).length
-		});
-
-		// Suppliers
-		this.api.getAllSuppliers().subscribe({
-			next: (res: any) => this.totalSuppliers = (res?.suppliers || []).length
-		});
 	}
 
 	private buildUsersByCountry(users: any[]): Array<{ name: string; value: number }> {
@@ -95,56 +84,36 @@ export class DashboardComponent implements OnInit {
 	}
 
 	private loadTransactionsForStats() {
-		this.api.getAllTransactions(0, 5000, '').subscribe({
+		// Aggregates are maintained server-side, no transactions are downloaded
+		this.api.getDashboardStats().subscribe({
 			next: (res: any) => {
-				const txs = res?.transactions || [];
-				const now = Date.now();
+				const stats = res?.stats;
+				if (!stats) return;
 
-				// users online (proxy: distinct users in last 10 min)
-				try {
-					const tenMinAgo = now - 10 * 60 * 1000;
-					const recentTxs = txs.filter((t: any) => new Date(t.createdAt).getTime() >= tenMinAgo);
-					const distinctUsers = new Set(recentTxs.map((t: any) => t.user?.id).filter((x: any) => !!x));
-					this.usersOnlineRightNow = distinctUsers.size || 1;
-				} catch { this.usersOnlineRightNow = 1; }
+				this.totalUsers = stats.totalUsers;
+				this.totalProducts = stats.totalProducts;
+				this.totalSuppliers = stats.totalSuppliers;
+
+				// users online (proxy: distinct users in the last minutes)
+				this.usersOnlineRightNow = stats.activeUsers || 1;
 
 				// most active (by type)
-				const typeMap = new Map<string, number>();
-				for (const t of txs) {
-					const key = t.transactionType || 'UNKNOWN';
-					typeMap.set(key, (typeMap.get(key) || 0) + 1);
-				}
-				this.mostActive = Array.from(typeMap.entries()).map(([name, value]) => ({ name, value }));
+				this.mostActive = Object.entries(stats.transactionsByType || {})
+					.filter(([, value]) => (value as number) > 0)
+					.map(([name, value]) => ({ name, value }));
 
 				// pvs per second (last minute)
-				const oneMinAgo = now - 60 * 1000;
-				const lastMinute = txs
-					.filter((t: any) => new Date(t.createdAt).getTime() >= oneMinAgo)
-					.map((t: any) => Math.floor(new Date(t.createdAt).getTime() / 1000));
-				const perSecond = new Map<number, number>();
-				for (const s of lastMinute) perSecond.set(s, (perSecond.get(s) || 0) + 1);
-				const sortedSeconds = Array.from(perSecond.keys()).sort((a, b) => a - b);
-				this.pvsSeries = sortedSeconds.map(sec => ({
-					name: new Date(sec * 1000).toLocaleTimeString(),
-					value: perSecond.get(sec)!
-				}));
+				this.pvsSeries = (stats.perSecond || [])
+					.filter((p: any) => p.count > 0)
+					.map((p: any) => ({ name: new Date(p.time).toLocaleTimeString(), value: p.count }));
 
 				// users at time (per minute last hour)
-				const oneHourAgo = now - 60 * 60 * 1000;
-				const lastHour = txs
-					.filter((t: any) => new Date(t.createdAt).getTime() >= oneHourAgo)
-					.map((t: any) => {
-						const d = new Date(t.createdAt);
-						d.setSeconds(0, 0);
-						return d.getTime();
-					});
-				const perMinute = new Map<number, number>();
-				for (const m of lastHour) perMinute.set(m, (perMinute.get(m) || 0) + 1);
-				const sortedMinutes = Array.from(perMinute.keys()).sort((a, b) => a - b);
-				this.usersAtTime = sortedMinutes.map(ms => ({
-					name: new Date(ms).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' }),
-					value: perMinute.get(ms)!
-				}));
+				this.usersAtTime = (stats.perMinute || [])
+					.filter((p: any) => p.count > 0)
+					.map((p: any) => ({
+						name: new Date(p.time).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' }),
+						value: p.count
+					}));
 			}
 		});
 	}
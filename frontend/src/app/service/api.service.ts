@@ -186,8 +186,20 @@ export class ApiService {
         });
     }
 
+    // ---------- stats ----------
+    getDashboardStats(): Observable<any> {
+        return this.http.get(`${ApiService.BASE_URL}/stats/dashboard`, { headers: this.getHeader() });
+    }
+
     // ---------- auth utils ----------
-    logout(): void { this.clearAuth(); }
+    logout(): void {
+        // revokes the token server-side as well; the local logout does not wait for it
+        if (this.isAuthenticated()) {
+            this.http.post(`${ApiService.BASE_URL}/auth/logout`, null, { headers: this.getHeader() })
+                .subscribe({ error: () => { } });
+        }
+        this.clearAuth();
+    }
     isAuthenticated(): boolean { return !!this.getFromStorageAndDecrypt('token'); }
     isAdmin(): boolean { return this.getFromStorageAndDecrypt('role') === 'ADMIN'; }
 